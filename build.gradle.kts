@@ -3,6 +3,7 @@ plugins {
     alias(libs.plugins.spring.boot)
     alias(libs.plugins.spring.dependency.management)
     id("jacoco")
+    alias(libs.plugins.jmh)
 }
 
 configurations {
@@ -23,19 +24,36 @@ dependencyManagement {
 
 dependencies {
     implementation(libs.spring.boot.starter.web)
+    implementation(libs.spring.boot.starter.actuator)
+    implementation(libs.reactor.core)
+    runtimeOnly(libs.micrometer.registry.prometheus)
     compileOnly(libs.lombok)
     annotationProcessor(libs.lombok)
     annotationProcessor(libs.spring.boot.configuration.processor)
     testImplementation(libs.spring.boot.starter.test)
+    testImplementation(libs.reactor.test)
 }
 
 // about source and compilation
+// 가상 쓰레드(spring.threads.virtual.enabled) 사용을 위해 JDK 21 로 빌드한다.
 java {
-    sourceCompatibility = JavaVersion.VERSION_17
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
 }
 
 with(extensions.getByType(JacocoPluginExtension::class.java)) {
-    toolVersion = "0.8.7"
+    toolVersion = "0.8.11"
+}
+
+// benchmark tasks (src/jmh)
+// ./gradlew jmh -PjmhIncludes=PointServiceBenchmark.singleUser
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    includes.set(listOf(project.findProperty("jmhIncludes")?.toString() ?: ".*"))
+    fork.set(1)
+    warmupIterations.set(2)
+    iterations.set(3)
 }
 
 // bundling tasks
@@ -0,0 +1,78 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.repository.AsyncPointHistoryRepository;
+import io.hhplus.tdd.point.repository.CachedUserPointRepository;
+import io.hhplus.tdd.point.repository.IndexedPointHistoryRepository;
+import io.hhplus.tdd.point.repository.OffHeapUserPointRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.point.service.GroupCommitPointCommandEngine;
+import io.hhplus.tdd.point.service.OptimisticPointCommandEngine;
+import io.hhplus.tdd.point.service.PointCommandEngine;
+import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.service.ShardedPointCommandEngine;
+import io.hhplus.tdd.point.service.UserLockManager;
+
+/**
+ * 벤치마크 파라미터(@Param) 이름으로 저장소와 실행 방식을 조립한다.
+ * - user-point : zero-latency | table | cached | off-heap
+ * - point-history : zero-latency | table | async | indexed
+ * - engine : lock | group-commit | optimistic | sharded
+ */
+final class BenchmarkPointServices {
+
+    private BenchmarkPointServices() {
+    }
+
+    static UserPointRepository userPointRepository(String name) {
+        return switch (name) {
+            case "zero-latency" -> new ZeroLatencyUserPointRepository();
+            case "table" -> new UserPointRepositoryImpl(new UserPointTable());
+            case "cached" -> new CachedUserPointRepository(new UserPointTable(), 100L);
+            case "off-heap" -> new OffHeapUserPointRepository(new UserPointTable(), 1 << 16, 64);
+            default -> throw new IllegalArgumentException("unknown user-point repository: " + name);
+        };
+    }
+
+    static PointHistoryRepository pointHistoryRepository(String name) {
+        return switch (name) {
+            case "zero-latency" -> new ZeroLatencyPointHistoryRepository();
+            case "table" -> new PointHistoryRepositoryImpl(new PointHistoryTable());
+            case "async" -> new AsyncPointHistoryRepository(new PointHistoryTable(), 10_000, 256);
+            case "indexed" -> new IndexedPointHistoryRepository(new PointHistoryTable());
+            default -> throw new IllegalArgumentException("unknown point-history repository: " + name);
+        };
+    }
+
+    static PointCommandEngine commandEngine(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, String engine) {
+        return switch (engine) {
+            case "lock" -> null; // PointService 의 유저별 ReentrantLock
+            case "group-commit" -> new GroupCommitPointCommandEngine(userPointRepository, pointHistoryRepository, 128);
+            case "optimistic" -> new OptimisticPointCommandEngine(userPointRepository, pointHistoryRepository, new UserLockManager(), 8, 100L);
+            case "sharded" -> new ShardedPointCommandEngine(userPointRepository, pointHistoryRepository, 0, 10_000, 128, 10_000);
+            default -> throw new IllegalArgumentException("unknown engine: " + engine);
+        };
+    }
+
+    static PointService pointService(UserPointRepository userPointRepository, PointHistoryRepository pointHistoryRepository, PointCommandEngine commandEngine) {
+        PointService pointService = new PointService(userPointRepository, pointHistoryRepository);
+        if (commandEngine != null) {
+            pointService.setCommandEngine(commandEngine);
+        }
+        return pointService;
+    }
+
+    static void close(Object target) {
+        if (target instanceof CachedUserPointRepository cached) {
+            cached.close();
+        } else if (target instanceof AsyncPointHistoryRepository async) {
+            async.close();
+        } else if (target instanceof ShardedPointCommandEngine sharded) {
+            sharded.close();
+        }
+    }
+}
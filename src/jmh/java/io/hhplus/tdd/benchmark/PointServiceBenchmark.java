@@ -0,0 +1,136 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.service.PointCommandEngine;
+import io.hhplus.tdd.point.service.PointService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PointService 처리량/지연 벤치마크
+ * - singleUser : 여러 쓰레드가 한 유저에게 충전/사용을 반복 (Lock 경합)
+ * - manyUsers : 여러 쓰레드가 많은 유저에게 고르게 충전/사용 (경합 거의 없음)
+ * - readHeavy : 조회 쓰레드 7개, 쓰기 쓰레드 1개가 같은 유저 범위를 사용
+ * engine=lock 이 PointService 의 유저별 ReentrantLock 경로이며, 나머지 실행기와 같은 조건에서 비교한다.
+ * 기본 파라미터는 throttle 없는 대역이며, -p userPoint=table 처럼 바꿔 테이블 지연을 포함해 측정할 수 있다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PointServiceBenchmark {
+
+    private static final long HOT_USER_ID = 1L;
+    private static final int USER_COUNT = 10_000;
+    private static final int READ_USER_COUNT = 100;
+    private static final long AMOUNT = 10L;
+
+    @Param({"zero-latency"})
+    public String userPoint;
+
+    @Param({"zero-latency"})
+    public String pointHistory;
+
+    @Param({"lock", "group-commit", "optimistic", "sharded"})
+    public String engine;
+
+    @Param({"10"})
+    public int historiesPerUser; // 내역 조회 벤치마크를 위해 미리 넣어둘 유저별 내역 수
+
+    private UserPointRepository userPointRepository;
+    private PointHistoryRepository pointHistoryRepository;
+    private PointCommandEngine commandEngine;
+    private PointService pointService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        userPointRepository = BenchmarkPointServices.userPointRepository(userPoint);
+        pointHistoryRepository = BenchmarkPointServices.pointHistoryRepository(pointHistory);
+        commandEngine = BenchmarkPointServices.commandEngine(userPointRepository, pointHistoryRepository, engine);
+        pointService = BenchmarkPointServices.pointService(userPointRepository, pointHistoryRepository, commandEngine);
+        for (long userId = 0; userId < READ_USER_COUNT; userId++) {
+            for (int i = 0; i < historiesPerUser; i++) {
+                pointHistoryRepository.save(userId, AMOUNT, TransactionType.CHARGE, System.currentTimeMillis());
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkPointServices.close(commandEngine);
+        BenchmarkPointServices.close(userPointRepository);
+        BenchmarkPointServices.close(pointHistoryRepository);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint singleUser() {
+        pointService.chargeUserPoint(HOT_USER_ID, AMOUNT);
+        return pointService.useUserPoint(HOT_USER_ID, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public UserPoint manyUsers() {
+        long userId = randomUserId();
+        pointService.chargeUserPoint(userId, AMOUNT);
+        return pointService.useUserPoint(userId, AMOUNT);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(4)
+    public UserPoint readHeavyGetUserPoint() {
+        return pointService.getUserPoint(randomReadUserId());
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(3)
+    public PointHistoryPage readHeavyGetHistories() {
+        return pointService.getUserPointHistories(randomReadUserId(), null, 20, PointHistoryOrder.DESC);
+    }
+
+    @Benchmark
+    @Group("readHeavy")
+    @GroupThreads(1)
+    public UserPoint readHeavyWrite() {
+        long userId = randomReadUserId();
+        pointService.chargeUserPoint(userId, AMOUNT);
+        return pointService.useUserPoint(userId, AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<PointHistory> getAllHistories() {
+        return pointService.getUserPointHistories(randomReadUserId());
+    }
+
+    private static long randomReadUserId() {
+        return ThreadLocalRandom.current().nextLong(READ_USER_COUNT);
+    }
+
+    private static long randomUserId() {
+        return ThreadLocalRandom.current().nextLong(1, USER_COUNT + 1);
+    }
+}
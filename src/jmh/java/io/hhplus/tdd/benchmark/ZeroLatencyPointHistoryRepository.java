@@ -0,0 +1,37 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * throttle 없는 PointHistoryRepository
+ * - 유저별 큐에 바로 추가하고 조회한다.
+ * - 추가는 배열을 복사하지 않는 ConcurrentLinkedQueue 에 하므로, 내역이 쌓여도 저장 비용이 늘지 않는다.
+ *   조회할 때만 목록으로 복사한다.
+ */
+public class ZeroLatencyPointHistoryRepository implements PointHistoryRepository {
+
+    private final Map<Long, Queue<PointHistory>> table = new ConcurrentHashMap<>();
+    private final AtomicLong cursor = new AtomicLong(1);
+
+    @Override
+    public PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory pointHistory = new PointHistory(cursor.getAndIncrement(), userId, amount, type, updateMillis);
+        table.computeIfAbsent(userId, id -> new ConcurrentLinkedQueue<>()).add(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> findAllById(long userId) {
+        Queue<PointHistory> histories = table.get(userId);
+        return histories != null ? List.copyOf(histories) : List.of();
+    }
+}
@@ -0,0 +1,29 @@
+package io.hhplus.tdd.benchmark;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * throttle 없는 UserPointRepository
+ * - 테이블의 모의 I/O 지연을 빼고 잠금/할당 비용만 측정하기 위한 대역
+ */
+public class ZeroLatencyUserPointRepository implements UserPointRepository {
+
+    private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+    @Override
+    public UserPoint findById(long id) {
+        UserPoint userPoint = table.get(id);
+        return userPoint != null ? userPoint : UserPoint.empty(id);
+    }
+
+    @Override
+    public UserPoint saveOrUpdate(long id, long amount) {
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        table.put(id, userPoint);
+        return userPoint;
+    }
+}
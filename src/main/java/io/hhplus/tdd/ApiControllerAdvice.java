@@ -1,5 +1,9 @@
 package io.hhplus.tdd;
 
+import io.hhplus.tdd.point.PointThrottledException;
+import io.hhplus.tdd.point.PointTimeoutException;
+import io.hhplus.tdd.point.PointUnsupportedException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -20,6 +24,32 @@ class ApiControllerAdvice extends ResponseEntityExceptionHandler {
         return ResponseEntity.badRequest().body(new ErrorResponse("400", e.getMessage()));
     }
 
+    // 기한 안에 처리하지 못해 버린 요청 (Lock 경합이면 503, 기한이 이미 지났으면 408)
+    @ExceptionHandler(value = PointTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handlePointTimeoutException(PointTimeoutException e) {
+        return switch (e.reason()) {
+            case LOCK_TIMEOUT -> ResponseEntity.status(503)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new ErrorResponse("503", e.getMessage()));
+            case DEADLINE_EXPIRED -> ResponseEntity.status(408)
+                    .body(new ErrorResponse("408", e.getMessage()));
+        };
+    }
+
+    // 요청 수 제한에 걸려 바로 거절한 요청
+    @ExceptionHandler(value = PointThrottledException.class)
+    public ResponseEntity<ErrorResponse> handlePointThrottledException(PointThrottledException e) {
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.retryAfterSeconds()))
+                .body(new ErrorResponse("429", e.getMessage()));
+    }
+
+    // 현재 설정에서 지원하지 않는 기능
+    @ExceptionHandler(value = PointUnsupportedException.class)
+    public ResponseEntity<ErrorResponse> handlePointUnsupportedException(PointUnsupportedException e) {
+        return ResponseEntity.status(501).body(new ErrorResponse("501", e.getMessage()));
+    }
+
     // 컨트롤러에 잘못된 인자값이 들어왔을 때
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse> handleTypeMismatchException(MethodArgumentTypeMismatchException e) {
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 충전/사용 요청의 한 항목
+ */
+public record PointBulkItem(
+        long userId,
+        TransactionType type,
+        long amount
+) {
+}
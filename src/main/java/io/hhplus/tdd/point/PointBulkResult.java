@@ -0,0 +1,22 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 일괄 충전/사용 요청의 항목별 처리 결과
+ * - index : 요청 목록에서의 위치
+ * - 성공하면 userPoint 에 처리 후 잔액이, 실패하면 message 에 실패 사유가 담긴다.
+ */
+public record PointBulkResult(
+        int index,
+        long userId,
+        boolean success,
+        UserPoint userPoint,
+        String message
+) {
+    public static PointBulkResult success(int index, UserPoint userPoint) {
+        return new PointBulkResult(index, userPoint.id(), true, userPoint, null);
+    }
+
+    public static PointBulkResult failure(int index, long userId, String message) {
+        return new PointBulkResult(index, userId, false, null, message);
+    }
+}
@@ -1,19 +1,38 @@
 package io.hhplus.tdd.point;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.hhplus.tdd.point.service.PointBulkService;
+import io.hhplus.tdd.point.service.PointConcurrencyLimiter;
+import io.hhplus.tdd.point.service.PointRateLimiter;
 import io.hhplus.tdd.point.service.PointService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/point")
 public class PointController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 100;
+
     private final PointService pointService;
+    private final PointBulkService pointBulkService;
+    private final PointRateLimiter pointRateLimiter;
+    private final PointConcurrencyLimiter pointConcurrencyLimiter;
+    private final ObjectMapper objectMapper;
     private static final Logger log = LoggerFactory.getLogger(PointController.class);
 
     /**
@@ -28,33 +47,148 @@ public class PointController {
 
     /**
      * TODO - 특정 유저의 포인트 충전/이용 내역을 조회하는 기능을 작성해주세요.
+     * - cursor, limit, order 중 하나라도 있으면 커서 기반으로 한 페이지만 조회한다.
+     * - 다음 페이지가 있으면 X-Next-Cursor 헤더로 다음 요청에 넘길 커서를 내려준다.
      */
     @GetMapping("{id}/histories")
-    public List<PointHistory> history(
-            @PathVariable long id
+    public ResponseEntity<List<PointHistory>> history(
+            @PathVariable long id,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) PointHistoryOrder order
+    ) {
+        if (cursor == null && limit == null && order == null) {
+            return ResponseEntity.ok(pointService.getUserPointHistories(id));
+        }
+
+        PointHistoryPage page = pointService.getUserPointHistories(
+                id,
+                cursor,
+                limit != null ? limit : DEFAULT_HISTORY_PAGE_SIZE,
+                order != null ? order : PointHistoryOrder.ASC
+        );
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.hasNext()) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.nextCursor()));
+        }
+        return response.body(page.histories());
+    }
+
+    /**
+     * 특정 유저의 충전/사용 합계와 건수를 전체 및 시간 구간별로 조회한다.
+     * - 구간은 시작 시각이 fromMillis(포함) ~ toMillis(미포함) 인 것만 내려준다.
+     */
+    @GetMapping("{id}/histories/summary")
+    public PointHistorySummary historySummary(
+            @PathVariable long id,
+            @RequestParam(required = false) Long fromMillis,
+            @RequestParam(required = false) Long toMillis
+    ) {
+        return pointService.getUserPointSummary(id, fromMillis, toMillis);
+    }
+
+    /**
+     * 여러 유저의 포인트 내역을 NDJSON(한 줄에 내역 하나)으로 내보낸다.
+     * - 유저별로 한 페이지씩 읽어 응답 스트림에 바로 쓰기 때문에, 결과 크기와 관계없이 메모리에는 한 페이지만 남는다.
+     */
+    @GetMapping(value = "histories/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportHistories(
+            @RequestParam(required = false) List<Long> userIds,
+            @RequestParam(required = false) Long fromUserId,
+            @RequestParam(required = false) Long toUserId,
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) Long fromMillis,
+            @RequestParam(required = false) Long toMillis
     ) {
-        return pointService.getUserPointHistories(id);
+        // 조건 검증은 응답을 쓰기 전에 끝내서 잘못된 요청은 400 으로 응답한다.
+        PointHistoryExportQuery query = new PointHistoryExportQuery(userIds, fromUserId, toUserId, type, fromMillis, toMillis);
+        ObjectWriter writer = objectMapper.writerFor(PointHistory.class);
+
+        StreamingResponseBody body = outputStream -> {
+            try {
+                pointService.exportHistories(query, pointHistory -> {
+                    try {
+                        outputStream.write(writer.writeValueAsBytes(pointHistory));
+                        outputStream.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            outputStream.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * TODO - 특정 유저의 포인트를 충전하는 기능을 작성해주세요.
+     * - Idempotency-Key 헤더가 있으면 같은 키로 다시 들어온 요청은 처음 결과를 그대로 돌려준다.
      */
     @PatchMapping("{id}/charge")
     public UserPoint charge(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
-        return pointService.chargeUserPoint(id, amount);
+        return admit(id, () -> idempotencyKey != null
+                ? pointService.chargeUserPoint(id, amount, idempotencyKey)
+                : pointService.chargeUserPoint(id, amount));
     }
 
     /**
      * TODO - 특정 유저의 포인트를 사용하는 기능을 작성해주세요.
+     * - Idempotency-Key 헤더가 있으면 같은 키로 다시 들어온 요청은 처음 결과를 그대로 돌려준다.
      */
     @PatchMapping("{id}/use")
     public UserPoint use(
             @PathVariable long id,
-            @RequestBody long amount
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
     ) {
-        return pointService.useUserPoint(id, amount);
+        return admit(id, () -> idempotencyKey != null
+                ? pointService.useUserPoint(id, amount, idempotencyKey)
+                : pointService.useUserPoint(id, amount));
+    }
+
+    /**
+     * 한 유저의 포인트를 다른 유저에게 옮기고, 두 유저의 처리 후 잔액을 돌려준다.
+     * - 보내는 유저 기준으로 요청 수를 제한한다.
+     */
+    @PostMapping("transfer")
+    public PointTransferResult transfer(
+            @RequestBody PointTransferRequest request
+    ) {
+        return admit(request.fromUserId(),
+                () -> pointService.transfer(request.fromUserId(), request.toUserId(), request.amount()));
+    }
+
+    /**
+     * 여러 유저의 포인트 충전/사용을 한 번에 처리하고 항목별 결과를 돌려준다.
+     * - 한 요청에 여러 유저가 섞여 있으므로 유저별 요청 수 제한은 두지 않고, 동시 처리 수 한도만 적용한다.
+     */
+    @PostMapping("bulk")
+    public List<PointBulkResult> bulk(
+            @RequestBody List<PointBulkItem> items
+    ) {
+        return limitConcurrency(() -> pointBulkService.process(items));
+    }
+
+    /**
+     * 유저별 요청 수와 전체 동시 처리 수 한도 안에서만 실행한다.
+     * - 한도를 넘은 요청은 유저 Lock 을 기다리지 않고 바로 429 로 거절된다. (ApiControllerAdvice)
+     */
+    private <T> T admit(long userId, Supplier<T> action) {
+        pointRateLimiter.acquire(userId);
+        return limitConcurrency(action);
+    }
+
+    private <T> T limitConcurrency(Supplier<T> action) {
+        try (PointConcurrencyLimiter.Permit ignored = pointConcurrencyLimiter.acquire()) {
+            return action.get();
+        }
     }
 }
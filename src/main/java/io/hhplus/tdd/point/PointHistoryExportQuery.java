@@ -0,0 +1,52 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * 포인트 내역 내보내기 조건
+ * - 대상 유저는 userIds 목록 또는 fromUserId ~ toUserId 범위(양 끝 포함) 중 하나로 지정한다.
+ * - type, fromMillis(포함) ~ toMillis(미포함) 는 선택 조건이다.
+ */
+public record PointHistoryExportQuery(
+        List<Long> userIds,
+        Long fromUserId,
+        Long toUserId,
+        TransactionType type,
+        Long fromMillis,
+        Long toMillis
+) {
+    public static final int MAX_USER_COUNT = 100_000;
+
+    public PointHistoryExportQuery {
+        boolean hasList = userIds != null && !userIds.isEmpty();
+        boolean hasRange = fromUserId != null || toUserId != null;
+        if (hasList == hasRange) {
+            throw new IllegalArgumentException("userIds 또는 fromUserId ~ toUserId 중 하나만 지정해야 합니다.");
+        }
+        if (hasRange && (fromUserId == null || toUserId == null || fromUserId > toUserId)) {
+            throw new IllegalArgumentException("유저 범위가 잘못 되었습니다.");
+        }
+        long userCount = hasList ? userIds.size() : toUserId - fromUserId + 1;
+        if (userCount <= 0 || userCount > MAX_USER_COUNT) {
+            throw new IllegalArgumentException(String.format("한 번에 내보낼 수 있는 유저는 최대 %d명입니다.", MAX_USER_COUNT));
+        }
+        if (fromMillis != null && toMillis != null && fromMillis > toMillis) {
+            throw new IllegalArgumentException("조회 기간이 잘못 되었습니다.");
+        }
+        userIds = hasList ? List.copyOf(userIds) : List.of();
+    }
+
+    public LongStream userIdStream() {
+        if (!userIds.isEmpty()) {
+            return userIds.stream().mapToLong(Long::longValue);
+        }
+        return LongStream.rangeClosed(fromUserId, toUserId);
+    }
+
+    public boolean matches(PointHistory pointHistory) {
+        return (type == null || pointHistory.type() == type)
+                && (fromMillis == null || pointHistory.updateMillis() >= fromMillis)
+                && (toMillis == null || pointHistory.updateMillis() < toMillis);
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 내역 정렬 순서 (PointHistory.id 기준)
+ * - ASC : 오래된 순
+ * - DESC : 최신 순
+ */
+public enum PointHistoryOrder {
+    ASC, DESC
+}
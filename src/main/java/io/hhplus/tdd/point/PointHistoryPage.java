@@ -0,0 +1,16 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+
+/**
+ * 포인트 내역 한 페이지
+ * - nextCursor : 다음 페이지 요청에 넘길 커서 (마지막 내역의 id), 다음 페이지가 없으면 null
+ */
+public record PointHistoryPage(
+        List<PointHistory> histories,
+        Long nextCursor
+) {
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
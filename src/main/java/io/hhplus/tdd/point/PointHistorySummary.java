@@ -0,0 +1,67 @@
+package io.hhplus.tdd.point;
+
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * 유저의 포인트 내역 집계
+ * - chargedAmount / usedAmount : 전체 충전/사용 금액 합계
+ * - chargeCount / useCount : 전체 충전/사용 건수
+ * - buckets : bucketMillis 단위 시간 구간별 집계 (구간 시작 시각 오름차순)
+ */
+public record PointHistorySummary(
+        long userId,
+        long bucketMillis,
+        long chargedAmount,
+        long usedAmount,
+        long chargeCount,
+        long useCount,
+        List<Bucket> buckets
+) {
+    public static final long DEFAULT_BUCKET_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * 내역 목록을 한 번 훑어서 집계한다. (집계를 따로 유지하지 않는 저장소용)
+     */
+    public static PointHistorySummary of(long userId, long bucketMillis, List<PointHistory> histories, Long fromMillis, Long toMillis) {
+        long chargedAmount = 0, usedAmount = 0, chargeCount = 0, useCount = 0;
+        TreeMap<Long, long[]> buckets = new TreeMap<>();
+        for (PointHistory pointHistory : histories) {
+            boolean charge = pointHistory.type() == TransactionType.CHARGE;
+            chargedAmount += charge ? pointHistory.amount() : 0;
+            usedAmount += charge ? 0 : pointHistory.amount();
+            chargeCount += charge ? 1 : 0;
+            useCount += charge ? 0 : 1;
+            long startMillis = bucketStart(pointHistory.updateMillis(), bucketMillis);
+            if (inRange(startMillis, fromMillis, toMillis)) {
+                long[] bucket = buckets.computeIfAbsent(startMillis, key -> new long[4]);
+                bucket[charge ? 0 : 1] += pointHistory.amount();
+                bucket[charge ? 2 : 3]++;
+            }
+        }
+        List<Bucket> bucketList = buckets.entrySet().stream()
+                .map(entry -> new Bucket(entry.getKey(), entry.getValue()[0], entry.getValue()[1], entry.getValue()[2], entry.getValue()[3]))
+                .toList();
+        return new PointHistorySummary(userId, bucketMillis, chargedAmount, usedAmount, chargeCount, useCount, bucketList);
+    }
+
+    public static long bucketStart(long updateMillis, long bucketMillis) {
+        return Math.floorDiv(updateMillis, bucketMillis) * bucketMillis;
+    }
+
+    /**
+     * 구간 시작 시각이 fromMillis(포함) ~ toMillis(미포함) 에 드는지 (null 이면 제한 없음)
+     */
+    public static boolean inRange(long startMillis, Long fromMillis, Long toMillis) {
+        return (fromMillis == null || startMillis >= fromMillis) && (toMillis == null || startMillis < toMillis);
+    }
+
+    public record Bucket(
+            long startMillis,
+            long chargedAmount,
+            long usedAmount,
+            long chargeCount,
+            long useCount
+    ) {
+    }
+}
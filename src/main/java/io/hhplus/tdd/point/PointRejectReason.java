@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 충전/사용이 거절된 사유
+ * - INVALID_AMOUNT : 0 이하의 금액
+ * - MAX_POINT_EXCEEDED : 최대 잔고 초과
+ * - INSUFFICIENT_POINT : 잔고 부족
+ */
+public enum PointRejectReason {
+    INVALID_AMOUNT, MAX_POINT_EXCEEDED, INSUFFICIENT_POINT
+}
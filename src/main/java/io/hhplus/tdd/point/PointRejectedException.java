@@ -0,0 +1,19 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 정책 위반으로 충전/사용이 거절되었을 때 발생한다.
+ * - 기존과 같이 IllegalArgumentException 으로 처리되며, 거절 사유를 함께 담는다.
+ */
+public class PointRejectedException extends IllegalArgumentException {
+
+    private final PointRejectReason reason;
+
+    public PointRejectedException(PointRejectReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public PointRejectReason reason() {
+        return reason;
+    }
+}
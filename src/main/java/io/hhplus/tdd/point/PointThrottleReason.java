@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 충전/사용 요청을 받아들이지 않고 바로 거절한 사유 (429)
+ * - USER_RATE_LIMIT : 한 유저에게 허용된 초당 요청 수를 넘음
+ * - CONCURRENCY_LIMIT : 동시에 처리 중인 쓰기 요청 수가 한도에 참
+ */
+public enum PointThrottleReason {
+    USER_RATE_LIMIT, CONCURRENCY_LIMIT
+}
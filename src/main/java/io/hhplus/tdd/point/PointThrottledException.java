@@ -0,0 +1,26 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 요청 수 제한에 걸려 충전/사용 요청을 받아들이지 않았을 때 발생한다.
+ * - 유저 Lock 을 기다리기 전에 거절되므로 잔액과 내역은 바뀌지 않는다.
+ */
+public class PointThrottledException extends RuntimeException {
+
+    private final PointThrottleReason reason;
+    private final long retryAfterSeconds;
+
+    public PointThrottledException(PointThrottleReason reason, long retryAfterSeconds, String message) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public PointThrottleReason reason() {
+        return reason;
+    }
+
+    // 다시 시도해도 되는 시점까지 남은 시간(초)
+    public long retryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,19 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 충전/사용 요청이 기한 안에 처리되지 못해 버려졌을 때 발생한다.
+ * - 테이블에 접근하기 전에 버려지므로 잔액과 내역은 바뀌지 않는다.
+ */
+public class PointTimeoutException extends RuntimeException {
+
+    private final PointTimeoutReason reason;
+
+    public PointTimeoutException(PointTimeoutReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public PointTimeoutReason reason() {
+        return reason;
+    }
+}
@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 포인트 충전/사용이 기한 안에 처리되지 못한 사유
+ * - LOCK_TIMEOUT : 기한 안에 유저별 Lock 을 얻지 못함 (경합이 심한 상태, 503)
+ * - DEADLINE_EXPIRED : 테이블에 접근하기 전에 기한이 지남 (요청을 버림, 408)
+ */
+public enum PointTimeoutReason {
+    LOCK_TIMEOUT, DEADLINE_EXPIRED
+}
@@ -0,0 +1,11 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 유저 간 포인트 이동 요청
+ */
+public record PointTransferRequest(
+        long fromUserId,
+        long toUserId,
+        long amount
+) {
+}
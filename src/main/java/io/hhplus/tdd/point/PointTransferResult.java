@@ -0,0 +1,10 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 유저 간 포인트 이동 결과 (보낸 유저와 받은 유저의 처리 후 잔액)
+ */
+public record PointTransferResult(
+        UserPoint from,
+        UserPoint to
+) {
+}
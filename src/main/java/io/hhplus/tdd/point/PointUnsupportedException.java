@@ -0,0 +1,13 @@
+package io.hhplus.tdd.point;
+
+/**
+ * 현재 설정에서 지원하지 않는 포인트 기능을 요청했을 때 발생한다.
+ * - 예) 실행기(point.service.engine)를 쓰는 경우의 포인트 이동
+ * - 처리 전에 거절되므로 잔액과 내역은 바뀌지 않는다.
+ */
+public class PointUnsupportedException extends RuntimeException {
+
+    public PointUnsupportedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,92 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.service.PointConcurrencyLimiter;
+import io.hhplus.tdd.point.service.PointRateLimiter;
+import io.hhplus.tdd.point.service.ReactivePointService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * PointController 의 논블로킹 버전 (/reactive/point)
+ * - Mono/Flux 를 그대로 돌려주므로 요청 쓰레드는 바로 반환되고, 결과가 나오면 비동기로 응답한다.
+ * - 오류는 PointController 와 같이 ApiControllerAdvice 에서 처리한다.
+ * - 충전/사용은 PointController 와 같은 요청 수 제한과 Idempotency-Key 를 적용한다.
+ * - 동시 처리 수 한도는 PointController 와 따로 센다. (point.admission.reactive-max-concurrent)
+ *   기다리는 요청이 쓰레드를 붙잡지 않으므로 수만 건이 동시에 처리 중이어도 되고, 쓰레드 수에 맞춘 PointController 의 한도를 나눠 쓰지 않는다.
+ */
+@RestController
+@RequestMapping("/reactive/point")
+public class ReactivePointController {
+
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final ReactivePointService reactivePointService;
+    private final PointRateLimiter pointRateLimiter;
+    private final PointConcurrencyLimiter pointConcurrencyLimiter;
+
+    public ReactivePointController(
+            ReactivePointService reactivePointService,
+            PointRateLimiter pointRateLimiter,
+            ObjectProvider<PointMetrics> pointMetrics,
+            @Value("${point.admission.reactive-max-concurrent:50000}") int reactiveMaxConcurrent
+    ) {
+        this.reactivePointService = reactivePointService;
+        this.pointRateLimiter = pointRateLimiter;
+        this.pointConcurrencyLimiter = new PointConcurrencyLimiter(reactiveMaxConcurrent);
+        pointMetrics.ifAvailable(pointConcurrencyLimiter::setPointMetrics);
+    }
+
+    @GetMapping("{id}")
+    public Mono<UserPoint> point(
+            @PathVariable long id
+    ) {
+        return reactivePointService.getUserPoint(id);
+    }
+
+    @GetMapping("{id}/histories")
+    public Flux<PointHistory> history(
+            @PathVariable long id
+    ) {
+        return reactivePointService.getUserPointHistories(id);
+    }
+
+    @PatchMapping("{id}/charge")
+    public Mono<UserPoint> charge(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        return admit(id, () -> idempotencyKey != null
+                ? reactivePointService.chargeUserPoint(id, amount, idempotencyKey)
+                : reactivePointService.chargeUserPoint(id, amount));
+    }
+
+    @PatchMapping("{id}/use")
+    public Mono<UserPoint> use(
+            @PathVariable long id,
+            @RequestBody long amount,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey
+    ) {
+        return admit(id, () -> idempotencyKey != null
+                ? reactivePointService.useUserPoint(id, amount, idempotencyKey)
+                : reactivePointService.useUserPoint(id, amount));
+    }
+
+    /**
+     * 구독할 때 유저별 요청 수와 전체 동시 처리 수 한도를 확인하고, 결과가 나오면 처리 자리를 반납한다.
+     * - 한도를 넘은 요청은 유저별 큐에 넣지 않고 바로 429 로 거절된다. (ApiControllerAdvice)
+     */
+    private <T> Mono<T> admit(long userId, Supplier<Mono<T>> action) {
+        return Mono.defer(() -> {
+            pointRateLimiter.acquire(userId);
+            PointConcurrencyLimiter.Permit permit = pointConcurrencyLimiter.acquire();
+            return action.get().doFinally(signal -> permit.close());
+        });
+    }
+}
@@ -14,13 +14,13 @@ public record UserPoint(
 
     public UserPoint charge(long amount) {
         if (amount <= MIN_POINT) {
-            throw new IllegalArgumentException("충전할 포인트가 0보다 작습니다.");
+            throw new PointRejectedException(PointRejectReason.INVALID_AMOUNT, "충전할 포인트가 0보다 작습니다.");
         }
 
         long updatePoint = this.point + amount;
 
         if (updatePoint >= MAX_POINT) {
-            throw new IllegalArgumentException(String.format("충전가능한 최대 포인트 %d을 초과했습니다. 충전 가능 포인트: %d", MAX_POINT, MAX_POINT - this.point));
+            throw new PointRejectedException(PointRejectReason.MAX_POINT_EXCEEDED, String.format("충전가능한 최대 포인트 %d을 초과했습니다. 충전 가능 포인트: %d", MAX_POINT, MAX_POINT - this.point));
         }
 
         return new UserPoint(id, updatePoint, System.currentTimeMillis());
@@ -28,13 +28,13 @@ public record UserPoint(
 
     public UserPoint use(long amount) {
         if (amount <= MIN_POINT) {
-            throw new IllegalArgumentException("사용할 포인트가 0보다 커야합니다.");
+            throw new PointRejectedException(PointRejectReason.INVALID_AMOUNT, "사용할 포인트가 0보다 커야합니다.");
         }
 
         long updatePoint = this.point - amount;
 
         if (updatePoint < MIN_POINT) {
-            throw new IllegalArgumentException(String.format("잔고부족: 보유한 포인트 %d기 때문에 포인트를 사용할 수 없습니다.", this.point));
+            throw new PointRejectedException(PointRejectReason.INSUFFICIENT_POINT, String.format("잔고부족: 보유한 포인트 %d기 때문에 포인트를 사용할 수 없습니다.", this.point));
         }
 
         return new UserPoint(id, updatePoint, System.currentTimeMillis());
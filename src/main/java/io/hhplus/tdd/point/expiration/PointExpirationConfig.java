@@ -0,0 +1,53 @@
+package io.hhplus.tdd.point.expiration;
+
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.service.PointService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 포인트 만료 설정 (point.expiration.enabled=true 일 때만 등록)
+ * - 충전한 포인트는 point.expiration.ttl-days 가 지나면 남은 만큼 소멸된다.
+ * - 만료 시각은 point.expiration.tick-millis 단위로 처리되며, wheel 한 단계의 칸 수는 point.expiration.wheel-size 이다.
+ * - lot 을 모두 쓴 유저는 lot 정보를 유지하는 유저가 point.expiration.max-users 를 넘을 때 지운다.
+ * - lot 은 유저별 Lock 으로 보호하므로 point.service.engine=lock 에서만 지원한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "point.expiration.enabled", havingValue = "true")
+public class PointExpirationConfig {
+
+    @Bean
+    public TimingWheel<Long> pointExpirationWheel(
+            @Value("${point.service.engine:lock}") String engine,
+            @Value("${point.expiration.tick-millis:1000}") long tickMillis,
+            @Value("${point.expiration.wheel-size:64}") int wheelSize
+    ) {
+        if (!"lock".equals(engine)) {
+            throw new IllegalStateException("포인트 만료는 point.service.engine=lock 에서만 지원합니다.");
+        }
+        return new TimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    @Bean
+    public PointLotStore pointLotStore(
+            PointHistoryRepository pointHistoryRepository,
+            TimingWheel<Long> pointExpirationWheel,
+            @Value("${point.expiration.ttl-days:365}") long ttlDays,
+            @Value("${point.expiration.max-users:100000}") int maxUsers
+    ) {
+        return new PointLotStore(pointHistoryRepository, TimeUnit.DAYS.toMillis(ttlDays), pointExpirationWheel, maxUsers);
+    }
+
+    @Bean
+    public PointExpirationScheduler pointExpirationScheduler(
+            TimingWheel<Long> pointExpirationWheel,
+            PointService pointService,
+            @Value("${point.expiration.tick-millis:1000}") long tickMillis
+    ) {
+        return new PointExpirationScheduler(pointExpirationWheel, pointService, tickMillis);
+    }
+}
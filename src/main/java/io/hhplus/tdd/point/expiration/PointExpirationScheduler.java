@@ -0,0 +1,79 @@
+package io.hhplus.tdd.point.expiration;
+
+import io.hhplus.tdd.point.service.PointService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * tick 마다 timing wheel 을 현재 시각까지 돌리고, 만료 시각이 된 유저들의 포인트를 소멸시킨다.
+ * - wheel 에는 유저당 항목이 하나뿐이므로, 한 tick 에 꺼낸 유저 수만큼만 PointService 를 호출한다.
+ *   유저 한 명의 만료 lot 이 여러 개여도 내역 한 건, 잔액 저장 한 번으로 처리된다.
+ * - 유저별 Lock 은 한 명씩 잠깐 잡았다 놓으므로, 많은 lot 이 한 번에 만료되어도 다른 유저의 요청은 기다리지 않는다.
+ * - 처리에 실패한 유저는 다음 tick 에 다시 시도한다.
+ */
+@Slf4j
+public class PointExpirationScheduler implements AutoCloseable {
+
+    private final TimingWheel<Long> timingWheel;
+    private final PointService pointService;
+    private final long tickMillis;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock expireLock = new ReentrantLock(); // wheel 은 한 쓰레드만 돌린다.
+
+    public PointExpirationScheduler(TimingWheel<Long> timingWheel, PointService pointService, long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis는 0보다 커야합니다.");
+        }
+        this.timingWheel = timingWheel;
+        this.pointService = pointService;
+        this.tickMillis = tickMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-expiration");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::expireQuietly, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * nowMillis 까지 만료 시각이 된 유저들의 포인트를 소멸시킨다.
+     * @return 처리한 유저 수
+     */
+    public int expire(long nowMillis) {
+        expireLock.lock();
+        try {
+            List<Long> dueUserIds = new ArrayList<>();
+            timingWheel.advance(nowMillis, dueUserIds::add);
+            for (long userId : dueUserIds) {
+                try {
+                    pointService.expireUserPoint(userId, nowMillis);
+                } catch (RuntimeException e) {
+                    log.warn("포인트 만료 처리 실패, 다음 tick 에 다시 시도합니다. userId={}", userId, e);
+                    timingWheel.schedule(nowMillis + tickMillis, userId);
+                }
+            }
+            return dueUserIds.size();
+        } finally {
+            expireLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void expireQuietly() {
+        try {
+            expire(System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            log.error("포인트 만료 처리 중 오류", e);
+        }
+    }
+}
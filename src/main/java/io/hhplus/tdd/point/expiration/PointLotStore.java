@@ -0,0 +1,226 @@
+package io.hhplus.tdd.point.expiration;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 유저별 만료 포인트 묶음(lot) 보관소
+ * - 충전할 때마다 충전 금액과 만료 시각(충전 시각 + ttl)을 가진 lot 을 유저 큐 뒤에 붙이고, 사용은 큐 앞(가장 오래된 lot)부터 차감한다.
+ *   만료 기간이 모두 같으므로 큐 순서가 곧 만료 순서이며, 만료도 큐 앞에서부터 꺼내면 된다.
+ * - 각 lot 은 한 번 붙고 한 번 빠지므로 충전/사용/만료 비용은 건당 O(1) (분할 상환) 이고 전체 lot 을 훑지 않는다.
+ * - 유저마다 가장 오래된 lot 의 만료 시각 하나만 timing wheel 에 등록한다. (wheel 항목 수 <= lot 이 있는 유저 수)
+ * - 처음 접근하는 유저는 저장된 내역(충전/사용/만료)을 findPageById 로 LOAD_PAGE_SIZE 건씩 오래된 순서대로 다시 적용해서 채운다.
+ *   한 번 채운 유저는 lot 을 메모리에 유지하므로 이후 요청에서는 내역을 읽지 않는다.
+ * - 유저 수가 maxUsers 를 넘으면 lot 을 모두 쓴(남은 lot 이 없는) 유저부터 지운다. 남은 lot 이 있는 유저는 만료 처리를 위해 남겨둔다.
+ *   내역이 원본이므로, 지운 유저는 다음 접근에서 다시 채운다.
+ * - UserLots 는 유저별 Lock 안에서만 다룬다. (PointService 가 보장)
+ */
+public class PointLotStore {
+
+    public static final int DEFAULT_MAX_USERS = 100_000;
+    static final int LOAD_PAGE_SIZE = 1_000; // lot 을 채울 때 한 번에 읽는 내역 수
+
+    private final PointHistoryRepository pointHistoryRepository;
+    private final long ttlMillis;
+    private final TimingWheel<Long> timingWheel;
+    private final int maxUsers;
+    private final Map<Long, UserLots> users = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public PointLotStore(PointHistoryRepository pointHistoryRepository, long ttlMillis, TimingWheel<Long> timingWheel) {
+        this(pointHistoryRepository, ttlMillis, timingWheel, DEFAULT_MAX_USERS);
+    }
+
+    public PointLotStore(PointHistoryRepository pointHistoryRepository, long ttlMillis, TimingWheel<Long> timingWheel, int maxUsers) {
+        if (ttlMillis <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("ttlMillis, maxUsers는 0보다 커야합니다.");
+        }
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.ttlMillis = ttlMillis;
+        this.timingWheel = timingWheel;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * 유저의 lot 목록. 처음 접근하면 내역으로 채운다. 유저별 Lock 을 잡은 상태에서 호출해야 한다.
+     */
+    public UserLots lotsOf(long userId) {
+        UserLots userLots = users.get(userId);
+        if (userLots == null) {
+            if (users.size() >= maxUsers) {
+                evict();
+            }
+            userLots = users.computeIfAbsent(userId, UserLots::new);
+        }
+        if (!userLots.loaded) {
+            load(userLots);
+        }
+        return userLots;
+    }
+
+    /**
+     * lot 정보를 유지 중인 유저 수
+     */
+    public int userCount() {
+        return users.size();
+    }
+
+    public long ttlMillis() {
+        return ttlMillis;
+    }
+
+    private void load(UserLots userLots) {
+        Long cursor = null;
+        do {
+            PointHistoryPage page = pointHistoryRepository.findPageById(userLots.userId, cursor, LOAD_PAGE_SIZE, PointHistoryOrder.ASC);
+            for (PointHistory pointHistory : page.histories()) {
+                switch (pointHistory.type()) {
+                    case CHARGE -> userLots.append(pointHistory.amount(), pointHistory.updateMillis() + ttlMillis);
+                    case USE, EXPIRE -> userLots.consume(pointHistory.amount());
+                }
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        userLots.loaded = true;
+        userLots.consumed = userLots.lots.isEmpty();
+        userLots.reschedule();
+    }
+
+    /**
+     * 남은 lot 이 없는 유저를 maxUsers 의 3/4 까지 지운다.
+     * - 다른 쓰레드가 정리 중이면 기다리지 않고 넘어간다.
+     * - 유저별 Lock 없이 지우므로, 처리 중인 유저가 지워지면 그 요청의 변경은 지운 객체에만 남는다.
+     *   다음 요청은 그 요청이 저장한 내역까지 다시 적용해서 채우므로 lot 은 어긋나지 않는다.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maxUsers - maxUsers / 4;
+            Iterator<UserLots> iterator = users.values().iterator();
+            while (users.size() > target && iterator.hasNext()) {
+                if (iterator.next().consumed) {
+                    iterator.remove();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public final class UserLots {
+        private final long userId;
+        private final ArrayDeque<Lot> lots = new ArrayDeque<>();
+        private long remaining; // 남은 lot 금액 합계
+        private boolean scheduled; // timing wheel 에 등록된 항목이 있는지
+        private boolean loaded;
+        private volatile boolean consumed; // 채운 뒤 남은 lot 이 없는지 (정리하는 쓰레드가 읽는다)
+
+        private UserLots(long userId) {
+            this.userId = userId;
+        }
+
+        /**
+         * 충전한 금액을 새 lot 으로 붙인다.
+         */
+        public void charge(long amount, long chargeMillis) {
+            append(amount, chargeMillis + ttlMillis);
+            reschedule();
+        }
+
+        /**
+         * 가장 오래된 lot 부터 amount 만큼 차감한다. lot 합계보다 많으면 lot 이 없는 잔액(기능 도입 전 잔액 등)에서 쓴 것으로 본다.
+         */
+        public void use(long amount) {
+            consume(amount);
+        }
+
+        /**
+         * nowMillis 까지 만료된 lot 의 남은 금액 합계 (lot 을 꺼내지는 않는다)
+         */
+        public long expiredAmount(long nowMillis) {
+            long amount = 0;
+            for (Lot lot : lots) {
+                if (lot.expireMillis > nowMillis) {
+                    break;
+                }
+                amount += lot.remaining;
+            }
+            return amount;
+        }
+
+        /**
+         * nowMillis 까지 만료된 lot 을 꺼내고, 남은 lot 중 가장 오래된 것의 만료 시각으로 다시 등록한다.
+         * timing wheel 에서 이 유저를 꺼낸 뒤에 호출한다.
+         */
+        public void expire(long nowMillis) {
+            while (!lots.isEmpty() && lots.peekFirst().expireMillis <= nowMillis) {
+                remaining -= lots.pollFirst().remaining;
+            }
+            consumed = lots.isEmpty();
+            scheduled = false;
+            reschedule();
+        }
+
+        /**
+         * 남은 lot 금액 합계
+         */
+        public long remaining() {
+            return remaining;
+        }
+
+        /**
+         * 남은 lot 수
+         */
+        public int size() {
+            return lots.size();
+        }
+
+        private void append(long amount, long expireMillis) {
+            lots.addLast(new Lot(amount, expireMillis));
+            remaining += amount;
+            consumed = false;
+        }
+
+        private void consume(long amount) {
+            while (amount > 0 && !lots.isEmpty()) {
+                Lot oldest = lots.peekFirst();
+                long taken = Math.min(amount, oldest.remaining);
+                oldest.remaining -= taken;
+                remaining -= taken;
+                amount -= taken;
+                if (oldest.remaining == 0) {
+                    lots.pollFirst();
+                }
+            }
+            consumed = loaded && lots.isEmpty();
+        }
+
+        // 등록된 항목이 없을 때만 가장 오래된 lot 의 만료 시각으로 등록한다.
+        private void reschedule() {
+            if (!scheduled && loaded && !lots.isEmpty()) {
+                timingWheel.schedule(lots.peekFirst().expireMillis, userId);
+                scheduled = true;
+            }
+        }
+    }
+
+    private static final class Lot {
+        private long remaining;
+        private final long expireMillis;
+
+        private Lot(long remaining, long expireMillis) {
+            this.remaining = remaining;
+            this.expireMillis = expireMillis;
+        }
+    }
+}
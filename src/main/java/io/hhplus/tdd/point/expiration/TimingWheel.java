@@ -0,0 +1,140 @@
+package io.hhplus.tdd.point.expiration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 계층형 timing wheel
+ * - 단계 i 의 칸 하나는 tickMillis * wheelSize^i 만큼의 시간을 맡는다. 가까운 항목은 아래 단계, 먼 항목은 위 단계 칸에 둔다.
+ * - 위 단계 칸의 시작 시각이 되면 그 칸의 항목을 아래 단계로 내려보내고(cascade), 0 단계 칸이 지나면 칸의 항목을 한 번에 꺼낸다.
+ * - 등록/만료 비용은 항목 수와 무관하게 O(단계 수) 이며, 만료를 찾으려고 전체 항목을 훑지 않는다.
+ * - schedule 은 여러 쓰레드에서 호출할 수 있다. (Lock 없는 큐에 넣어두고 advance 때 칸에 옮긴다)
+ *   advance 는 한 쓰레드에서만 호출해야 한다.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>(); // advance 쓰레드에서만 접근한다.
+    private final Queue<Entry<T>> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private long currentMillis; // 이 시각 이전에 만료되는 항목은 모두 꺼냈다. (tickMillis 의 배수)
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis는 0보다, wheelSize는 1보다 커야합니다.");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentMillis = startMillis - Math.floorMod(startMillis, tickMillis);
+        levels.add(new Level<>(tickMillis, wheelSize));
+    }
+
+    /**
+     * expireMillis 가 지나면 advance 에서 item 을 꺼내도록 등록한다.
+     */
+    public void schedule(long expireMillis, T item) {
+        inbox.offer(new Entry<>(expireMillis, item));
+        size.incrementAndGet();
+    }
+
+    /**
+     * nowMillis 까지 만료된 항목을 모두 sink 로 넘긴다.
+     */
+    public void advance(long nowMillis, Consumer<T> sink) {
+        Entry<T> entry;
+        while ((entry = inbox.poll()) != null) {
+            place(entry, sink);
+        }
+        while (currentMillis + tickMillis <= nowMillis) {
+            // 위 단계부터 이번 tick 에 시작하는 칸을 내려보낸 뒤 0 단계 칸을 꺼낸다.
+            int top = 0;
+            while (top + 1 < levels.size() && currentMillis % levels.get(top + 1).tickMillis == 0) {
+                top++;
+            }
+            for (int i = top; i >= 1; i--) {
+                for (Entry<T> cascaded : levels.get(i).take(currentMillis)) {
+                    place(cascaded, sink);
+                }
+            }
+            long nextMillis = currentMillis + tickMillis;
+            for (Entry<T> due : levels.get(0).take(currentMillis)) {
+                if (due.expireMillis < nextMillis) {
+                    size.decrementAndGet();
+                    sink.accept(due.item);
+                } else {
+                    levels.get(0).add(due); // 한 바퀴 뒤의 항목 (같은 칸을 공유한다)
+                }
+            }
+            currentMillis = nextMillis;
+        }
+    }
+
+    /**
+     * 아직 꺼내지 않은 항목 수
+     */
+    public int size() {
+        return size.get();
+    }
+
+    // 남은 시간이 들어가는 가장 낮은 단계의 칸에 둔다. 이미 지난 항목은 바로 꺼낸다.
+    private void place(Entry<T> entry, Consumer<T> sink) {
+        long delay = entry.expireMillis - currentMillis;
+        if (delay < 0) {
+            size.decrementAndGet();
+            sink.accept(entry.item);
+            return;
+        }
+        int level = 0;
+        while (delay >= levels.get(level).spanMillis()) {
+            level++;
+            if (level == levels.size()) {
+                levels.add(new Level<>(levels.get(level - 1).spanMillis(), wheelSize));
+            }
+        }
+        levels.get(level).add(entry);
+    }
+
+    private record Entry<T>(long expireMillis, T item) {
+    }
+
+    private static final class Level<T> {
+        private final long tickMillis; // 칸 하나가 맡는 시간
+        private final List<List<Entry<T>>> slots;
+
+        private Level(long tickMillis, int wheelSize) {
+            this.tickMillis = tickMillis;
+            this.slots = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                slots.add(new ArrayList<>());
+            }
+        }
+
+        private long spanMillis() {
+            return tickMillis * slots.size();
+        }
+
+        private void add(Entry<T> entry) {
+            slots.get(index(entry.expireMillis)).add(entry);
+        }
+
+        // 칸을 통째로 떼어내고 빈 칸으로 바꾼다.
+        private List<Entry<T>> take(long millis) {
+            int index = index(millis);
+            List<Entry<T>> slot = slots.get(index);
+            if (slot.isEmpty()) {
+                return slot;
+            }
+            slots.set(index, new ArrayList<>());
+            return slot;
+        }
+
+        private int index(long millis) {
+            return (int) Math.floorMod(Math.floorDiv(millis, tickMillis), (long) slots.size());
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package io.hhplus.tdd.point.metrics;
+
+import io.hhplus.tdd.point.PointRejectedException;
+import io.hhplus.tdd.point.PointThrottleReason;
+import io.hhplus.tdd.point.PointTimeoutReason;
+import io.hhplus.tdd.point.TransactionType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 포인트 처리 지표
+ * - point.lock.wait / point.lock.hold : 유저별 Lock 대기/점유 시간 (operation 태그)
+ * - point.repository.latency : 저장소 메서드별 처리 시간 (repository, method 태그)
+ * - point.rejected : 충전/사용 거절 건수 (operation, reason 태그)
+ * - point.dropped : 기한 안에 처리하지 못해 테이블에 접근하기 전에 버린 건수 (operation, reason 태그)
+ * - point.throttled : 요청 수 제한에 걸려 바로 거절한 건수 (reason 태그)
+ * - point.expired : 유효기간이 지나 소멸시킨 포인트 합계
+ * - point.repository.flush.lag : write-behind 캐시에서 테이블에 아직 반영하지 못한 쓰기의 지연 상한 (밀리초)
+ * - point.repository.history.dead_letters : 비동기 내역 저장에서 재시도 후에도 반영하지 못해 남겨둔 내역 수
+ */
+@Component
+public class PointMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TransactionType, Timer> lockWaitTimers = new EnumMap<>(TransactionType.class);
+    private final Map<TransactionType, Timer> lockHoldTimers = new EnumMap<>(TransactionType.class);
+
+    public PointMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        for (TransactionType type : TransactionType.values()) {
+            lockWaitTimers.put(type, Timer.builder("point.lock.wait")
+                    .description("유저별 Lock 을 얻기까지 기다린 시간")
+                    .tag("operation", operation(type))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+            lockHoldTimers.put(type, Timer.builder("point.lock.hold")
+                    .description("유저별 Lock 을 점유한 시간")
+                    .tag("operation", operation(type))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    // 지표를 수집하지 않는 경우 (단위 테스트 등)
+    public static PointMetrics noop() {
+        return new PointMetrics(new CompositeMeterRegistry());
+    }
+
+    public void recordLockWait(TransactionType type, long nanos) {
+        lockWaitTimers.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockHold(TransactionType type, long nanos) {
+        lockHoldTimers.get(type).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public Timer repositoryTimer(String repository, String method) {
+        return Timer.builder("point.repository.latency")
+                .description("저장소 메서드 처리 시간")
+                .tag("repository", repository)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public void recordRejected(TransactionType type, IllegalArgumentException e) {
+        String reason = e instanceof PointRejectedException rejected
+                ? rejected.reason().name().toLowerCase(Locale.ROOT)
+                : "invalid_request";
+        meterRegistry.counter("point.rejected", "operation", operation(type), "reason", reason).increment();
+    }
+
+    public void recordDropped(TransactionType type, PointTimeoutReason reason) {
+        meterRegistry.counter("point.dropped", "operation", operation(type), "reason", reason.name().toLowerCase(Locale.ROOT)).increment();
+    }
+
+    public void recordThrottled(PointThrottleReason reason) {
+        meterRegistry.counter("point.throttled", "reason", reason.name().toLowerCase(Locale.ROOT)).increment();
+    }
+
+    public void recordExpired(long amount) {
+        meterRegistry.counter("point.expired").increment(amount);
+    }
+
+    public void registerFlushLag(LongSupplier lagMillis) {
+        Gauge.builder("point.repository.flush.lag", lagMillis, LongSupplier::getAsLong)
+                .description("테이블에 아직 반영하지 못한 쓰기의 지연 상한 (밀리초)")
+                .register(meterRegistry);
+    }
+
+    public void registerHistoryDeadLetters(IntSupplier count) {
+        Gauge.builder("point.repository.history.dead_letters", count, IntSupplier::getAsInt)
+                .description("재시도 후에도 테이블에 반영하지 못해 남겨둔 내역 수")
+                .register(meterRegistry);
+    }
+
+    private static String operation(TransactionType type) {
+        return type.name().toLowerCase(Locale.ROOT);
+    }
+}
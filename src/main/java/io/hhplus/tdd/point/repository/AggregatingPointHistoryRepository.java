@@ -0,0 +1,400 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 내역을 저장할 때마다 유저별 합계와 시간 구간별 합계를 함께 갱신하는 PointHistoryRepository
+ * - summarizeById 는 유지 중인 집계만 복사해서 돌려주므로 내역을 훑지 않는다.
+ * - 집계는 조회할 때 처음 만든다. 저장소에 이미 있던 내역(기동 전 내역, 보관 파일 등)을 페이지 단위로 읽어 채우며,
+ *   이 작업은 조회하는 쪽에서 Lock 없이 하므로 저장(유저 Lock 안)은 기다리지 않는다.
+ * - 채우는 동안 끝난 같은 유저의 저장은 따로 모아두고, 채우기가 끝나면 읽은 내역에 없던 것만 id 로 골라 더한다.
+ *   저장이 끊이지 않는 유저도 집계가 만들어지며, 같은 내역이 두 번 집계되지 않는다.
+ *   겹친 저장이 모두 끝난 뒤에 집계로 남긴다. (마지막으로 끝난 저장이 남긴다)
+ * - id 를 돌려주지 않는 저장소(async)와 겹치면 읽은 내역과 구분할 수 없으므로 채운 값은 조회 결과로만 쓰고 다음 조회에서 다시 채운다.
+ * - 구간은 유저별로 최근 maxBucketsPerUser 개만 남기고, 전체 합계는 계속 유지한다.
+ * - 집계를 유지하는 유저가 maxUsers 를 넘으면 저장 중이 아닌 유저부터 지운다. 지운 유저는 다음 조회에서 다시 채운다.
+ * - 구현체가 재정의한 메서드가 그대로 쓰이도록 default 메서드도 모두 위임한다.
+ */
+public class AggregatingPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    public static final int DEFAULT_MAX_USERS = 10_000;
+    static final int SEED_PAGE_SIZE = 1_000; // 집계를 채울 때 한 번에 읽는 내역 수
+
+    private static final int CHARGED = 0;
+    private static final int USED = 1;
+    private static final int CHARGE_COUNT = 2;
+    private static final int USE_COUNT = 3;
+
+    private final PointHistoryRepository delegate;
+    private final long bucketMillis;
+    private final int maxBucketsPerUser;
+    private final int maxUsers;
+    private final Map<Long, UserAggregate> aggregates = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public AggregatingPointHistoryRepository(PointHistoryRepository delegate, long bucketMillis, int maxBucketsPerUser) {
+        this(delegate, bucketMillis, maxBucketsPerUser, DEFAULT_MAX_USERS);
+    }
+
+    public AggregatingPointHistoryRepository(PointHistoryRepository delegate, long bucketMillis, int maxBucketsPerUser, int maxUsers) {
+        if (bucketMillis <= 0 || maxBucketsPerUser <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("bucketMillis, maxBucketsPerUser, maxUsers는 0보다 커야합니다.");
+        }
+        this.delegate = delegate;
+        this.bucketMillis = bucketMillis;
+        this.maxBucketsPerUser = maxBucketsPerUser;
+        this.maxUsers = maxUsers;
+    }
+
+    @Override
+    public PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+        Write write = begin(userId);
+        PointHistory pointHistory = null;
+        boolean saved = false;
+        try {
+            pointHistory = delegate.save(userId, amount, type, updateMillis);
+            saved = true;
+            return pointHistory;
+        } finally {
+            write.end(saved, idOf(pointHistory), type, amount, updateMillis);
+        }
+    }
+
+    @Override
+    public List<PointHistory> saveAll(List<PointHistory> histories) {
+        List<Write> writes = new ArrayList<>(histories.size());
+        for (PointHistory pointHistory : histories) {
+            writes.add(begin(pointHistory.userId()));
+        }
+        List<PointHistory> result = null;
+        boolean saved = false;
+        try {
+            result = delegate.saveAll(histories);
+            saved = true;
+            return result;
+        } finally {
+            for (int i = 0; i < histories.size(); i++) {
+                PointHistory pointHistory = histories.get(i);
+                long id = result != null && result.size() == histories.size() ? idOf(result.get(i)) : 0L;
+                writes.get(i).end(saved, id, pointHistory.type(), pointHistory.amount(), pointHistory.updateMillis());
+            }
+        }
+    }
+
+    @Override
+    public List<PointHistory> findAllById(long userId) {
+        return delegate.findAllById(userId);
+    }
+
+    @Override
+    public PointHistoryPage findPageById(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        return delegate.findPageById(userId, cursor, limit, order);
+    }
+
+    @Override
+    public void discardUncommitted(long userId) {
+        delegate.discardUncommitted(userId);
+    }
+
+    @Override
+    public void forEachById(long userId, Consumer<PointHistory> action) {
+        delegate.forEachById(userId, action);
+    }
+
+    @Override
+    public PointHistorySummary summarizeById(long userId, Long fromMillis, Long toMillis) {
+        UserAggregate aggregate = acquire(userId);
+        Seed seed = null;
+        aggregate.lock.lock();
+        try {
+            if (aggregate.loaded) {
+                return aggregate.summarize(userId, bucketMillis, fromMillis, toMillis);
+            }
+            if (aggregate.seed == null) {
+                seed = new Seed(aggregate.writers > 0); // 이미 진행 중인 저장의 내역은 읽힐 수도, 안 읽힐 수도 있다.
+                aggregate.seed = seed;
+            }
+        } finally {
+            aggregate.lock.unlock();
+        }
+
+        // Lock 없이 저장소를 읽어 채운다. 다른 쓰레드가 채우는 중이면 읽은 값은 조회 결과로만 쓴다.
+        UserAggregate scanned = scan(userId, seed);
+        if (seed == null) {
+            return scanned.summarize(userId, bucketMillis, fromMillis, toMillis);
+        }
+        aggregate.lock.lock();
+        try {
+            seed.scanned = scanned;
+            if (aggregate.evicted || seed.unknown) {
+                aggregate.seed = null;
+                return scanned.summarize(userId, bucketMillis, fromMillis, toMillis);
+            }
+            if (aggregate.writers == 0) {
+                aggregate.install(seed, maxBucketsPerUser);
+                return aggregate.summarize(userId, bucketMillis, fromMillis, toMillis);
+            }
+            return seed.merge(maxBucketsPerUser).summarize(userId, bucketMillis, fromMillis, toMillis);
+        } finally {
+            aggregate.lock.unlock();
+        }
+    }
+
+    /**
+     * 집계를 유지 중인 유저 수
+     */
+    public int userCount() {
+        return aggregates.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    /**
+     * 저장소의 내역을 오래된 순으로 한 페이지씩 읽어 집계를 만든다.
+     * - 저장이 겹치기 시작한 뒤에 읽은 페이지의 id 는 seed 에 남겨, 모아둔 저장 중 이미 읽은 것을 가려낸다.
+     *   저장은 시작할 때 tracking 을 켜므로, 그 저장의 내역이 보이는 페이지를 읽은 뒤에는 tracking 이 켜져 있다.
+     */
+    private UserAggregate scan(long userId, Seed seed) {
+        UserAggregate scanned = new UserAggregate();
+        Long cursor = null;
+        do {
+            PointHistoryPage page = delegate.findPageById(userId, cursor, SEED_PAGE_SIZE, PointHistoryOrder.ASC);
+            boolean tracking = seed != null && seed.tracking;
+            for (PointHistory pointHistory : page.histories()) {
+                scanned.add(pointHistory.type(), pointHistory.amount(),
+                        PointHistorySummary.bucketStart(pointHistory.updateMillis(), bucketMillis), maxBucketsPerUser);
+                if (tracking) {
+                    seed.seenIds.add(pointHistory.id());
+                }
+            }
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return scanned;
+    }
+
+    // 저장을 시작하기 전에 호출한다. 저장이 끝날 때까지 그 유저의 집계는 지워지지 않고, 새로 채운 집계도 반영되지 않는다.
+    private Write begin(long userId) {
+        while (true) {
+            UserAggregate aggregate = acquire(userId);
+            aggregate.lock.lock();
+            try {
+                if (aggregate.evicted) {
+                    continue; // 지워진 직후라면 새로 만든 집계에 다시 건다.
+                }
+                aggregate.writers++;
+                if (aggregate.seed != null) {
+                    aggregate.seed.tracking = true;
+                }
+                return new Write(aggregate, aggregate.loaded);
+            } finally {
+                aggregate.lock.unlock();
+            }
+        }
+    }
+
+    private static long idOf(PointHistory pointHistory) {
+        return pointHistory != null ? pointHistory.id() : 0L;
+    }
+
+    private UserAggregate acquire(long userId) {
+        UserAggregate aggregate = aggregates.get(userId);
+        if (aggregate != null) {
+            return aggregate;
+        }
+        if (aggregates.size() >= maxUsers) {
+            evict();
+        }
+        return aggregates.computeIfAbsent(userId, key -> new UserAggregate());
+    }
+
+    /**
+     * 저장 중이 아닌 유저의 집계를 maxUsers 의 3/4 까지 지운다.
+     * - 다른 쓰레드가 정리 중이거나 집계를 쓰고 있는 유저는 건너뛴다.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maxUsers - maxUsers / 4;
+            Iterator<Map.Entry<Long, UserAggregate>> iterator = aggregates.entrySet().iterator();
+            while (aggregates.size() > target && iterator.hasNext()) {
+                UserAggregate aggregate = iterator.next().getValue();
+                if (!aggregate.lock.tryLock()) {
+                    continue;
+                }
+                try {
+                    if (aggregate.writers == 0) {
+                        aggregate.evicted = true;
+                        iterator.remove();
+                    }
+                } finally {
+                    aggregate.lock.unlock();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 진행 중인 저장 한 건. 시작할 때 집계가 만들어져 있었다면 저장에 성공한 뒤 집계에 반영한다.
+     * 집계를 채우는 중이면 저장한 내역을 seed 에 모아두고, 채우기가 끝난 뒤 마지막으로 끝난 저장이 집계로 남긴다.
+     */
+    private final class Write {
+        private final UserAggregate aggregate;
+        private final boolean tracked;
+
+        private Write(UserAggregate aggregate, boolean tracked) {
+            this.aggregate = aggregate;
+            this.tracked = tracked;
+        }
+
+        private void end(boolean saved, long id, TransactionType type, long amount, long updateMillis) {
+            aggregate.lock.lock();
+            try {
+                aggregate.writers--;
+                long bucketStart = PointHistorySummary.bucketStart(updateMillis, bucketMillis);
+                if (tracked) {
+                    if (saved) {
+                        aggregate.add(type, amount, bucketStart, maxBucketsPerUser);
+                    }
+                    return;
+                }
+                Seed seed = aggregate.seed;
+                if (seed == null) {
+                    return; // 집계가 만들어지기 전의 저장은 나중에 채울 때 저장소에서 읽힌다.
+                }
+                if (saved) {
+                    if (id <= 0) {
+                        seed.unknown = true;
+                    } else {
+                        seed.pending.add(new PendingWrite(id, type, amount, bucketStart));
+                    }
+                }
+                if (seed.scanned != null && aggregate.writers == 0 && !aggregate.evicted) {
+                    if (seed.unknown) {
+                        aggregate.seed = null;
+                    } else {
+                        aggregate.install(seed, maxBucketsPerUser);
+                    }
+                }
+            } finally {
+                aggregate.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 채우는 중인 집계. 읽은 결과(scanned)와 그 사이 끝난 저장(pending)을 aggregate 의 lock 으로 보호한다.
+     * seenIds 는 읽는 쓰레드만 채우고, 읽기가 끝난 뒤 lock 안에서만 본다.
+     */
+    private static final class Seed {
+        private volatile boolean tracking; // 읽는 동안 저장이 겹쳤는지
+        private final Set<Long> seenIds = new HashSet<>();
+        private final List<PendingWrite> pending = new ArrayList<>();
+        private UserAggregate scanned;
+        private boolean unknown; // id 를 알 수 없는 저장이 겹쳤는지
+
+        private Seed(boolean tracking) {
+            this.tracking = tracking;
+        }
+
+        // 읽은 결과에 읽히지 않은 저장만 더한다.
+        private UserAggregate merge(int maxBuckets) {
+            UserAggregate merged = new UserAggregate();
+            merged.copyFrom(scanned);
+            for (PendingWrite write : pending) {
+                if (!seenIds.contains(write.id())) {
+                    merged.add(write.type(), write.amount(), write.bucketStart(), maxBuckets);
+                }
+            }
+            return merged;
+        }
+    }
+
+    private record PendingWrite(long id, TransactionType type, long amount, long bucketStart) {
+    }
+
+    /**
+     * 유저 한 명의 집계. 합계는 [충전 금액, 사용 금액, 충전 건수, 사용 건수] 배열로 둔다. (lock 으로 보호)
+     */
+    private static final class UserAggregate {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long[] total = new long[4];
+        private final TreeMap<Long, long[]> buckets = new TreeMap<>();
+        private boolean loaded; // 저장소의 내역으로 채워졌는지
+        private boolean evicted; // aggregates 에서 지워졌는지
+        private int writers; // 진행 중인 저장 수
+        private Seed seed; // 채우는 중인 집계
+
+        private void add(TransactionType type, long amount, long bucketStart, int maxBuckets) {
+            accumulate(total, type, amount);
+            long[] bucket = buckets.get(bucketStart);
+            if (bucket == null) {
+                if (buckets.size() == maxBuckets) {
+                    if (bucketStart < buckets.firstKey()) {
+                        return; // 남겨둔 구간보다 오래된 내역은 전체 합계에만 반영한다.
+                    }
+                    buckets.pollFirstEntry();
+                }
+                bucket = new long[4];
+                buckets.put(bucketStart, bucket);
+            }
+            accumulate(bucket, type, amount);
+        }
+
+        private void copyFrom(UserAggregate other) {
+            System.arraycopy(other.total, 0, total, 0, total.length);
+            buckets.clear();
+            other.buckets.forEach((startMillis, totals) -> buckets.put(startMillis, totals.clone()));
+        }
+
+        private void install(Seed seed, int maxBuckets) {
+            copyFrom(seed.merge(maxBuckets));
+            loaded = true;
+            this.seed = null;
+        }
+
+        private PointHistorySummary summarize(long userId, long bucketMillis, Long fromMillis, Long toMillis) {
+            Map<Long, long[]> range = fromMillis == null && toMillis == null ? buckets
+                    : buckets.subMap(
+                            fromMillis != null ? fromMillis : Long.MIN_VALUE, true,
+                            toMillis != null ? toMillis : Long.MAX_VALUE, toMillis == null);
+            List<PointHistorySummary.Bucket> result = new ArrayList<>(range.size());
+            range.forEach((startMillis, totals) -> result.add(new PointHistorySummary.Bucket(
+                    startMillis, totals[CHARGED], totals[USED], totals[CHARGE_COUNT], totals[USE_COUNT])));
+            return new PointHistorySummary(userId, bucketMillis, total[CHARGED], total[USED], total[CHARGE_COUNT], total[USE_COUNT], result);
+        }
+
+        private static void accumulate(long[] totals, TransactionType type, long amount) {
+            if (type == TransactionType.CHARGE) {
+                totals[CHARGED] += amount;
+                totals[CHARGE_COUNT]++;
+            } else {
+                totals[USED] += amount;
+                totals[USE_COUNT]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.wal.PointHistoryArchive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 보관소(스냅샷 이전 내역, 메모리 매핑 컬럼 파일)와 테이블(이후 내역)을 합쳐서 조회하는 PointHistoryRepository
+ * - 테이블의 내역 id 는 기동 시 보관된 마지막 내역 id 만큼 밀어서 보관 파일의 id 뒤에 이어지게 한다.
+ *   write-ahead log 는 민 id 를 남기므로, 재기동 후 보관 파일에서도 같은 id 로 조회된다.
+ * - 페이지 조회는 id 범위로 보관소와 테이블 중 필요한 쪽만 페이지 단위로 읽는다. (보관소 id <= idOffset < 테이블 id)
+ */
+public class ArchivedPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    static final int ARCHIVE_PAGE_SIZE = 1_000; // 내보내기에서 보관 파일을 한 번에 읽는 내역 수
+
+    private final PointHistoryRepository delegate;
+    private final PointHistoryArchive pointHistoryArchive;
+    private final long idOffset;
+
+    public ArchivedPointHistoryRepository(PointHistoryRepository delegate, PointHistoryArchive pointHistoryArchive) {
+        this.delegate = delegate;
+        this.pointHistoryArchive = pointHistoryArchive;
+        this.idOffset = pointHistoryArchive.lastVisibleId();
+    }
+
+    @Override
+    public PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+        return shift(delegate.save(userId, amount, type, updateMillis));
+    }
+
+    @Override
+    public List<PointHistory> saveAll(List<PointHistory> histories) {
+        return delegate.saveAll(histories).stream().map(this::shift).toList();
+    }
+
+    @Override
+    public List<PointHistory> findAllById(long userId) {
+        List<PointHistory> recent = delegate.findAllById(userId);
+        if (idOffset == 0) {
+            return recent;
+        }
+        List<PointHistory> histories = new ArrayList<>(pointHistoryArchive.findAllByUserId(userId));
+        for (PointHistory pointHistory : recent) {
+            histories.add(shift(pointHistory));
+        }
+        return histories;
+    }
+
+    @Override
+    public PointHistoryPage findPageById(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        if (idOffset == 0) {
+            return delegate.findPageById(userId, cursor, limit, order);
+        }
+        return order == PointHistoryOrder.ASC
+                ? findPageAscending(userId, cursor, limit)
+                : findPageDescending(userId, cursor, limit);
+    }
+
+    @Override
+    public void discardUncommitted(long userId) {
+        delegate.discardUncommitted(userId);
+    }
+
+    @Override
+    public void forEachById(long userId, Consumer<PointHistory> action) {
+        if (idOffset > 0) {
+            Long cursor = null;
+            do {
+                PointHistoryPage page = pointHistoryArchive.findPageByUserId(userId, cursor, ARCHIVE_PAGE_SIZE, PointHistoryOrder.ASC);
+                page.histories().forEach(action);
+                cursor = page.nextCursor();
+            } while (cursor != null);
+        }
+        delegate.forEachById(userId, pointHistory -> action.accept(shift(pointHistory)));
+    }
+
+    @Override
+    public PointHistorySummary summarizeById(long userId, Long fromMillis, Long toMillis) {
+        if (idOffset == 0) {
+            return delegate.summarizeById(userId, fromMillis, toMillis);
+        }
+        return PointHistoryRepository.super.summarizeById(userId, fromMillis, toMillis);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    // 보관소 -> 테이블 순서. 보관소에서 페이지가 차면 테이블은 다음 내역이 있는지만 확인한다.
+    private PointHistoryPage findPageAscending(long userId, Long cursor, int limit) {
+        if (cursor != null && cursor >= idOffset) {
+            return shift(delegate.findPageById(userId, cursor - idOffset, limit, PointHistoryOrder.ASC));
+        }
+        PointHistoryPage archived = pointHistoryArchive.findPageByUserId(userId, cursor, limit, PointHistoryOrder.ASC);
+        if (archived.hasNext()) {
+            return archived;
+        }
+        return concat(archived, shift(delegate.findPageById(userId, null, Math.max(limit - archived.histories().size(), 1), PointHistoryOrder.ASC)), limit);
+    }
+
+    // 테이블 -> 보관소 순서
+    private PointHistoryPage findPageDescending(long userId, Long cursor, int limit) {
+        if (cursor != null && cursor <= idOffset + 1) {
+            return pointHistoryArchive.findPageByUserId(userId, cursor, limit, PointHistoryOrder.DESC);
+        }
+        PointHistoryPage recent = shift(delegate.findPageById(userId, cursor != null ? cursor - idOffset : null, limit, PointHistoryOrder.DESC));
+        if (recent.hasNext()) {
+            return recent;
+        }
+        return concat(recent, pointHistoryArchive.findPageByUserId(userId, null, Math.max(limit - recent.histories().size(), 1), PointHistoryOrder.DESC), limit);
+    }
+
+    // first 뒤에 second 를 limit 건까지 붙인다. 한 건 이상 남으면 다음 페이지가 있다.
+    private static PointHistoryPage concat(PointHistoryPage first, PointHistoryPage second, int limit) {
+        List<PointHistory> histories = new ArrayList<>(first.histories());
+        int room = limit - histories.size();
+        List<PointHistory> rest = second.histories();
+        histories.addAll(rest.subList(0, Math.min(room, rest.size())));
+        boolean hasNext = rest.size() > room || (room > 0 && second.hasNext());
+        return new PointHistoryPage(histories, hasNext && !histories.isEmpty() ? histories.get(histories.size() - 1).id() : null);
+    }
+
+    private PointHistoryPage shift(PointHistoryPage page) {
+        List<PointHistory> histories = page.histories().stream().map(this::shift).toList();
+        return new PointHistoryPage(histories, page.hasNext() ? page.nextCursor() + idOffset : null);
+    }
+
+    // 비동기 저장소처럼 id 가 아직 정해지지 않은(0) 내역은 그대로 둔다.
+    private PointHistory shift(PointHistory pointHistory) {
+        if (idOffset == 0 || pointHistory.id() == 0) {
+            return pointHistory;
+        }
+        return new PointHistory(pointHistory.id() + idOffset, pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis());
+    }
+}
@@ -0,0 +1,261 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 포인트 내역을 비동기로 저장하는 저장소
+ * - save()는 내역을 큐에 넣고 바로 반환하며, 전용 writer 쓰레드가 큐를 batch 단위로 꺼내 테이블에 반영한다.
+ * - writer가 하나이므로 큐에 들어간 순서대로 저장된다. (같은 유저의 내역 순서 보장)
+ * - 큐가 가득 차면 save()는 자리가 날 때까지 대기한다. (backpressure)
+ * - 조회와 종료 시에는 flush()로 밀린 내역을 모두 반영한 뒤 처리한다. 조회는 flushTimeoutMillis 까지만 기다린다.
+ * - 테이블은 한 건씩만 넣을 수 있으므로, batch 는 큐에서 꺼내는 단위일 뿐 처리량은 테이블의 insert 속도를 넘지 않는다.
+ *   save() 의 응답 시간에서 insert 대기를 빼는 것이 목적이다.
+ * - insert 에 실패하면 MAX_INSERT_ATTEMPTS 번까지 지수 backoff(최대 MAX_BACKOFF_MILLIS) 후 다시 시도한다.
+ *   끝내 실패한 내역은 dead-letter 에 남기고(최근 MAX_DEAD_LETTERS 건) point.repository.history.dead_letters 지표로 드러낸다.
+ *   호출한 쪽은 이미 응답을 받았으므로, dead-letter 의 내역은 retryDeadLetters() 로 다시 반영한다.
+ */
+@Slf4j
+public class AsyncPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    static final int MAX_INSERT_ATTEMPTS = 5;
+    static final long INITIAL_BACKOFF_MILLIS = 10L;
+    static final long MAX_BACKOFF_MILLIS = 1_000L;
+    static final int MAX_DEAD_LETTERS = 10_000;
+
+    private final PointHistoryTable pointHistoryTable;
+    private final BlockingQueue<PendingHistory> queue;
+    private final int batchSize;
+    private final long flushTimeoutMillis;
+    private final Thread writer;
+
+    private final AtomicLong accepted = new AtomicLong(); // save()로 접수된 건수
+    private long written; // 테이블에 반영된 건수 (progressLock 으로 보호)
+    private final ReentrantLock progressLock = new ReentrantLock();
+    private final Condition progressed = progressLock.newCondition();
+    private final ReentrantReadWriteLock admissionLock = new ReentrantReadWriteLock(); // 접수(read)와 종료(write)가 겹치지 않도록 한다.
+    private volatile boolean running = true;
+    private final Queue<PendingHistory> deadLetters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger deadLetterCount = new AtomicInteger();
+
+    public AsyncPointHistoryRepository(PointHistoryTable pointHistoryTable, int queueCapacity, int batchSize) {
+        this(pointHistoryTable, queueCapacity, batchSize, 30_000L);
+    }
+
+    public AsyncPointHistoryRepository(PointHistoryTable pointHistoryTable, int queueCapacity, int batchSize, long flushTimeoutMillis) {
+        if (queueCapacity <= 0 || batchSize <= 0 || flushTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("queueCapacity, batchSize, flushTimeoutMillis는 0보다 커야합니다.");
+        }
+        this.pointHistoryTable = pointHistoryTable;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushTimeoutMillis = flushTimeoutMillis;
+        this.writer = new Thread(this::drainLoop, "point-history-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 내역을 큐에 적재한다.
+     * - id는 테이블에 반영될 때 부여되므로 반환값의 id는 0이다.
+     * - 적재가 끝날 때까지 close()는 기다리므로, 접수된 내역은 종료 시 반드시 반영된다.
+     */
+    @Override
+    public PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+        admissionLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("포인트 내역 저장소가 종료되었습니다.");
+            }
+            accepted.incrementAndGet();
+            try {
+                queue.put(new PendingHistory(userId, amount, type, updateMillis));
+            } catch (InterruptedException e) {
+                markWritten(1); // 적재하지 못한 건은 flush()가 기다리지 않도록 처리된 것으로 본다.
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("포인트 내역 저장이 중단되었습니다.", e);
+            }
+        } finally {
+            admissionLock.readLock().unlock();
+        }
+        return new PointHistory(0L, userId, amount, type, updateMillis);
+    }
+
+    @Override
+    public List<PointHistory> findAllById(long userId) {
+        flush();
+        return pointHistoryTable.selectAllByUserId(userId);
+    }
+
+    /**
+     * 호출 시점까지 접수된 내역이 모두 테이블에 반영될 때까지 대기한다.
+     * - flushTimeoutMillis 안에 반영되지 않거나 기다리는 중에 인터럽트되면 IllegalStateException 이 발생한다.
+     *   (인터럽트 표시는 그대로 남긴다) 반영되지 않은 채 조회 결과를 돌려주지 않는다.
+     */
+    public void flush() {
+        long target = accepted.get();
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(flushTimeoutMillis);
+        progressLock.lock();
+        try {
+            while (written < target) {
+                if (remainingNanos <= 0) {
+                    throw new IllegalStateException("포인트 내역 반영이 지연되고 있습니다. (남은 건수: " + (target - written) + ")");
+                }
+                remainingNanos = progressed.awaitNanos(remainingNanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("포인트 내역 반영 대기가 중단되었습니다.", e);
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        return queue.size();
+    }
+
+    /**
+     * 다시 시도해도 반영하지 못해 dead-letter 에 남은 내역 수
+     */
+    public int deadLetterCount() {
+        return deadLetterCount.get();
+    }
+
+    /**
+     * dead-letter 에 남은 내역 (id 는 0)
+     */
+    public List<PointHistory> deadLetters() {
+        List<PointHistory> histories = new ArrayList<>(deadLetterCount.get());
+        for (PendingHistory history : deadLetters) {
+            histories.add(new PointHistory(0L, history.userId(), history.amount(), history.type(), history.updateMillis()));
+        }
+        return histories;
+    }
+
+    /**
+     * dead-letter 의 내역을 호출한 쓰레드에서 다시 반영한다. 이번에도 실패한 내역은 dead-letter 에 다시 남는다.
+     * @return 반영한 건수
+     */
+    public int retryDeadLetters() {
+        int retried = 0;
+        for (int i = deadLetterCount.get(); i > 0; i--) {
+            PendingHistory history = deadLetters.poll();
+            if (history == null) {
+                break;
+            }
+            deadLetterCount.decrementAndGet();
+            if (insert(history)) {
+                retried++;
+            }
+        }
+        return retried;
+    }
+
+    /**
+     * 새 내역 접수를 막고, 큐에 남은 내역을 모두 반영한 뒤 writer를 종료한다.
+     */
+    @Override
+    public void close() {
+        admissionLock.writeLock().lock(); // 적재 중인 save()가 끝난 뒤에 접수를 막는다.
+        try {
+            running = false;
+        } finally {
+            admissionLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 종료 직전에 접수된 내역이 남아있다면 호출한 쓰레드에서 마저 반영한다.
+        PendingHistory history;
+        while ((history = queue.poll()) != null) {
+            insert(history);
+            markWritten(1);
+        }
+    }
+
+    private void drainLoop() {
+        List<PendingHistory> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingHistory first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (PendingHistory history : batch) {
+                    insert(history);
+                }
+                markWritten(batch.size());
+                batch.clear();
+            } catch (InterruptedException e) {
+                // close()를 통해서만 종료하므로 인터럽트는 무시하고 남은 내역을 계속 처리한다.
+            }
+        }
+    }
+
+    // 실패하면 backoff 후 다시 시도하고, 끝내 실패하면 dead-letter 에 남긴다. 반영했으면 true
+    private boolean insert(PendingHistory history) {
+        long backoffMillis = INITIAL_BACKOFF_MILLIS;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                pointHistoryTable.insert(history.userId(), history.amount(), history.type(), history.updateMillis());
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    log.error("Failed to write point history for user {} after {} attempts, moved to dead-letter: {}",
+                            history.userId(), attempt, e.getMessage());
+                    deadLetter(history);
+                    return false;
+                }
+                log.warn("Failed to write point history for user {} (attempt {}), retrying: {}", history.userId(), attempt, e.getMessage());
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoffMillis));
+            backoffMillis = Math.min(backoffMillis * 2, MAX_BACKOFF_MILLIS);
+        }
+    }
+
+    // 가득 차면 가장 오래된 내역을 버린다. (버린 내역은 로그에만 남는다)
+    private void deadLetter(PendingHistory history) {
+        deadLetters.offer(history);
+        if (deadLetterCount.incrementAndGet() > MAX_DEAD_LETTERS) {
+            PendingHistory dropped = deadLetters.poll();
+            if (dropped != null) {
+                deadLetterCount.decrementAndGet();
+                log.error("Dead-letter is full, dropped point history for user {}: {}", dropped.userId(), dropped);
+            }
+        }
+    }
+
+    private void markWritten(int count) {
+        progressLock.lock();
+        try {
+            written += count;
+            progressed.signalAll();
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    private record PendingHistory(long userId, long amount, TransactionType type, long updateMillis) {
+    }
+}
@@ -0,0 +1,251 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * UserPointTable 앞단의 write-behind 캐시
+ * - 메모리에 있는 잔액이 원본이며, 조회는 테이블을 거치지 않는다. (최초 1회 로딩 제외)
+ * - 변경된 잔액은 flushIntervalMillis 주기로 별도 쓰레드가 테이블에 반영한다.
+ *   한 번의 반영에서 밀린 유저들을 flushParallelism 개의 쓰레드가 나눠서 쓴다.
+ * - 한 주기 안에서 같은 유저에 대한 여러 번의 쓰기는 마지막 값 하나로 합쳐서 반영한다.
+ * - 반영 지연(lagMillis)은 다음 두 한도로 묶는다. 넘으면 쓰는 쪽이 직접 반영을 끝낸 뒤 진행한다. (backpressure)
+ *   - 밀린 유저 수가 maxPending 이상
+ *   - 마지막으로 끝난 반영이 시작된 뒤 maxLagMillis 이상 지남
+ * - 캐시가 maxCached 를 넘으면 테이블에 반영이 끝난 유저부터 지운다. 지운 유저는 다음 조회 때 테이블에서 다시 읽는다.
+ */
+@Slf4j
+public class CachedUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    static final int DEFAULT_MAX_PENDING = 1_000;
+    static final long DEFAULT_MAX_LAG_MILLIS = 5_000L;
+    static final int DEFAULT_FLUSH_PARALLELISM = 16;
+    static final int DEFAULT_MAX_CACHED = 100_000;
+
+    private final UserPointTable userPointTable;
+    private final int maxPending;
+    private final long maxLagMillis;
+    private final int flushParallelism;
+    private final int maxCached;
+    private final Map<Long, UserPoint> cache = new ConcurrentHashMap<>();
+    private final Map<Long, Pending> dirty = new ConcurrentHashMap<>(); // 테이블에 반영해야 할 유저별 최신 잔액
+    private final AtomicLong evictions = new AtomicLong(); // 테이블에서 읽는 동안 지워진 유저가 다시 캐시에 들어가지 않도록 확인한다.
+    private final ScheduledExecutorService flusher;
+    private final ExecutorService flushWorkers;
+    private final ReentrantLock flushLock = new ReentrantLock(); // 테이블 대기 중 가상 쓰레드가 고정(pinning)되지 않도록 synchronized 대신 사용
+    private volatile long flushedUpToMillis; // 이 시각 이전의 쓰기는 모두 테이블에 반영되었다.
+
+    public CachedUserPointRepository(UserPointTable userPointTable, long flushIntervalMillis) {
+        this(userPointTable, flushIntervalMillis, DEFAULT_MAX_PENDING, DEFAULT_MAX_LAG_MILLIS, DEFAULT_FLUSH_PARALLELISM, DEFAULT_MAX_CACHED);
+    }
+
+    public CachedUserPointRepository(UserPointTable userPointTable, long flushIntervalMillis,
+                                     int maxPending, long maxLagMillis, int flushParallelism, int maxCached) {
+        if (flushIntervalMillis <= 0 || maxPending <= 0 || maxLagMillis <= 0 || flushParallelism <= 0 || maxCached <= 0) {
+            throw new IllegalArgumentException("flushIntervalMillis, maxPending, maxLagMillis, flushParallelism, maxCached는 0보다 커야합니다.");
+        }
+        this.userPointTable = userPointTable;
+        this.maxPending = maxPending;
+        this.maxLagMillis = maxLagMillis;
+        this.flushParallelism = flushParallelism;
+        this.maxCached = maxCached;
+        this.flushedUpToMillis = System.currentTimeMillis();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-point-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workerIndex = new AtomicInteger();
+        this.flushWorkers = Executors.newFixedThreadPool(flushParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-point-flusher-" + workerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public UserPoint findById(long id) {
+        UserPoint cached = cache.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        // 캐시에 없는 유저만 테이블에서 읽어온다. 그 사이 쓰기가 먼저 들어왔다면 그 값을 우선한다.
+        long evictionsBeforeLoad = evictions.get();
+        UserPoint loaded = userPointTable.selectById(id);
+        // 삭제 확인과 캐시 적재를 쓰기/삭제와 같은 키 단위로 원자적으로 처리한다.
+        // 확인한 뒤 적재하기 전에 쓰고 반영하고 지워지면, 읽어온 이전 값이 캐시에 남을 수 있기 때문이다.
+        UserPoint current = cache.compute(id, (key, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            // 읽는 동안 쓰고 반영하고 지워졌을 수 있으므로 캐시에 넣지 않는다.
+            return evictions.get() == evictionsBeforeLoad ? loaded : null;
+        });
+        return current != null ? current : loaded;
+    }
+
+    @Override
+    public UserPoint saveOrUpdate(long id, long amount) {
+        if ((dirty.size() >= maxPending && !dirty.containsKey(id)) || lagMillis() > maxLagMillis) {
+            flush(); // 반영이 밀려 있으면 쓰는 쪽도 반영이 끝날 때까지 기다린다.
+        }
+        UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+        // 캐시 갱신과 dirty 표시를 같은 키 단위로 원자적으로 처리한다.
+        cache.compute(id, (key, previous) -> {
+            dirty.put(key, new Pending(amount));
+            return userPoint;
+        });
+        return userPoint;
+    }
+
+    /**
+     * 호출 시점까지의 변경분을 모두 테이블에 반영한다.
+     * - 한 번에 하나의 반영만 진행하고, 한 반영 안에서 같은 유저는 한 번만 쓰므로 같은 유저의 쓰기 순서가 뒤바뀌지 않는다.
+     * - 테이블에 쓴 뒤에 dirty 표시를 지우므로, 반영 중인 유저가 캐시에서 지워져 이전 값이 읽히는 일은 없다.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            long startMillis = System.currentTimeMillis();
+            List<Long> ids = new ArrayList<>(dirty.size());
+            List<Pending> pendings = new ArrayList<>(dirty.size());
+            dirty.forEach((id, pending) -> {
+                ids.add(id);
+                pendings.add(pending);
+            });
+            writeAll(ids, pendings);
+            flushedUpToMillis = startMillis;
+            evictIfFull();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public int pendingCount() {
+        return dirty.size();
+    }
+
+    public int cachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * 테이블에 아직 반영되지 않은 쓰기 중 가장 오래된 것이 기다린 시간의 상한 (밀린 변경분이 없으면 0)
+     */
+    public long lagMillis() {
+        return dirty.isEmpty() ? 0L : System.currentTimeMillis() - flushedUpToMillis;
+    }
+
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // 종료 시점에 남아있는 변경분은 버리지 않고 반영한다.
+        flush();
+        flushWorkers.shutdown();
+    }
+
+    // 밀린 유저를 작업 쓰레드들이 하나씩 가져가며 쓴다. 테이블 지연이 유저마다 달라도 먼저 끝난 쓰레드가 다음 유저를 맡는다.
+    private void writeAll(List<Long> ids, List<Pending> pendings) {
+        if (ids.size() <= 1 || flushParallelism == 1) {
+            for (int i = 0; i < ids.size(); i++) {
+                write(ids.get(i), pendings.get(i));
+            }
+            return;
+        }
+        AtomicInteger next = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(flushParallelism);
+        for (int worker = 0; worker < Math.min(flushParallelism, ids.size()); worker++) {
+            futures.add(flushWorkers.submit(() -> {
+                int index;
+                while ((index = next.getAndIncrement()) < ids.size()) {
+                    write(ids.get(index), pendings.get(index));
+                }
+            }));
+        }
+        RuntimeException failure = null;
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                failure = e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("잔액 반영이 중단되었습니다.", e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void write(long id, Pending pending) {
+        userPointTable.insertOrUpdate(id, pending.amount());
+        dirty.remove(id, pending); // 쓰는 동안 새 값이 들어왔으면 남겨두고 다음 반영에서 쓴다.
+    }
+
+    // 테이블에 반영이 끝난 유저만 지운다. dirty 확인과 삭제를 같은 키 단위로 처리하므로 쓰기와 겹치지 않는다.
+    private void evictIfFull() {
+        if (cache.size() <= maxCached) {
+            return;
+        }
+        int target = maxCached - maxCached / 4;
+        for (Long id : cache.keySet()) {
+            if (cache.size() <= target) {
+                break;
+            }
+            cache.computeIfPresent(id, (key, userPoint) -> {
+                if (dirty.containsKey(key)) {
+                    return userPoint;
+                }
+                evictions.incrementAndGet();
+                return null;
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to flush user points: {}", e.getMessage());
+        }
+    }
+
+    // 같은 금액을 다시 써도 다른 항목으로 구분되도록 record 대신 class 를 쓴다.
+    private static final class Pending {
+        private final long amount;
+
+        private Pending(long amount) {
+            this.amount = amount;
+        }
+
+        private long amount() {
+            return amount;
+        }
+    }
+}
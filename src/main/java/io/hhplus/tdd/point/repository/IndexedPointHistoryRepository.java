@@ -0,0 +1,138 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.TransactionType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저별 색인을 함께 관리하는 포인트 내역 저장소
+ * - 저장은 테이블을 거치고, 테이블이 부여한 내역을 유저별 append-only 구간(segment)에도 추가한다.
+ * - 조회는 전체 목록을 훑지 않고 해당 유저의 구간만 복사 없이 읽기 전용으로 돌려준다.
+ * - 테이블에 이미 있던 내역은 유저를 처음 만났을 때 한 번만 읽어서 색인에 올린다.
+ */
+public class IndexedPointHistoryRepository implements PointHistoryRepository {
+
+    private final PointHistoryTable pointHistoryTable;
+    private final Map<Long, UserHistorySegment> segments = new ConcurrentHashMap<>();
+
+    public IndexedPointHistoryRepository(PointHistoryTable pointHistoryTable) {
+        this.pointHistoryTable = pointHistoryTable;
+    }
+
+    @Override
+    public PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+        // 테이블에 넣기 전에 구간을 먼저 만들어야 새 내역이 초기 로딩과 중복되지 않는다.
+        UserHistorySegment segment = segmentOf(userId);
+        PointHistory pointHistory = pointHistoryTable.insert(userId, amount, type, updateMillis);
+        segment.append(pointHistory);
+        return pointHistory;
+    }
+
+    @Override
+    public List<PointHistory> findAllById(long userId) {
+        return segmentOf(userId).view();
+    }
+
+    @Override
+    public PointHistoryPage findPageById(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        return segmentOf(userId).page(cursor, limit, order);
+    }
+
+    private UserHistorySegment segmentOf(long userId) {
+        return segments.computeIfAbsent(userId, id -> new UserHistorySegment(pointHistoryTable.selectAllByUserId(id)));
+    }
+
+    /**
+     * 한 유저의 내역을 id 오름차순으로 보관하는 append-only 배열
+     * - 쓰기는 구간 단위로 동기화하고, 읽기는 volatile 스냅샷(배열, 길이) 하나만 읽으므로 잠금이 없다.
+     * - 스냅샷에 포함된 칸은 이후에 바뀌지 않으므로 복사 없이 그대로 노출해도 안전하다.
+     */
+    static final class UserHistorySegment {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private volatile Snapshot snapshot;
+
+        UserHistorySegment(List<PointHistory> initial) {
+            PointHistory[] items = initial.toArray(new PointHistory[Math.max(INITIAL_CAPACITY, initial.size())]);
+            this.snapshot = new Snapshot(items, initial.size());
+        }
+
+        synchronized void append(PointHistory pointHistory) {
+            PointHistory[] items = snapshot.items();
+            int size = snapshot.size();
+            int position = size;
+            // 거의 항상 맨 뒤에 붙지만, 같은 유저의 저장이 겹친 경우를 위해 id 순서를 맞춘다.
+            while (position > 0 && items[position - 1].id() >= pointHistory.id()) {
+                if (items[position - 1].id() == pointHistory.id()) {
+                    return; // 초기 로딩에 이미 포함된 내역
+                }
+                position--;
+            }
+            if (size == items.length || position < size) {
+                // 중간 삽입은 기존 칸을 바꾸므로 새 배열에서 처리해 읽는 쪽이 보던 배열은 건드리지 않는다.
+                PointHistory[] grown = new PointHistory[size == items.length ? items.length * 2 : items.length];
+                System.arraycopy(items, 0, grown, 0, position);
+                System.arraycopy(items, position, grown, position + 1, size - position);
+                items = grown;
+            }
+            items[position] = pointHistory;
+            snapshot = new Snapshot(items, size + 1);
+        }
+
+        List<PointHistory> view() {
+            Snapshot current = snapshot;
+            return Collections.unmodifiableList(Arrays.asList(current.items()).subList(0, current.size()));
+        }
+
+        /**
+         * 커서 위치를 이진 탐색으로 찾고 페이지 크기만큼만 복사한다.
+         */
+        PointHistoryPage page(Long cursor, int limit, PointHistoryOrder order) {
+            Snapshot current = snapshot;
+            PointHistory[] items = current.items();
+            int size = current.size();
+            List<PointHistory> page = new ArrayList<>(Math.min(limit, size));
+            if (order == PointHistoryOrder.ASC) {
+                int from = cursor == null ? 0 : indexAfter(items, size, cursor);
+                for (int i = from; i < size && page.size() < limit; i++) {
+                    page.add(items[i]);
+                }
+                boolean hasNext = from + page.size() < size;
+                return new PointHistoryPage(page, hasNext ? page.get(page.size() - 1).id() : null);
+            }
+            int from = cursor == null ? size - 1 : indexAfter(items, size, cursor - 1) - 1;
+            for (int i = from; i >= 0 && page.size() < limit; i--) {
+                page.add(items[i]);
+            }
+            boolean hasNext = from - page.size() >= 0;
+            return new PointHistoryPage(page, hasNext ? page.get(page.size() - 1).id() : null);
+        }
+
+        // id 가 cursor 보다 큰 첫 번째 위치
+        private static int indexAfter(PointHistory[] items, int size, long cursor) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (items[mid].id() <= cursor) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private record Snapshot(PointHistory[] items, int size) {
+        }
+    }
+}
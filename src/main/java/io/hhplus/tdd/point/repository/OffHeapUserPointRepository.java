@@ -0,0 +1,270 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * 힙 밖(direct buffer)에 잔액을 두는 UserPointRepository
+ * - userId -> (point, updateMillis) 를 open addressing(선형 탐사) 해시 테이블에 기본형 그대로 저장한다. (유저당 32바이트)
+ * - 박싱된 Long 키나 UserPoint 객체를 들고 있지 않으며, UserPoint 는 반환할 때만 만든다.
+ * - 테이블은 shard 로 나뉘며, 쓰기는 shard 별 Lock 으로 직렬화하고 읽기는 Lock 없이 슬롯별 seqlock 으로 검증한다.
+ * - 처음 조회하는 유저는 UserPointTable 에서 한 번 읽어와 채운다. (write-ahead log 복구 값 등) 이후 테이블에는 쓰지 않는다.
+ */
+public class OffHeapUserPointRepository implements UserPointRepository {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int SLOT_SIZE = 32; // seq, userId, point, updateMillis
+    private static final int SEQ = 0;
+    private static final int KEY = 8;
+    private static final int POINT = 16;
+    private static final int MILLIS = 24;
+    private static final int MAX_SLOTS_PER_SHARD = 1 << 25; // direct buffer 하나가 2GB 를 넘지 않도록 한다.
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    private final UserPointTable userPointTable;
+    private final Shard[] shards;
+    private final int shardShift;
+
+    public OffHeapUserPointRepository(UserPointTable userPointTable, int initialCapacity, int shardCount) {
+        if (initialCapacity <= 0 || shardCount <= 0 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("initialCapacity는 0보다 커야하고, shardCount는 2의 거듭제곱이어야 합니다.");
+        }
+        this.userPointTable = userPointTable;
+        this.shards = new Shard[shardCount];
+        this.shardShift = 64 - Integer.numberOfTrailingZeros(shardCount);
+        int slotsPerShard = slotsFor(Math.max(1, initialCapacity / shardCount));
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(slotsPerShard);
+        }
+    }
+
+    @Override
+    public UserPoint findById(long id) {
+        long hash = hash(id);
+        Shard shard = shardOf(hash);
+        UserPoint userPoint = shard.get(id, hash);
+        if (userPoint != null) {
+            return userPoint;
+        }
+        // 테이블 조회는 Lock 밖에서 수행하고, 그 사이 쓰기가 먼저 들어왔다면 그 값을 우선한다.
+        UserPoint loaded = userPointTable.selectById(id);
+        return shard.putIfAbsent(id, hash, loaded.point(), loaded.updateMillis());
+    }
+
+    @Override
+    public UserPoint saveOrUpdate(long id, long amount) {
+        long hash = hash(id);
+        return shardOf(hash).put(id, hash, amount, System.currentTimeMillis());
+    }
+
+    /**
+     * 유저의 잔액을 원자적으로 바꾼다. operator 는 shard Lock 을 잡은 채 호출되므로 가볍게 유지해야 한다.
+     */
+    public UserPoint update(long id, LongUnaryOperator operator) {
+        UserPoint current = findById(id); // 없으면 먼저 채운다.
+        long hash = hash(id);
+        return shardOf(hash).update(id, hash, current.point(), operator);
+    }
+
+    /**
+     * 저장된 유저 수
+     */
+    public long size() {
+        long size = 0;
+        for (Shard shard : shards) {
+            size += shard.size;
+        }
+        return size;
+    }
+
+    /**
+     * 힙 밖에 잡아둔 메모리 크기 (bytes)
+     */
+    public long offHeapBytes() {
+        long bytes = 0;
+        for (Shard shard : shards) {
+            bytes += shard.table.capacity();
+        }
+        return bytes;
+    }
+
+    private Shard shardOf(long hash) {
+        return shards.length == 1 ? shards[0] : shards[(int) (hash >>> shardShift)];
+    }
+
+    private static int slotsFor(int capacity) {
+        long slots = Long.highestOneBit(Math.max(2L, (long) Math.ceil(capacity / MAX_LOAD_FACTOR)) * 2 - 1);
+        return (int) Math.min(slots, MAX_SLOTS_PER_SHARD);
+    }
+
+    // 연속된 userId 가 고르게 퍼지도록 비트를 섞는다. (MurmurHash3 fmix64)
+    private static long hash(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static ByteBuffer allocate(int slots) {
+        return ByteBuffer.allocateDirect(slots * SLOT_SIZE + 8).alignedSlice(8);
+    }
+
+    /**
+     * seq 가 0 이면 빈 슬롯, 홀수면 쓰는 중, 2 이상 짝수면 사용 중인 슬롯이다.
+     */
+    private static final class Shard {
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private volatile ByteBuffer table; // 늘릴 때만 교체한다.
+        private int size; // writeLock 으로 보호
+
+        private Shard(int slots) {
+            this.table = allocate(slots);
+        }
+
+        private UserPoint get(long id, long hash) {
+            while (true) {
+                ByteBuffer current = table;
+                int mask = current.capacity() / SLOT_SIZE - 1;
+                int slot = (int) hash & mask;
+                UserPoint found = null;
+                while (true) {
+                    int offset = slot * SLOT_SIZE;
+                    long seq = (long) LONGS.getAcquire(current, offset + SEQ);
+                    if (seq == 0) {
+                        break;
+                    }
+                    if ((seq & 1) != 0) {
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    long key = (long) LONGS.get(current, offset + KEY);
+                    long point = (long) LONGS.get(current, offset + POINT);
+                    long millis = (long) LONGS.get(current, offset + MILLIS);
+                    VarHandle.acquireFence();
+                    if ((long) LONGS.getOpaque(current, offset + SEQ) != seq) {
+                        continue; // 읽는 사이 바뀌었으므로 같은 슬롯을 다시 읽는다.
+                    }
+                    if (key == id) {
+                        found = new UserPoint(id, point, millis);
+                        break;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                // 읽는 사이 테이블이 늘어났다면 새 테이블에서 다시 찾는다.
+                if (current == table) {
+                    return found;
+                }
+            }
+        }
+
+        private UserPoint put(long id, long hash, long point, long millis) {
+            writeLock.lock();
+            try {
+                write(findSlotForWrite(id, hash), id, point, millis);
+                return new UserPoint(id, point, millis);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private UserPoint putIfAbsent(long id, long hash, long point, long millis) {
+            writeLock.lock();
+            try {
+                int offset = findSlotForWrite(id, hash);
+                if ((long) LONGS.get(table, offset + SEQ) != 0) {
+                    return new UserPoint(id, (long) LONGS.get(table, offset + POINT), (long) LONGS.get(table, offset + MILLIS));
+                }
+                write(offset, id, point, millis);
+                return new UserPoint(id, point, millis);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        private UserPoint update(long id, long hash, long fallback, LongUnaryOperator operator) {
+            writeLock.lock();
+            try {
+                int offset = findSlotForWrite(id, hash);
+                long current = (long) LONGS.get(table, offset + SEQ) != 0 ? (long) LONGS.get(table, offset + POINT) : fallback;
+                long point = operator.applyAsLong(current);
+                long millis = System.currentTimeMillis();
+                write(offset, id, point, millis);
+                return new UserPoint(id, point, millis);
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        /**
+         * id 가 있는 슬롯, 없으면 넣을 빈 슬롯의 offset. 필요하면 먼저 테이블을 늘린다. (writeLock 안에서만 호출)
+         */
+        private int findSlotForWrite(long id, long hash) {
+            int slots = table.capacity() / SLOT_SIZE;
+            if (size + 1 > slots * MAX_LOAD_FACTOR) {
+                grow();
+            }
+            ByteBuffer current = table;
+            int mask = current.capacity() / SLOT_SIZE - 1;
+            int slot = (int) hash & mask;
+            while (true) {
+                int offset = slot * SLOT_SIZE;
+                if ((long) LONGS.get(current, offset + SEQ) == 0 || (long) LONGS.get(current, offset + KEY) == id) {
+                    return offset;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        private void write(int offset, long id, long point, long millis) {
+            ByteBuffer current = table;
+            long seq = (long) LONGS.get(current, offset + SEQ);
+            if (seq == 0) {
+                size++;
+            }
+            // 읽는 쪽이 쓰는 중인 값을 보지 않도록 seq 를 홀수로 바꾼 뒤 쓰고, 다시 짝수로 올린다.
+            LONGS.setOpaque(current, offset + SEQ, seq + 1);
+            VarHandle.releaseFence();
+            LONGS.set(current, offset + KEY, id);
+            LONGS.set(current, offset + POINT, point);
+            LONGS.set(current, offset + MILLIS, millis);
+            LONGS.setRelease(current, offset + SEQ, seq + 2);
+        }
+
+        private void grow() {
+            ByteBuffer old = table;
+            int oldSlots = old.capacity() / SLOT_SIZE;
+            if (oldSlots >= MAX_SLOTS_PER_SHARD) {
+                throw new IllegalStateException("shard 당 최대 유저 수를 넘었습니다: " + oldSlots);
+            }
+            ByteBuffer next = allocate(oldSlots * 2);
+            int mask = oldSlots * 2 - 1;
+            for (int slot = 0; slot < oldSlots; slot++) {
+                int offset = slot * SLOT_SIZE;
+                if ((long) LONGS.get(old, offset + SEQ) == 0) {
+                    continue;
+                }
+                long key = (long) LONGS.get(old, offset + KEY);
+                int target = (int) hash(key) & mask;
+                while ((long) LONGS.get(next, target * SLOT_SIZE + SEQ) != 0) {
+                    target = (target + 1) & mask;
+                }
+                int targetOffset = target * SLOT_SIZE;
+                LONGS.set(next, targetOffset + KEY, key);
+                LONGS.set(next, targetOffset + POINT, (long) LONGS.get(old, offset + POINT));
+                LONGS.set(next, targetOffset + MILLIS, (long) LONGS.get(old, offset + MILLIS));
+                LONGS.set(next, targetOffset + SEQ, 2L);
+            }
+            table = next; // volatile 쓰기로 새 테이블 내용을 함께 공개한다.
+        }
+    }
+}
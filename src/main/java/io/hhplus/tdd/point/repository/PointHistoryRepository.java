@@ -1,11 +1,78 @@
 package io.hhplus.tdd.point.repository;
 
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointHistorySummary;
 import io.hhplus.tdd.point.TransactionType;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface PointHistoryRepository {
     PointHistory save(long userId, long amount, TransactionType type, long updateMillis);
     List<PointHistory> findAllById(long userId);
+
+    /**
+     * 여러 내역을 순서대로 한 번에 저장한다. 넘겨준 내역의 id 는 쓰지 않고 저장하면서 새로 부여한다.
+     * - 기본 구현은 save 를 차례로 호출한다. 기록 단위를 묶을 수 있는 저장소(write-ahead log 등)는 재정의한다.
+     */
+    default List<PointHistory> saveAll(List<PointHistory> histories) {
+        List<PointHistory> saved = new ArrayList<>(histories.size());
+        for (PointHistory pointHistory : histories) {
+            saved.add(save(pointHistory.userId(), pointHistory.amount(), pointHistory.type(), pointHistory.updateMillis()));
+        }
+        return saved;
+    }
+
+    /**
+     * cursor(제외) 다음부터 limit 건을 order 순서로 조회한다. cursor 가 null 이면 처음부터 조회한다.
+     * - 기본 구현은 findAllById 결과를 한 번 훑으며 페이지에 필요한 만큼만 담는다.
+     *   테이블은 유저 내역 전체 조회만 제공하므로 table / async 모드는 페이지 크기와 무관하게 유저 내역 전체를 읽는다.
+     *   indexed 와 보관소(ArchivedPointHistoryRepository)는 재정의해서 페이지에 필요한 만큼만 읽는다.
+     */
+    default PointHistoryPage findPageById(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        List<PointHistory> all = findAllById(userId);
+        List<PointHistory> page = new ArrayList<>(Math.min(limit, all.size()));
+        boolean hasNext = false;
+        for (int i = 0; i < all.size(); i++) {
+            PointHistory pointHistory = all.get(order == PointHistoryOrder.ASC ? i : all.size() - 1 - i);
+            if (cursor != null && (order == PointHistoryOrder.ASC ? pointHistory.id() <= cursor : pointHistory.id() >= cursor)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                hasNext = true;
+                break;
+            }
+            page.add(pointHistory);
+        }
+        return new PointHistoryPage(page, hasNext ? page.get(page.size() - 1).id() : null);
+    }
+
+    /**
+     * 잔액 저장에 실패한 요청이 앞서 저장한 내역 중, 아직 잔액과 함께 확정되지 않은 것을 버린다.
+     * - 기본 구현은 아무 것도 하지 않는다. 내역을 잔액과 함께 기록하는 저장소(write-ahead log)는 재정의한다.
+     * - 테이블은 삭제를 제공하지 않으므로 테이블에 들어간 내역은 남는다.
+     */
+    default void discardUncommitted(long userId) {
+    }
+
+    /**
+     * 유저의 내역을 id 오름차순으로 action 에 하나씩 넘긴다. (내보내기)
+     * - 기본 구현은 findAllById 를 한 번 읽어 넘긴다. 테이블은 페이지 조회도 매번 유저 내역 전체를 읽으므로,
+     *   페이지로 나눠 읽으면 페이지 수만큼 테이블을 훑게 된다. (indexed 의 findAllById 는 복사 없는 색인이다)
+     * - 보관소(ArchivedPointHistoryRepository)는 재정의해서 보관 파일은 페이지 단위로, 테이블은 한 번만 읽는다.
+     */
+    default void forEachById(long userId, Consumer<PointHistory> action) {
+        findAllById(userId).forEach(action);
+    }
+
+    /**
+     * 유저의 충전/사용 합계와 건수를 전체 및 시간 구간별로 집계한다. 구간은 시작 시각이 fromMillis(포함) ~ toMillis(미포함) 인 것만 담는다.
+     * - 기본 구현은 findAllById 결과를 한 시간 단위로 훑어서 집계한다.
+     */
+    default PointHistorySummary summarizeById(long userId, Long fromMillis, Long toMillis) {
+        return PointHistorySummary.of(userId, PointHistorySummary.DEFAULT_BUCKET_MILLIS, findAllById(userId), fromMillis, toMillis);
+    }
 }
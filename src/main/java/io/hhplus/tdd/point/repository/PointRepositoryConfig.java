@@ -0,0 +1,107 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.wal.PointHistoryArchive;
+import io.hhplus.tdd.point.wal.PointWriteAheadLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 저장소 구현체 선택
+ * - 선택한 구현체는 처리 시간 지표(point.repository.latency)를 기록하는 저장소로 감싸서 등록한다.
+ * - write-ahead log 가 켜져 있으면 쓰기 전에 로그에 먼저 기록하는 저장소로 한 번 더 감싼다.
+ *   내역은 스냅샷으로 보관 파일에 옮겨진 이전 내역까지 함께 조회하도록 감싸고, 로그에는 내역 id 도 남긴다. (async 내역 저장소와는 함께 쓸 수 없다)
+ * - 테이블 저장소는 마지막에 저장된 잔액을 메모리에 들고 조회에 바로 돌려주는 저장소로 감싼다. (point.repository.read-cache.enabled)
+ *   cached / off-heap 은 이미 조회가 테이블을 거치지 않으므로 감싸지 않는다.
+ * - point.repository.aggregation.enabled 이면 내역은 저장할 때마다 유저별/시간 구간별 합계를 갱신하는 저장소로 감싼다.
+ *   집계 조회(GET /point/{id}/histories/summary)는 항상 열려 있으므로 기본으로 켠다. 끄면 조회마다 유저의 내역을 모두 읽는다.
+ * - point.repository.user-point : table(기본, 테이블 직접 접근) | cached(write-behind 캐시) | off-heap(힙 밖 기본형 해시 테이블)
+ * - point.repository.point-history : table(기본, 테이블 직접 접근) | async(큐 적재 후 비동기 저장) | indexed(유저별 색인)
+ */
+@Configuration
+public class PointRepositoryConfig {
+
+    @Bean
+    public UserPointRepository userPointRepository(
+            UserPointTable userPointTable,
+            PointMetrics pointMetrics,
+            ObjectProvider<PointWriteAheadLog> writeAheadLog,
+            @Value("${point.repository.user-point:table}") String mode,
+            @Value("${point.repository.cache.flush-interval-millis:100}") long flushIntervalMillis,
+            @Value("${point.repository.cache.max-pending:1000}") int maxPending,
+            @Value("${point.repository.cache.max-lag-millis:5000}") long maxLagMillis,
+            @Value("${point.repository.cache.flush-parallelism:16}") int flushParallelism,
+            @Value("${point.repository.cache.max-cached:100000}") int maxCached,
+            @Value("${point.repository.off-heap.initial-capacity:65536}") int offHeapInitialCapacity,
+            @Value("${point.repository.off-heap.shard-count:64}") int offHeapShardCount,
+            @Value("${point.repository.read-cache.enabled:true}") boolean readCacheEnabled,
+            @Value("${point.repository.read-cache.max-entries:100000}") int readCacheMaxEntries
+    ) {
+        UserPointRepository userPointRepository = switch (mode) {
+            case "table" -> new UserPointRepositoryImpl(userPointTable);
+            case "cached" -> {
+                CachedUserPointRepository cached = new CachedUserPointRepository(
+                        userPointTable, flushIntervalMillis, maxPending, maxLagMillis, flushParallelism, maxCached);
+                pointMetrics.registerFlushLag(cached::lagMillis);
+                yield cached;
+            }
+            case "off-heap" -> new OffHeapUserPointRepository(userPointTable, offHeapInitialCapacity, offHeapShardCount);
+            default -> throw new IllegalArgumentException("지원하지 않는 user-point 저장소입니다: " + mode);
+        };
+        PointWriteAheadLog wal = writeAheadLog.getIfAvailable();
+        if (wal != null) {
+            userPointRepository = new WalUserPointRepository(userPointRepository, wal);
+        }
+        if (readCacheEnabled && mode.equals("table")) {
+            userPointRepository = new ReadCachedUserPointRepository(userPointRepository, readCacheMaxEntries);
+        }
+        return new TimedUserPointRepository(userPointRepository, pointMetrics);
+    }
+
+    @Bean
+    public PointHistoryRepository pointHistoryRepository(
+            PointHistoryTable pointHistoryTable,
+            PointMetrics pointMetrics,
+            ObjectProvider<PointWriteAheadLog> writeAheadLog,
+            ObjectProvider<PointHistoryArchive> pointHistoryArchive,
+            @Value("${point.repository.point-history:table}") String mode,
+            @Value("${point.repository.async-history.queue-capacity:10000}") int queueCapacity,
+            @Value("${point.repository.async-history.batch-size:256}") int batchSize,
+            @Value("${point.repository.async-history.flush-timeout-millis:30000}") long flushTimeoutMillis,
+            @Value("${point.repository.aggregation.enabled:true}") boolean aggregationEnabled,
+            @Value("${point.repository.aggregation.bucket-millis:3600000}") long bucketMillis,
+            @Value("${point.repository.aggregation.max-buckets-per-user:720}") int maxBucketsPerUser,
+            @Value("${point.repository.aggregation.max-users:10000}") int aggregationMaxUsers
+    ) {
+        PointHistoryRepository pointHistoryRepository = switch (mode) {
+            case "table" -> new PointHistoryRepositoryImpl(pointHistoryTable);
+            case "async" -> {
+                AsyncPointHistoryRepository async = new AsyncPointHistoryRepository(pointHistoryTable, queueCapacity, batchSize, flushTimeoutMillis);
+                pointMetrics.registerHistoryDeadLetters(async::deadLetterCount);
+                yield async;
+            }
+            case "indexed" -> new IndexedPointHistoryRepository(pointHistoryTable);
+            default -> throw new IllegalArgumentException("지원하지 않는 point-history 저장소입니다: " + mode);
+        };
+        PointWriteAheadLog wal = writeAheadLog.getIfAvailable(); // 로그 빈을 만들 때 보관소 복구가 끝난다.
+        PointHistoryArchive archive = pointHistoryArchive.getIfAvailable();
+        if (archive != null) {
+            pointHistoryRepository = new ArchivedPointHistoryRepository(pointHistoryRepository, archive);
+        }
+        // 로그에는 보관소 id 뒤에 이어지도록 민 id 를 남겨야 하므로 보관소 저장소 바깥에서 감싼다.
+        if (wal != null) {
+            if (mode.equals("async")) {
+                throw new IllegalArgumentException("write-ahead log 는 내역 id 를 함께 기록하므로 async 내역 저장소와 함께 쓸 수 없습니다.");
+            }
+            pointHistoryRepository = new WalPointHistoryRepository(pointHistoryRepository, wal);
+        }
+        if (aggregationEnabled) {
+            pointHistoryRepository = new AggregatingPointHistoryRepository(pointHistoryRepository, bucketMillis, maxBucketsPerUser, aggregationMaxUsers);
+        }
+        return new TimedPointHistoryRepository(pointHistoryRepository, pointMetrics);
+    }
+}
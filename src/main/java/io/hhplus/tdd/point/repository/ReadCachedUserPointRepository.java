@@ -0,0 +1,121 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.UserPoint;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 유저별로 마지막에 저장된 잔액을 메모리에 들고 있다가 조회에 바로 돌려주는 UserPointRepository
+ * - 쓰기는 그대로 저장소에 반영(write-through)하고, 반영이 끝난 값으로 캐시를 바꾼다. 저장에 실패하면 캐시도 그대로다.
+ * - 조회는 ConcurrentHashMap 에서 Lock 없이 읽으므로, 같은 유저의 Lock 을 잡은 쓰기가 있어도 기다리지 않는다.
+ * - 같은 유저의 쓰기는 호출하는 쪽(유저별 Lock, 실행기)에서 순서대로 들어온다고 보고 마지막 쓰기를 그대로 남긴다.
+ * - 캐시에는 저장한 적이 있는 유저만 넣는다. 캐시에 없는 유저의 조회는 저장소에서 읽기만 하고 남기지 않는다.
+ * - 유저 수가 maxEntries 를 넘으면 clock 방식으로 최근에 조회/저장되지 않은 유저부터 지운다.
+ *   캐시는 저장된 값의 사본일 뿐이므로, 지운 유저는 다음 조회에서 저장소에서 읽는다.
+ * - CachedUserPointRepository 와 달리 저장소가 원본이며, 캐시는 읽기 전용 사본이다.
+ */
+public class ReadCachedUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final UserPointRepository delegate;
+    private final int maxEntries;
+    private final Map<Long, Entry> committed = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public ReadCachedUserPointRepository(UserPointRepository delegate) {
+        this(delegate, DEFAULT_MAX_ENTRIES);
+    }
+
+    public ReadCachedUserPointRepository(UserPointRepository delegate, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries는 0보다 커야합니다.");
+        }
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+    }
+
+    @Override
+    public UserPoint findById(long id) {
+        Entry cached = committed.get(id);
+        if (cached != null) {
+            cached.referenced = true;
+            return cached.userPoint;
+        }
+        return delegate.findById(id);
+    }
+
+    @Override
+    public UserPoint saveOrUpdate(long id, long amount) {
+        UserPoint userPoint = delegate.saveOrUpdate(id, amount);
+        cache(userPoint);
+        return userPoint;
+    }
+
+    @Override
+    public List<UserPoint> saveAll(List<UserPoint> userPoints) {
+        List<UserPoint> saved = delegate.saveAll(userPoints);
+        saved.forEach(this::cache);
+        return saved;
+    }
+
+    /**
+     * 캐시에 들고 있는 유저 수
+     */
+    public int size() {
+        return committed.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private void cache(UserPoint userPoint) {
+        if (committed.put(userPoint.id(), new Entry(userPoint)) == null && committed.size() > maxEntries) {
+            evict();
+        }
+    }
+
+    /**
+     * 최근에 쓰이지 않은 유저를 maxEntries 의 3/4 까지 지운다. (clock)
+     * - 쓰인 표시가 있는 유저는 표시만 지우고 한 바퀴 더 남겨둔다. 두 바퀴를 돌면 표시와 관계없이 지운다.
+     * - 다른 쓰레드가 정리 중이면 기다리지 않고 넘어간다.
+     */
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            int target = maxEntries - maxEntries / 4;
+            for (int round = 0; round < 2 && committed.size() > target; round++) {
+                Iterator<Entry> iterator = committed.values().iterator();
+                while (committed.size() > target && iterator.hasNext()) {
+                    Entry entry = iterator.next();
+                    if (round == 0 && entry.referenced) {
+                        entry.referenced = false;
+                    } else {
+                        iterator.remove();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static final class Entry {
+        private final UserPoint userPoint;
+        private volatile boolean referenced = true; // 지난 정리 이후 조회/저장되었는지
+
+        private Entry(UserPoint userPoint) {
+            this.userPoint = userPoint;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 메서드별 처리 시간을 point.repository.latency 로 기록하는 PointHistoryRepository
+ * - 구현체가 재정의한 메서드가 그대로 쓰이도록 default 메서드도 모두 위임한다.
+ */
+public class TimedPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private final PointHistoryRepository delegate;
+    private final Timer saveTimer;
+    private final Timer saveAllTimer;
+    private final Timer findAllByIdTimer;
+    private final Timer findPageByIdTimer;
+    private final Timer forEachByIdTimer;
+    private final Timer summarizeByIdTimer;
+
+    public TimedPointHistoryRepository(PointHistoryRepository delegate, PointMetrics pointMetrics) {
+        this.delegate = delegate;
+        this.saveTimer = pointMetrics.repositoryTimer("point-history", "save");
+        this.saveAllTimer = pointMetrics.repositoryTimer("point-history", "saveAll");
+        this.findAllByIdTimer = pointMetrics.repositoryTimer("point-history", "findAllById");
+        this.findPageByIdTimer = pointMetrics.repositoryTimer("point-history", "findPageById");
+        this.forEachByIdTimer = pointMetrics.repositoryTimer("point-history", "forEachById");
+        this.summarizeByIdTimer = pointMetrics.repositoryTimer("point-history", "summarizeById");
+    }
+
+    @Override
+    public PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+        return saveTimer.record(() -> delegate.save(userId, amount, type, updateMillis));
+    }
+
+    @Override
+    public List<PointHistory> saveAll(List<PointHistory> histories) {
+        return saveAllTimer.record(() -> delegate.saveAll(histories));
+    }
+
+    @Override
+    public List<PointHistory> findAllById(long userId) {
+        return findAllByIdTimer.record(() -> delegate.findAllById(userId));
+    }
+
+    @Override
+    public PointHistoryPage findPageById(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        return findPageByIdTimer.record(() -> delegate.findPageById(userId, cursor, limit, order));
+    }
+
+    @Override
+    public void discardUncommitted(long userId) {
+        delegate.discardUncommitted(userId);
+    }
+
+    @Override
+    public void forEachById(long userId, Consumer<PointHistory> action) {
+        forEachByIdTimer.record(() -> delegate.forEachById(userId, action));
+    }
+
+    @Override
+    public PointHistorySummary summarizeById(long userId, Long fromMillis, Long toMillis) {
+        return summarizeByIdTimer.record(() -> delegate.summarizeById(userId, fromMillis, toMillis));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.List;
+
+/**
+ * 메서드별 처리 시간을 point.repository.latency 로 기록하는 UserPointRepository
+ * - 구현체가 재정의한 메서드가 그대로 쓰이도록 default 메서드도 모두 위임한다.
+ */
+public class TimedUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    private final UserPointRepository delegate;
+    private final Timer findByIdTimer;
+    private final Timer saveOrUpdateTimer;
+    private final Timer saveAllTimer;
+
+    public TimedUserPointRepository(UserPointRepository delegate, PointMetrics pointMetrics) {
+        this.delegate = delegate;
+        this.findByIdTimer = pointMetrics.repositoryTimer("user-point", "findById");
+        this.saveOrUpdateTimer = pointMetrics.repositoryTimer("user-point", "saveOrUpdate");
+        this.saveAllTimer = pointMetrics.repositoryTimer("user-point", "saveAll");
+    }
+
+    @Override
+    public UserPoint findById(long id) {
+        return findByIdTimer.record(() -> delegate.findById(id));
+    }
+
+    @Override
+    public UserPoint saveOrUpdate(long id, long amount) {
+        return saveOrUpdateTimer.record(() -> delegate.saveOrUpdate(id, amount));
+    }
+
+    @Override
+    public List<UserPoint> saveAll(List<UserPoint> userPoints) {
+        return saveAllTimer.record(() -> delegate.saveAll(userPoints));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
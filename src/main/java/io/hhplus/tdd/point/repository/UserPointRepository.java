@@ -2,7 +2,22 @@ package io.hhplus.tdd.point.repository;
 
 import io.hhplus.tdd.point.UserPoint;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface UserPointRepository {
     UserPoint findById(long id);
     UserPoint saveOrUpdate(long id, long amount);
+
+    /**
+     * 여러 유저의 잔액을 순서대로 한 번에 저장한다. 넘겨준 updateMillis 는 쓰지 않고 저장하면서 새로 부여한다.
+     * - 기본 구현은 saveOrUpdate 를 차례로 호출한다. 기록 단위를 묶을 수 있는 저장소(write-ahead log 등)는 재정의한다.
+     */
+    default List<UserPoint> saveAll(List<UserPoint> userPoints) {
+        List<UserPoint> saved = new ArrayList<>(userPoints.size());
+        for (UserPoint userPoint : userPoints) {
+            saved.add(saveOrUpdate(userPoint.id(), userPoint.point()));
+        }
+        return saved;
+    }
 }
@@ -3,9 +3,7 @@ package io.hhplus.tdd.point.repository;
 import io.hhplus.tdd.database.UserPointTable;
 import io.hhplus.tdd.point.UserPoint;
 import lombok.RequiredArgsConstructor;
-import org.springframework.stereotype.Repository;
 
-@Repository
 @RequiredArgsConstructor
 public class UserPointRepositoryImpl implements UserPointRepository {
     private final UserPointTable userPointTable;
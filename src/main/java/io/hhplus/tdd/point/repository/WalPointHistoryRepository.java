@@ -0,0 +1,89 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.wal.PointWalRecord;
+import io.hhplus.tdd.point.wal.PointWriteAheadLog;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 내역을 write-ahead log 에 같은 유저의 잔액과 함께 기록하는 PointHistoryRepository
+ * - 내역 레코드는 바로 기록하지 않고 모아두었다가, 이어지는 잔액 저장(WalUserPointRepository) 때 한 번에 기록한다.
+ *   재생 시에는 잔액 레코드까지 기록된 내역만 반영하므로 내역과 잔액이 함께 반영되거나 함께 빠진다.
+ * - 내역 레코드에는 저장소가 부여한 id 를 함께 남긴다. 재기동 후 보관소는 이 id 로 내역을 돌려주므로 커서와 id 가 바뀌지 않는다.
+ *   id 를 저장하면서 바로 받아야 하므로 id 를 나중에 부여하는 저장소(async)는 감쌀 수 없다.
+ * - 저장소에 실패한 내역은 모아두지 않는다. 잔액 저장에 실패한 요청은 discardUncommitted 로 모아둔 내역을 버리므로,
+ *   다음 요청의 잔액과 함께 기록되지 않는다.
+ * - 구현체가 재정의한 메서드가 그대로 쓰이도록 default 메서드도 모두 위임한다.
+ */
+public class WalPointHistoryRepository implements PointHistoryRepository, AutoCloseable {
+
+    private final PointHistoryRepository delegate;
+    private final PointWriteAheadLog writeAheadLog;
+
+    public WalPointHistoryRepository(PointHistoryRepository delegate, PointWriteAheadLog writeAheadLog) {
+        this.delegate = delegate;
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    @Override
+    public PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+        PointHistory saved = delegate.save(userId, amount, type, updateMillis);
+        writeAheadLog.stage(record(saved));
+        return saved;
+    }
+
+    @Override
+    public List<PointHistory> saveAll(List<PointHistory> histories) {
+        List<PointHistory> saved = delegate.saveAll(histories);
+        for (PointHistory pointHistory : saved) {
+            writeAheadLog.stage(record(pointHistory));
+        }
+        return saved;
+    }
+
+    @Override
+    public List<PointHistory> findAllById(long userId) {
+        return delegate.findAllById(userId);
+    }
+
+    @Override
+    public PointHistoryPage findPageById(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        return delegate.findPageById(userId, cursor, limit, order);
+    }
+
+    @Override
+    public void discardUncommitted(long userId) {
+        writeAheadLog.discard(userId);
+        delegate.discardUncommitted(userId);
+    }
+
+    @Override
+    public void forEachById(long userId, Consumer<PointHistory> action) {
+        delegate.forEachById(userId, action);
+    }
+
+    @Override
+    public PointHistorySummary summarizeById(long userId, Long fromMillis, Long toMillis) {
+        return delegate.summarizeById(userId, fromMillis, toMillis);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    private static PointWalRecord record(PointHistory saved) {
+        if (saved.id() <= 0) {
+            throw new IllegalStateException("id 가 부여되지 않은 내역은 write-ahead log 에 기록할 수 없습니다.");
+        }
+        return PointWalRecord.history(saved.id(), saved.userId(), saved.amount(), saved.type(), saved.updateMillis());
+    }
+}
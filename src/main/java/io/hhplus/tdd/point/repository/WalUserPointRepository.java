@@ -0,0 +1,49 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.wal.PointWalRecord;
+import io.hhplus.tdd.point.wal.PointWriteAheadLog;
+
+import java.util.List;
+
+/**
+ * 잔액 저장 전에 write-ahead log 에 먼저 기록하는 UserPointRepository
+ * - 같은 유저의 내역 레코드(WalPointHistoryRepository 가 모아둔 것)와 잔액 레코드를 한 번에 기록한다. (요청당 fsync 한 번)
+ * - saveAll 은 여러 유저의 내역과 잔액을 한 그룹으로 기록하므로, 재생 시 모두 반영되거나 모두 빠진다. (포인트 이동)
+ */
+public class WalUserPointRepository implements UserPointRepository, AutoCloseable {
+
+    private final UserPointRepository delegate;
+    private final PointWriteAheadLog writeAheadLog;
+
+    public WalUserPointRepository(UserPointRepository delegate, PointWriteAheadLog writeAheadLog) {
+        this.delegate = delegate;
+        this.writeAheadLog = writeAheadLog;
+    }
+
+    @Override
+    public UserPoint findById(long id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public UserPoint saveOrUpdate(long id, long amount) {
+        writeAheadLog.commit(PointWalRecord.balance(id, amount));
+        return delegate.saveOrUpdate(id, amount);
+    }
+
+    @Override
+    public List<UserPoint> saveAll(List<UserPoint> userPoints) {
+        writeAheadLog.commitAll(userPoints.stream()
+                .map(userPoint -> PointWalRecord.balance(userPoint.id(), userPoint.point()))
+                .toList());
+        return delegate.saveAll(userPoints);
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
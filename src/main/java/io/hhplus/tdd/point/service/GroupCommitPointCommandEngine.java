@@ -0,0 +1,189 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointTimeoutException;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 유저별 group-commit 실행기
+ * - 같은 유저에게 동시에 들어온 요청을 큐에 모으고, 먼저 도착한 쓰레드(leader)가 한꺼번에 처리한다.
+ * - 한 번 읽어온 UserPoint 에 도착 순서대로 충전/사용을 적용하고, 요청마다 성공/실패를 따로 돌려준다.
+ * - 잔액 저장(saveOrUpdate)은 batch 당 한 번만 수행한다.
+ * - 요청에 기한(PointCommand.deadlineNanos)이 있으면 batch 의 잔액을 읽기 전에 기한이 지난 요청을 버린다.
+ * - leader 는 자기 요청이 끝나면(최대 MAX_BATCHES_PER_LEADER batch) 큐 맨 앞에서 기다리는 쓰레드에게 leader 를 넘긴다.
+ *   요청이 계속 들어와도 한 쓰레드가 남의 요청만 처리하며 붙잡혀 있지 않는다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "point.service.engine", havingValue = "group-commit")
+public class GroupCommitPointCommandEngine implements PointCommandEngine {
+
+    static final int MAX_BATCHES_PER_LEADER = 2;
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final int maxBatchSize;
+    private final Map<Long, CommitGroup> groups = new ConcurrentHashMap<>();
+
+    public GroupCommitPointCommandEngine(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            @Value("${point.service.group-commit.max-batch-size:128}") int maxBatchSize
+    ) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize는 0보다 커야합니다.");
+        }
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public UserPoint execute(PointCommand command) {
+        PendingCommand pending = new PendingCommand(command);
+        // 큐 적재를 compute 안에서 처리해야 비어있는 그룹이 제거되는 시점과 겹치지 않는다.
+        CommitGroup group = groups.compute(command.userId(), (id, existing) -> {
+            CommitGroup target = existing != null ? existing : new CommitGroup();
+            target.queue.add(pending);
+            return target;
+        });
+        // 인터럽트가 걸려 있으면 park 가 바로 돌아오므로, 표시를 지워두고 기다린 뒤 되돌린다.
+        boolean interrupted = false;
+        while (!pending.future.isDone()) {
+            if (group.draining.compareAndSet(false, true)) {
+                lead(command.userId(), group, pending);
+            } else {
+                LockSupport.park(this); // 처리가 끝나거나 leader 를 넘겨받으면 깨어난다.
+                interrupted |= Thread.interrupted();
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return pending.await();
+    }
+
+    private void lead(long userId, CommitGroup group, PendingCommand own) {
+        try {
+            List<PendingCommand> batch = new ArrayList<>(maxBatchSize);
+            for (int i = 0; i < MAX_BATCHES_PER_LEADER && !own.future.isDone(); i++) {
+                PendingCommand pending;
+                while (batch.size() < maxBatchSize && (pending = group.queue.poll()) != null) {
+                    batch.add(pending);
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+                commit(userId, batch);
+                batch.clear();
+            }
+            // 처리할 요청이 없으면 그룹을 정리한다. (leader 권한을 가진 상태에서만 제거)
+            groups.computeIfPresent(userId, (id, current) -> current == group && group.queue.isEmpty() ? null : current);
+        } finally {
+            group.draining.set(false);
+        }
+        // 권한을 내려놓기 전에 들어와서 leader 가 되지 못한 요청이 있으면 큐 맨 앞의 쓰레드를 깨워 leader 를 넘긴다.
+        PendingCommand next = group.queue.peek();
+        if (next != null) {
+            LockSupport.unpark(next.waiter);
+        }
+    }
+
+    private void commit(long userId, List<PendingCommand> batch) {
+        List<PendingCommand> live = new ArrayList<>(batch.size());
+        List<PendingCommand> applied = new ArrayList<>(batch.size());
+        try {
+            // 기다리는 사이 기한이 지난 요청은 잔액을 읽기 전에 버린다.
+            for (PendingCommand pending : batch) {
+                try {
+                    pending.command.checkDeadline();
+                    live.add(pending);
+                } catch (PointTimeoutException e) {
+                    pending.future.completeExceptionally(e);
+                }
+            }
+            if (live.isEmpty()) {
+                return;
+            }
+
+            UserPoint userPoint = userPointRepository.findById(userId);
+            for (PendingCommand pending : live) {
+                try {
+                    userPoint = pending.command.applyTo(userPoint);
+                    pending.result = userPoint;
+                    applied.add(pending);
+                } catch (IllegalArgumentException e) {
+                    log.error("Error applying {} for user {}: {}", pending.command.type(), userId, e.getMessage());
+                    pending.future.completeExceptionally(e);
+                }
+            }
+            if (applied.isEmpty()) {
+                return;
+            }
+
+            for (PendingCommand pending : applied) {
+                pointHistoryRepository.save(userId, pending.command.amount(), pending.command.type(), pending.result.updateMillis());
+            }
+            UserPoint saved = userPointRepository.saveOrUpdate(userId, userPoint.point());
+            log.debug("Group-committed {} commands for user ID: {}", applied.size(), userId);
+
+            for (PendingCommand pending : applied) {
+                // 마지막 요청은 저장된 값을, 중간 요청은 자기 차례의 잔액을 돌려준다.
+                pending.future.complete(new UserPoint(userId, pending.result.point(), saved.updateMillis()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error committing point batch for user {}: {}", userId, e.getMessage());
+            pointHistoryRepository.discardUncommitted(userId);
+            for (PendingCommand pending : live) {
+                pending.future.completeExceptionally(e);
+            }
+        } finally {
+            for (PendingCommand pending : batch) {
+                LockSupport.unpark(pending.waiter);
+            }
+        }
+    }
+
+    private static class CommitGroup {
+        private final Queue<PendingCommand> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+    }
+
+    private static class PendingCommand {
+        private final PointCommand command;
+        private final CompletableFuture<UserPoint> future = new CompletableFuture<>();
+        private final Thread waiter = Thread.currentThread();
+        private UserPoint result;
+
+        private PendingCommand(PointCommand command) {
+            this.command = command;
+        }
+
+        private UserPoint await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
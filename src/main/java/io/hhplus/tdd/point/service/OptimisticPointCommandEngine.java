@@ -0,0 +1,266 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 유저별 낙관적(CAS) 실행기
+ * - 유저마다 버전이 붙은 잔액을 AtomicReference 로 들고, compareAndSet 으로 충전/사용을 반영한다.
+ * - 경합으로 CAS 가 실패하면 maxRetries 번까지 지수 backoff 후 재시도한다.
+ * - 재시도를 다 쓰면 유저별 Lock 대기열로 넘어가며, 대기열이 있는 동안에는 새 요청도 바로 대기열로 보낸다.
+ * - 요청에 기한(PointCommand.deadlineNanos)이 있으면 잔액을 읽기 전과 대기열에서 Lock 을 얻은 뒤에 확인해서, 지났으면 버린다.
+ * - 저장은 유저별 persistLock 을 잡은 쓰레드가 아직 저장되지 않은 변경을 버전 순서대로 모아서 한다.
+ *   내역은 버전 순서대로 저장하고, 잔액은 마지막 버전으로 한 번만 저장한다. 기다리는 쓰레드는 Lock 에서 대기한다.
+ *   즉 Lock 없이 처리되는 것은 잔액 계산과 검증(CAS)까지이고, 테이블 저장은 유저별로 한 쓰레드씩 한다.
+ *   테이블은 쓰기 순서를 보장하지 않으므로 저장까지 CAS 로 하면 늦게 저장된 이전 잔액이 최신 잔액을 덮어쓸 수 있다.
+ *   대신 Lock 을 잡은 쓰레드가 기다리던 변경을 한 번에 저장하므로, 경합이 심할수록 요청당 잔액 저장 횟수는 줄어든다.
+ * - 저장에 실패하면 실패한 변경과 그 뒤에 CAS 된 변경(실패한 잔액을 기준으로 검증되었다)을 모두 실패로 돌려주고,
+ *   메모리 잔액은 마지막으로 저장된 값으로 되돌린다.
+ * - 잔액 저장이 실패하면 그 앞에 저장한 내역은 테이블에 남는다. (테이블은 삭제를 제공하지 않는다)
+ *   잔액과 맞지 않는 내역이 조회될 수 있으며, write-ahead log 를 켜면 로그에는 남기지 않아 재기동 후에는 사라진다.
+ * - 유저 상태는 처리 중인 요청 수(참조 수)가 0 이 되면 제거한다. 이때는 모든 변경이 저장(또는 실패 처리)된 상태이므로,
+ *   다음 요청은 저장소에서 다시 읽는다. (UserLockManager 와 같은 방식)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "point.service.engine", havingValue = "optimistic")
+public class OptimisticPointCommandEngine implements PointCommandEngine {
+
+    private static final long MIN_BACKOFF_NANOS = 1_000L;
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final UserLockManager userLockManager;
+    private final int maxRetries;
+    private final long maxBackoffNanos;
+    private final Map<Long, UserState> states = new ConcurrentHashMap<>();
+
+    public OptimisticPointCommandEngine(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            UserLockManager userLockManager,
+            @Value("${point.service.optimistic.max-retries:8}") int maxRetries,
+            @Value("${point.service.optimistic.max-backoff-micros:100}") long maxBackoffMicros
+    ) {
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries는 0 이상이어야 합니다.");
+        }
+        if (maxBackoffMicros <= 0) {
+            throw new IllegalArgumentException("maxBackoffMicros는 0보다 커야합니다.");
+        }
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.userLockManager = userLockManager;
+        this.maxRetries = maxRetries;
+        this.maxBackoffNanos = maxBackoffMicros * 1_000L;
+    }
+
+    @Override
+    public UserPoint execute(PointCommand command) {
+        command.checkDeadline();
+        UserState state = retain(command.userId());
+        try {
+            load(command.userId(), state);
+            if (state.queued.get() == 0) {
+                for (int attempt = 0; attempt <= maxRetries; attempt++) {
+                    VersionedPoint applied = tryApply(state, command);
+                    if (applied != null) {
+                        return persist(command.userId(), state, applied);
+                    }
+                    backoff(attempt);
+                }
+            }
+            return executeQueued(command, state);
+        } finally {
+            release(command.userId());
+        }
+    }
+
+    /**
+     * 현재 보관 중인 유저 상태 수
+     */
+    public int size() {
+        return states.size();
+    }
+
+    /**
+     * 경합이 심한 경우 유저별 Lock 대기열에서 차례대로 CAS 를 시도한다.
+     */
+    private UserPoint executeQueued(PointCommand command, UserState state) {
+        state.queued.incrementAndGet();
+        try (UserLockManager.UserLock ignored = userLockManager.lock(command.userId())) {
+            log.debug("Falling back to queued update for user ID: {}", command.userId());
+            command.checkDeadline(); // 대기열에서 기다리는 사이 기한이 지났으면 반영하지 않고 버린다.
+            while (true) {
+                VersionedPoint applied = tryApply(state, command);
+                if (applied != null) {
+                    return persist(command.userId(), state, applied);
+                }
+                Thread.onSpinWait();
+            }
+        } finally {
+            state.queued.decrementAndGet();
+        }
+    }
+
+    // 정책 위반(IllegalArgumentException)은 재시도하지 않고 그대로 던진다. CAS 실패 시 null
+    private VersionedPoint tryApply(UserState state, PointCommand command) {
+        VersionedPoint current = state.current.get();
+        VersionedPoint next = new VersionedPoint(command.applyTo(current.userPoint), current.version + 1, command, current);
+        return state.current.compareAndSet(current, next) ? next : null;
+    }
+
+    /**
+     * 자기 버전이 저장(또는 실패 처리)될 때까지 기다린다.
+     * - persistLock 을 얻었을 때 아직 저장되지 않았으면, 그 시점까지 CAS 된 변경을 모두 버전 순서대로 저장한다.
+     * - 반환 시점에는 자신의 변경이 저장소에 반영되어 있으므로 이후 조회에서 바로 보인다.
+     */
+    private UserPoint persist(long userId, UserState state, VersionedPoint applied) {
+        state.persistLock.lock();
+        try {
+            if (applied.version > state.persisted.version && applied.failure == null) {
+                persistPending(userId, state);
+            }
+            if (applied.failure != null) {
+                throw applied.failure;
+            }
+            return applied.userPoint;
+        } finally {
+            state.persistLock.unlock();
+        }
+    }
+
+    // persistLock 을 잡은 상태에서 호출한다.
+    private void persistPending(long userId, UserState state) {
+        VersionedPoint latest = state.current.get();
+        Deque<VersionedPoint> pending = new ArrayDeque<>();
+        for (VersionedPoint node = latest; node.version > state.persisted.version; node = node.previous) {
+            pending.addFirst(node);
+        }
+
+        VersionedPoint lastHistory = null;
+        RuntimeException failure = null;
+        for (VersionedPoint node : pending) {
+            try {
+                pointHistoryRepository.save(userId, node.command.amount(), node.command.type(), node.userPoint.updateMillis());
+                lastHistory = node;
+            } catch (RuntimeException e) {
+                failure = e;
+                break;
+            }
+        }
+        if (lastHistory != null) {
+            try {
+                userPointRepository.saveOrUpdate(userId, lastHistory.userPoint.point());
+                state.persisted = lastHistory;
+                lastHistory.previous = null; // 저장된 버전 이전은 더 이상 따라가지 않는다.
+            } catch (RuntimeException e) {
+                pointHistoryRepository.discardUncommitted(userId);
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            log.error("Error persisting points for user {}: {}", userId, failure.getMessage());
+            rollback(state, failure);
+        }
+    }
+
+    /**
+     * 저장되지 않은 변경을 모두 실패로 표시하고, 메모리 잔액을 마지막으로 저장된 값으로 되돌린다.
+     * - 표시하는 사이에 CAS 된 변경이 있으면 다시 표시한다. (되돌린 뒤의 CAS 는 저장된 잔액을 기준으로 검증된다)
+     */
+    private void rollback(UserState state, RuntimeException failure) {
+        long persistedVersion = state.persisted.version;
+        long marked = persistedVersion;
+        while (true) {
+            VersionedPoint latest = state.current.get();
+            for (VersionedPoint node = latest; node.version > marked; node = node.previous) {
+                node.failure = failure;
+            }
+            marked = latest.version;
+            VersionedPoint restored = new VersionedPoint(state.persisted.userPoint, latest.version + 1, null, null);
+            if (state.current.compareAndSet(latest, restored)) {
+                state.persisted = restored;
+                return;
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        if (attempt >= maxRetries) {
+            return;
+        }
+        long nanos = Math.min(MIN_BACKOFF_NANOS << Math.min(attempt, 20), maxBackoffNanos);
+        LockSupport.parkNanos(nanos);
+    }
+
+    // 참조 수 증감을 compute 안에서 처리해야 제거 직후 다른 쓰레드가 새 상태를 만드는 경우와 겹치지 않는다.
+    private UserState retain(long userId) {
+        return states.compute(userId, (id, existing) -> {
+            UserState state = existing != null ? existing : new UserState();
+            state.references++;
+            return state;
+        });
+    }
+
+    private void release(long userId) {
+        states.computeIfPresent(userId, (id, state) -> --state.references == 0 ? null : state);
+    }
+
+    // 저장소 조회는 compute 밖에서 한 번만 수행한다.
+    private void load(long userId, UserState state) {
+        if (state.current.get() != null) {
+            return;
+        }
+        state.persistLock.lock();
+        try {
+            if (state.current.get() == null) {
+                VersionedPoint loaded = new VersionedPoint(userPointRepository.findById(userId), 0L, null, null);
+                state.persisted = loaded;
+                state.current.set(loaded);
+            }
+        } finally {
+            state.persistLock.unlock();
+        }
+    }
+
+    /**
+     * CAS 로 반영된 버전 하나. 저장되기 전까지는 이전 버전을 따라가 저장할 변경을 모은다.
+     */
+    private static final class VersionedPoint {
+        private final UserPoint userPoint;
+        private final long version;
+        private final PointCommand command; // 이 버전을 만든 요청 (불러오거나 되돌린 버전은 null)
+        private VersionedPoint previous; // persistLock 안에서만 읽고 바꾼다.
+        private RuntimeException failure; // persistLock 안에서만 읽고 바꾼다.
+
+        private VersionedPoint(UserPoint userPoint, long version, PointCommand command, VersionedPoint previous) {
+            this.userPoint = userPoint;
+            this.version = version;
+            this.command = command;
+            this.previous = previous;
+        }
+    }
+
+    private static final class UserState {
+        private final AtomicReference<VersionedPoint> current = new AtomicReference<>();
+        private final ReentrantLock persistLock = new ReentrantLock();
+        private final AtomicInteger queued = new AtomicInteger();
+        private VersionedPoint persisted; // 저장소에 반영된 마지막 버전 (persistLock 으로 보호)
+        private int references; // states.compute 안에서만 변경한다.
+    }
+}
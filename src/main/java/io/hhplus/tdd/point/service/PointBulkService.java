@@ -0,0 +1,109 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointBulkItem;
+import io.hhplus.tdd.point.PointBulkResult;
+import io.hhplus.tdd.point.UserPoint;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 여러 유저의 충전/사용 요청을 한 번에 처리한다.
+ * - 항목을 유저별로 묶고, 유저 단위 작업을 병렬로 실행한다.
+ * - 같은 유저의 항목은 하나의 작업 안에서 요청 순서대로 처리한다.
+ * - 항목마다 성공/실패 결과를 따로 돌려주며, 한 항목의 실패가 다른 항목에 영향을 주지 않는다.
+ * - 가상 쓰레드를 사용하면 유저 단위 작업마다 가상 쓰레드를 하나씩 띄운다.
+ */
+@Slf4j
+@Service
+public class PointBulkService {
+
+    public static final int MAX_BULK_SIZE = 10_000;
+
+    private final PointService pointService;
+    private final ExecutorService executorService;
+
+    @Autowired
+    public PointBulkService(
+            PointService pointService,
+            @Value("${point.bulk.parallelism:0}") int parallelism,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+    ) {
+        this(pointService, virtualThreads
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("point-bulk-", 1).factory())
+                : newWorkerPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors()));
+    }
+
+    PointBulkService(PointService pointService, ExecutorService executorService) {
+        this.pointService = pointService;
+        this.executorService = executorService;
+    }
+
+    public List<PointBulkResult> process(List<PointBulkItem> items) {
+        if (items == null || items.isEmpty() || items.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException(String.format("일괄 처리 항목은 1개 이상 %d개 이하여야 합니다.", MAX_BULK_SIZE));
+        }
+
+        // 유저별로 요청 순서를 유지한 채 항목 위치를 모은다.
+        Map<Long, List<Integer>> indexesByUser = new LinkedHashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            indexesByUser.computeIfAbsent(items.get(i).userId(), userId -> new ArrayList<>()).add(i);
+        }
+
+        PointBulkResult[] results = new PointBulkResult[items.size()];
+        CompletableFuture<?>[] tasks = indexesByUser.values().stream()
+                .map(indexes -> CompletableFuture.runAsync(() -> {
+                    for (int index : indexes) {
+                        results[index] = processItem(index, items.get(index));
+                    }
+                }, executorService))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(tasks).join();
+        return Arrays.asList(results);
+    }
+
+    private PointBulkResult processItem(int index, PointBulkItem item) {
+        try {
+            if (item.type() == null) {
+                throw new IllegalArgumentException("거래 종류(type)가 없습니다.");
+            }
+            UserPoint userPoint = switch (item.type()) {
+                case CHARGE -> pointService.chargeUserPoint(item.userId(), item.amount());
+                case USE -> pointService.useUserPoint(item.userId(), item.amount());
+                case EXPIRE -> throw new IllegalArgumentException("포인트 만료는 요청할 수 없습니다.");
+            };
+            return PointBulkResult.success(index, userPoint);
+        } catch (IllegalArgumentException e) {
+            return PointBulkResult.failure(index, item.userId(), e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Error processing bulk item {} for user {}: {}", index, item.userId(), e.getMessage());
+            return PointBulkResult.failure(index, item.userId(), "에러가 발생했습니다.");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executorService.shutdown();
+    }
+
+    private static ExecutorService newWorkerPool(int parallelism) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "point-bulk-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointTimeoutException;
+import io.hhplus.tdd.point.PointTimeoutReason;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 유저 포인트 충전/사용 요청 한 건
+ * - deadlineNanos 는 System.nanoTime() 기준 처리 기한이다. NO_DEADLINE 이면 기한 없이 처리한다.
+ *   실행기(PointCommandEngine)는 유저 잔액을 읽기 전에 기한이 지난 요청을 버린다.
+ */
+public record PointCommand(
+        long userId,
+        TransactionType type,
+        long amount,
+        long deadlineNanos
+) {
+    public static final long NO_DEADLINE = Long.MIN_VALUE;
+
+    public PointCommand(long userId, TransactionType type, long amount) {
+        this(userId, type, amount, NO_DEADLINE);
+    }
+
+    public static PointCommand charge(long userId, long amount) {
+        return new PointCommand(userId, TransactionType.CHARGE, amount);
+    }
+
+    public static PointCommand use(long userId, long amount) {
+        return new PointCommand(userId, TransactionType.USE, amount);
+    }
+
+    public PointCommand withDeadline(long deadlineNanos) {
+        return new PointCommand(userId, type, amount, deadlineNanos);
+    }
+
+    /**
+     * 기한을 빼고 같은 요청인지 비교한다. (같은 idempotencyKey 로 다시 보낸 요청은 기한이 다르다)
+     */
+    public boolean isSameRequest(PointCommand other) {
+        return userId == other.userId && type == other.type && amount == other.amount;
+    }
+
+    // 기한이 지났으면 PointTimeoutException(DEADLINE_EXPIRED) 이 발생한다. 잔액과 내역에 접근하기 전에 호출한다.
+    public void checkDeadline() {
+        if (deadlineNanos != NO_DEADLINE && System.nanoTime() - deadlineNanos >= 0) {
+            throw new PointTimeoutException(PointTimeoutReason.DEADLINE_EXPIRED,
+                    "요청 처리 기한이 지났습니다. 다시 시도해주세요.");
+        }
+    }
+
+    // 정책 검증은 UserPoint 에 위임하며, 위반 시 IllegalArgumentException 이 발생한다.
+    public UserPoint applyTo(UserPoint userPoint) {
+        return switch (type) {
+            case CHARGE -> userPoint.charge(amount);
+            case USE -> userPoint.use(amount);
+            case EXPIRE -> throw new IllegalArgumentException("포인트 만료는 요청할 수 없습니다.");
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.UserPoint;
+
+/**
+ * 충전/사용 요청을 유저 단위로 직렬화해서 처리하는 실행 방식
+ * - 등록된 구현체가 없으면 PointService 는 UserLockManager 의 유저별 Lock 으로 처리한다.
+ * - point.service.engine 설정으로 구현체를 선택한다.
+ */
+public interface PointCommandEngine {
+    UserPoint execute(PointCommand command);
+}
@@ -0,0 +1,75 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointThrottleReason;
+import io.hhplus.tdd.point.PointThrottledException;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시에 처리 중인 쓰기 요청 수 제한
+ * - 한도에 차면 기다리지 않고 바로 거절해서, 유저 Lock 대기열에 요청 쓰레드가 쌓이지 않게 한다.
+ * - 처리 중인 수는 AtomicInteger 하나로 세고 CAS 로만 늘린다.
+ */
+@Component
+public class PointConcurrencyLimiter {
+
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private PointMetrics pointMetrics = PointMetrics.noop();
+
+    public PointConcurrencyLimiter(@Value("${point.admission.max-concurrent:0}") int maxConcurrent) {
+        if (maxConcurrent < 0) {
+            throw new IllegalArgumentException("maxConcurrent는 0 이상이어야 합니다.");
+        }
+        this.maxConcurrent = maxConcurrent > 0 ? maxConcurrent : Integer.MAX_VALUE; // 0 이면 제한 없음
+    }
+
+    @Autowired(required = false)
+    public void setPointMetrics(PointMetrics pointMetrics) {
+        this.pointMetrics = pointMetrics;
+    }
+
+    /**
+     * 처리 자리를 하나 얻는다. 반환된 Permit 을 close 하면 반납된다.
+     */
+    public Permit acquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                pointMetrics.recordThrottled(PointThrottleReason.CONCURRENCY_LIMIT);
+                throw new PointThrottledException(PointThrottleReason.CONCURRENCY_LIMIT, 1L,
+                        "처리 중인 요청이 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit();
+            }
+        }
+    }
+
+    /**
+     * 현재 처리 중인 요청 수
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public final class Permit implements AutoCloseable {
+        private boolean released;
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+        }
+    }
+}
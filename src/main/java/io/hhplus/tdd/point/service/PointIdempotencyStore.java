@@ -0,0 +1,156 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key 별 충전/사용 결과 보관소
+ * - 같은 유저, 같은 키로 다시 들어온 요청은 처음 요청의 결과(UserPoint)를 그대로 돌려준다. (Lock, 테이블 접근 없음)
+ * - 처음 요청이 아직 처리 중이면 그 결과를 기다린다. 실패한 요청은 바로 지워서 같은 키로 다시 시도할 수 있다.
+ * - 같은 키로 다른 요청(종류, 금액)이 들어오면 IllegalArgumentException 이 발생한다.
+ * - 결과는 ttl 동안만 보관하며, 보관 수가 maxEntries 를 넘으면 오래된 것부터 지운다.
+ *   TTL 이 모두 같으므로 들어온 순서가 곧 만료 순서이고, 큐 앞에서부터 지우면 되므로 정리 비용은 요청당 O(1) 이다.
+ * - 실패하거나 만료되어 먼저 지운 항목은 큐에 남지만 보관 수에서는 바로 빼고, 큐 앞에 오면 그냥 버린다.
+ */
+@Component
+public class PointIdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+    static final long DEFAULT_TTL_MILLIS = 10 * 60 * 1000L;
+    static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>(); // 들어온 순서 (지워진 항목이 남아있을 수 있다)
+    private final AtomicInteger queued = new AtomicInteger(); // 큐에 든 항목 중 아직 지워지지 않은 항목 수
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    public PointIdempotencyStore(
+            @Value("${point.idempotency.ttl-millis:600000}") long ttlMillis,
+            @Value("${point.idempotency.max-entries:100000}") int maxEntries
+    ) {
+        if (ttlMillis <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("ttlMillis, maxEntries는 0보다 커야합니다.");
+        }
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 처음 보는 키면 action 을 실행하고 결과를 보관한다. 이미 본 키면 보관된 결과를 돌려준다.
+     */
+    public UserPoint execute(String idempotencyKey, PointCommand command, Supplier<UserPoint> action) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(String.format("Idempotency-Key는 1자 이상 %d자 이하여야 합니다.", MAX_KEY_LENGTH));
+        }
+        Key key = new Key(command.userId(), idempotencyKey);
+        long now = System.nanoTime();
+        Entry created = new Entry(key, command, now + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null) {
+                break;
+            }
+            if (!existing.isExpired(now)) {
+                return replay(existing, command);
+            }
+            if (entries.remove(key, existing)) {
+                release(existing);
+            }
+        }
+        order.offer(created);
+        queued.incrementAndGet();
+        evict(now);
+
+        try {
+            UserPoint userPoint = action.get();
+            created.result.complete(userPoint);
+            return userPoint;
+        } catch (RuntimeException | Error e) {
+            entries.remove(key, created);
+            release(created);
+            created.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 보관 중인 결과 수
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private UserPoint replay(Entry existing, PointCommand command) {
+        if (!existing.command.isSameRequest(command)) {
+            throw new IllegalArgumentException("같은 Idempotency-Key로 다른 요청을 보낼 수 없습니다.");
+        }
+        try {
+            return existing.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    // 다른 쓰레드가 정리 중이면 건너뛴다. (그 쓰레드가 앞에서부터 함께 지운다)
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            Entry head;
+            while ((head = order.peek()) != null && (head.released.get() || head.isExpired(now) || queued.get() > maxEntries)) {
+                order.poll();
+                release(head);
+                entries.remove(head.key, head);
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    // 항목마다 한 번만 보관 수에서 뺀다. (실패, 만료 교체, 정리 중 먼저 지운 쪽)
+    private void release(Entry entry) {
+        if (entry.released.compareAndSet(false, true)) {
+            queued.decrementAndGet();
+        }
+    }
+
+    private record Key(long userId, String idempotencyKey) {
+    }
+
+    private static final class Entry {
+        private final Key key;
+        private final PointCommand command;
+        private final long expiresAtNanos;
+        private final CompletableFuture<UserPoint> result = new CompletableFuture<>();
+        private final AtomicBoolean released = new AtomicBoolean(); // 보관 수에서 뺐는지
+
+        private Entry(Key key, PointCommand command, long expiresAtNanos) {
+            this.key = key;
+            this.command = command;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointThrottleReason;
+import io.hhplus.tdd.point.PointThrottledException;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 유저별 충전/사용 요청 수 제한 (token bucket)
+ * - 초당 permitsPerSecond 개씩 토큰이 차고, 최대 burst 개까지 모아둘 수 있다.
+ * - 유저마다 토큰 수 대신 "버킷이 다시 가득 차는 시각" 하나만 저장한다. 요청마다 그 시각을 토큰 하나만큼 뒤로 미루고,
+ *   지금보다 burst 개 이상 앞서게 되면 거절한다. (GCRA) 상태가 long 하나라서 Lock 없이 CAS 로 갱신한다.
+ * - 가득 찬 버킷은 처음 보는 유저와 같으므로, 유저 수가 maxUsers 에 차면 가득 찬 버킷부터 지운다.
+ */
+@Component
+public class PointRateLimiter {
+
+    private final long intervalNanos; // 토큰 하나가 차는 시간 (0 이면 제한 없음)
+    private final long burstNanos; // 버킷이 비어있다가 가득 차기까지 걸리는 시간
+    private final int maxUsers;
+    private final Map<Long, AtomicLong> buckets = new ConcurrentHashMap<>(); // 유저 -> 버킷이 가득 차는 시각(nanoTime)
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private PointMetrics pointMetrics = PointMetrics.noop();
+
+    public PointRateLimiter(
+            @Value("${point.admission.rate-limit.permits-per-second:0}") long permitsPerSecond,
+            @Value("${point.admission.rate-limit.burst:1}") int burst,
+            @Value("${point.admission.rate-limit.max-users:100000}") int maxUsers
+    ) {
+        if (permitsPerSecond < 0 || burst <= 0 || maxUsers <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond는 0 이상, burst와 maxUsers는 0보다 커야합니다.");
+        }
+        this.intervalNanos = permitsPerSecond > 0 ? Math.max(1L, TimeUnit.SECONDS.toNanos(1) / permitsPerSecond) : 0L;
+        this.burstNanos = intervalNanos * burst;
+        this.maxUsers = maxUsers;
+    }
+
+    @Autowired(required = false)
+    public void setPointMetrics(PointMetrics pointMetrics) {
+        this.pointMetrics = pointMetrics;
+    }
+
+    /**
+     * 유저의 토큰을 하나 꺼낸다. 남은 토큰이 없으면 기다리지 않고 PointThrottledException 을 던진다.
+     */
+    public void acquire(long userId) {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(userId);
+        if (bucket == null) {
+            if (buckets.size() >= maxUsers) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(userId, id -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + intervalNanos;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                pointMetrics.recordThrottled(PointThrottleReason.USER_RATE_LIMIT);
+                throw new PointThrottledException(PointThrottleReason.USER_RATE_LIMIT,
+                        TimeUnit.NANOSECONDS.toSeconds(excess - 1) + 1, // 다음 토큰이 찰 때까지 (올림)
+                        "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 현재 보관 중인 버킷 수
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * 가득 찬 버킷을 모두 지우고, 그래도 많으면 maxUsers 의 3/4 까지 줄인다.
+     * - 한 번에 여유를 만들어두므로 정리는 새 유저 maxUsers/4 명마다 한 번꼴로만 일어난다.
+     * - 가득 차지 않은 버킷을 지우면 그 유저는 새 버킷으로 다시 시작한다. (메모리 한도를 정확도보다 우선한다)
+     * - 다른 쓰레드가 정리 중이면 기다리지 않고 넘어간다.
+     */
+    private void evict(long now) {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            buckets.entrySet().removeIf(entry -> entry.getValue().get() - now <= 0);
+            int target = maxUsers - maxUsers / 4;
+            Iterator<AtomicLong> iterator = buckets.values().iterator();
+            while (buckets.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
@@ -1,72 +1,293 @@
 package io.hhplus.tdd.point.service;
 
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryExportQuery;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.PointTimeoutException;
+import io.hhplus.tdd.point.PointTimeoutReason;
+import io.hhplus.tdd.point.PointTransferResult;
+import io.hhplus.tdd.point.PointUnsupportedException;
 import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.expiration.PointLotStore;
+import io.hhplus.tdd.point.metrics.PointMetrics;
 import io.hhplus.tdd.point.repository.PointHistoryRepository;
 import io.hhplus.tdd.point.repository.UserPointRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PointService {
 
+    public static final int MAX_HISTORY_PAGE_SIZE = 1_000;
+
     private final UserPointRepository userPointRepository;
     private final PointHistoryRepository pointHistoryRepository;
-    private final Map<Long, Lock> userLocks = new ConcurrentHashMap<>();
+    private UserLockManager userLockManager = new UserLockManager();
+    private PointCommandEngine commandEngine; // 설정된 경우 유저별 Lock 대신 사용
+    private PointMetrics pointMetrics = PointMetrics.noop();
+    private PointIdempotencyStore idempotencyStore = new PointIdempotencyStore(
+            PointIdempotencyStore.DEFAULT_TTL_MILLIS, PointIdempotencyStore.DEFAULT_MAX_ENTRIES);
+    private long requestTimeoutNanos; // 0 이면 기한 없이 Lock 을 기다린다.
+    private PointLotStore pointLotStore; // 설정된 경우 충전한 포인트를 유효기간이 있는 lot 으로 관리한다.
+
+    @Autowired(required = false)
+    public void setUserLockManager(UserLockManager userLockManager) {
+        this.userLockManager = userLockManager;
+    }
+
+    @Autowired(required = false)
+    public void setCommandEngine(PointCommandEngine commandEngine) {
+        this.commandEngine = commandEngine;
+    }
+
+    @Autowired(required = false)
+    public void setPointMetrics(PointMetrics pointMetrics) {
+        this.pointMetrics = pointMetrics;
+    }
+
+    @Autowired(required = false)
+    public void setIdempotencyStore(PointIdempotencyStore idempotencyStore) {
+        this.idempotencyStore = idempotencyStore;
+    }
+
+    @Autowired(required = false)
+    public void setPointLotStore(PointLotStore pointLotStore) {
+        this.pointLotStore = pointLotStore;
+    }
+
+    /**
+     * 충전/사용 요청은 들어온 시점부터 requestTimeoutMillis 안에 테이블 접근을 시작하지 못하면 버린다.
+     * - 실행기(point.service.engine)를 쓰면 기한을 PointCommand 에 담아 넘기고, 실행기가 잔액을 읽기 전에 버린다.
+     */
+    @Value("${point.service.request-timeout-millis:0}")
+    public void setRequestTimeoutMillis(long requestTimeoutMillis) {
+        if (requestTimeoutMillis < 0) {
+            throw new IllegalArgumentException("requestTimeoutMillis는 0 이상이어야 합니다.");
+        }
+        this.requestTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(requestTimeoutMillis);
+    }
 
     public UserPoint chargeUserPoint(long userId, long amount) {
-        // 사용자별 Lock 가져오기 (없으면 생성)
-        Lock lock = userLocks.computeIfAbsent(userId, id -> new ReentrantLock(true));
+        return execute(PointCommand.charge(userId, amount));
+    }
+
+    public UserPoint useUserPoint(long userId, long amount) {
+        return execute(PointCommand.use(userId, amount));
+    }
 
-        // 다른 쓰레드가 접근 못하도록 제어
-        log.info("Attempting to acquire lock for user ID: {}", userId);
-        lock.lock();
-        log.info("Lock acquired for user ID: {}", userId);
+    /**
+     * 같은 idempotencyKey 로 다시 요청하면 충전하지 않고 처음 결과를 돌려준다.
+     */
+    public UserPoint chargeUserPoint(long userId, long amount, String idempotencyKey) {
+        return execute(PointCommand.charge(userId, amount), idempotencyKey, System.nanoTime());
+    }
+
+    /**
+     * 같은 idempotencyKey 로 다시 요청하면 사용하지 않고 처음 결과를 돌려준다.
+     */
+    public UserPoint useUserPoint(long userId, long amount, String idempotencyKey) {
+        return execute(PointCommand.use(userId, amount), idempotencyKey, System.nanoTime());
+    }
+
+    /**
+     * 요청이 들어온 시각(receivedNanos)부터 기한을 계산해서 실행한다. idempotencyKey 가 null 이 아니면 같은 키의 처음 결과를 돌려준다.
+     * - 앞단의 대기열을 거쳐 들어오는 요청(ReactivePointService)은 그 대기열에서 기다린 시간도 기한에 포함된다.
+     */
+    UserPoint execute(PointCommand command, String idempotencyKey, long receivedNanos) {
+        if (idempotencyKey == null) {
+            return execute(command, receivedNanos);
+        }
+        return idempotencyStore.execute(idempotencyKey, command, () -> execute(command, receivedNanos));
+    }
+
+    private UserPoint execute(PointCommand command) {
+        return execute(command, System.nanoTime());
+    }
+
+    private UserPoint execute(PointCommand command, long receivedNanos) {
+        long deadline = receivedNanos + requestTimeoutNanos;
         try {
-            // 실제 비즈니스 로직
-            UserPoint userPoint = userPointRepository.findById(userId);
-            UserPoint updatedUserPoint = userPoint.charge(amount);
-            pointHistoryRepository.save(userId, amount, TransactionType.CHARGE, System.currentTimeMillis());
-            return userPointRepository.saveOrUpdate(userId, updatedUserPoint.point());
+            if (commandEngine != null) {
+                return commandEngine.execute(requestTimeoutNanos > 0 ? command.withDeadline(deadline) : command);
+            }
+            return executeWithLock(command, deadline);
         } catch (IllegalArgumentException e) {
-            log.error("Error charging user points for user {}: {}", userId, e.getMessage());
+            pointMetrics.recordRejected(command.type(), e);
             throw e; // 예외를 다시 던진다.
-        } finally {
-            lock.unlock();
-            log.info("Lock released for user ID: {}", userId);
+        } catch (PointTimeoutException e) {
+            pointMetrics.recordDropped(command.type(), e.reason());
+            throw e;
         }
     }
 
-    public UserPoint useUserPoint(long userId, long amount) {
-        // 사용자별 Lock 가져오기 (없으면 생성)
-        Lock lock = userLocks.computeIfAbsent(userId, id -> new ReentrantLock(true));
-
-        // 다른 쓰레드가 접근 못하도록 제어
-        log.info("Attempting to acquire lock for user ID: {}", userId);
-        lock.lock();
-        log.info("Lock acquired for user ID: {}", userId);
+    private UserPoint executeWithLock(PointCommand command, long deadline) {
+        long userId = command.userId();
+        // 다른 쓰레드가 접근 못하도록 제어 (사용자별 Lock 은 처리 중인 동안에만 유지된다)
+        log.debug("Attempting to acquire lock for user ID: {}", userId);
+        long waitStart = System.nanoTime();
+        UserLockManager.UserLock lock = lockUser(userId, deadline);
+        long acquiredAt = System.nanoTime();
+        pointMetrics.recordLockWait(command.type(), acquiredAt - waitStart);
+        log.debug("Lock acquired for user ID: {}", userId);
         try {
+            checkDeadline(deadline);
             // 실제 비즈니스 로직
             UserPoint userPoint = userPointRepository.findById(userId);
-            UserPoint updatedUserpoint = userPoint.use(amount);
-            pointHistoryRepository.save(userId, amount, TransactionType.USE, System.currentTimeMillis());
-            return userPointRepository.saveOrUpdate(userId, updatedUserpoint.point());
+            UserPoint updatedUserPoint = command.applyTo(userPoint);
+            PointLotStore.UserLots lots = lotsOf(userId); // 내역을 저장하기 전에 채워야 이번 내역이 두 번 반영되지 않는다.
+            long updateMillis = System.currentTimeMillis();
+            pointHistoryRepository.save(userId, command.amount(), command.type(), updateMillis);
+            UserPoint savedUserPoint = saveOrDiscard(userId, updatedUserPoint.point());
+            if (lots != null) {
+                switch (command.type()) {
+                    case CHARGE -> lots.charge(command.amount(), updateMillis);
+                    case USE -> lots.use(command.amount());
+                    case EXPIRE -> throw new IllegalStateException("만료는 expireUserPoint 로만 처리합니다.");
+                }
+            }
+            return savedUserPoint;
         } catch (IllegalArgumentException e) {
-            log.error("Error using user points for user {}: {}", userId, e.getMessage());
-            throw e; // 예외를 다시 던진다.
+            log.error("Error applying {} for user {}: {}", command.type(), userId, e.getMessage());
+            throw e;
         } finally {
-            lock.unlock();
-            log.info("Lock released for user ID: {}", userId);
+            lock.close();
+            pointMetrics.recordLockHold(command.type(), System.nanoTime() - acquiredAt);
+            log.debug("Lock released for user ID: {}", userId);
+        }
+    }
+
+    /**
+     * fromUserId 의 포인트를 toUserId 로 옮긴다. 두 유저 모두 검증을 통과해야만 반영된다.
+     * - 두 유저의 Lock 을 항상 userId 가 작은 쪽부터 잡으므로, 서로 반대 방향의 이동이 겹쳐도 교착되지 않는다.
+     * - 보낸 유저의 USE 내역과 받은 유저의 CHARGE 내역, 두 유저의 잔액은 각각 한 번에 저장한다.
+     *   write-ahead log 를 켜면 두 내역과 두 잔액이 한 그룹으로 기록되어, 재생 시 함께 반영되거나 함께 빠진다.
+     * - 실행기(point.service.engine)는 유저별 잔액/순서를 따로 관리하므로, 이동은 유저별 Lock 방식에서만 지원한다.
+     *   실행기를 쓰면 PointUnsupportedException(501) 으로 거절한다.
+     */
+    public PointTransferResult transfer(long fromUserId, long toUserId, long amount) {
+        if (fromUserId == toUserId) {
+            throw new IllegalArgumentException("같은 유저에게는 포인트를 이동할 수 없습니다.");
+        }
+        if (commandEngine != null) {
+            throw new PointUnsupportedException("포인트 이동은 point.service.engine=lock 에서만 지원합니다.");
+        }
+        long deadline = System.nanoTime() + requestTimeoutNanos;
+        long firstUserId = Math.min(fromUserId, toUserId);
+        long secondUserId = Math.max(fromUserId, toUserId);
+        try (UserLockManager.UserLock first = lockUser(firstUserId, deadline);
+             UserLockManager.UserLock second = lockUser(secondUserId, deadline)) {
+            checkDeadline(deadline);
+            UserPoint from = applyTo(PointCommand.use(fromUserId, amount), userPointRepository.findById(fromUserId));
+            UserPoint to = applyTo(PointCommand.charge(toUserId, amount), userPointRepository.findById(toUserId));
+            PointLotStore.UserLots fromLots = lotsOf(fromUserId);
+            PointLotStore.UserLots toLots = lotsOf(toUserId);
+            long updateMillis = System.currentTimeMillis();
+            pointHistoryRepository.saveAll(List.of(
+                    new PointHistory(0L, fromUserId, amount, TransactionType.USE, updateMillis),
+                    new PointHistory(0L, toUserId, amount, TransactionType.CHARGE, updateMillis)
+            ));
+            List<UserPoint> saved;
+            try {
+                saved = userPointRepository.saveAll(List.of(from, to));
+            } catch (RuntimeException e) {
+                pointHistoryRepository.discardUncommitted(fromUserId);
+                pointHistoryRepository.discardUncommitted(toUserId);
+                throw e;
+            }
+            PointTransferResult result = new PointTransferResult(saved.get(0), saved.get(1));
+            if (fromLots != null) {
+                fromLots.use(amount);
+                toLots.charge(amount, updateMillis); // 받은 포인트는 받은 시점부터 유효기간이 다시 시작된다.
+            }
+            return result;
+        } catch (PointTimeoutException e) {
+            pointMetrics.recordDropped(TransactionType.USE, e.reason()); // 보낸 유저 기준으로 남긴다.
+            throw e;
+        }
+    }
+
+    /**
+     * nowMillis 까지 유효기간이 지난 lot 의 남은 포인트를 잔액에서 빼고 EXPIRE 내역을 남긴다. (PointExpirationScheduler 가 호출)
+     * - 만료된 lot 여러 개를 모아 내역 한 건, 잔액 저장 한 번으로 반영한다.
+     */
+    public UserPoint expireUserPoint(long userId, long nowMillis) {
+        if (pointLotStore == null) {
+            throw new IllegalStateException("포인트 만료가 설정되지 않았습니다. (point.expiration.enabled)");
+        }
+        try (UserLockManager.UserLock lock = userLockManager.lock(userId)) {
+            PointLotStore.UserLots lots = pointLotStore.lotsOf(userId);
+            UserPoint userPoint = userPointRepository.findById(userId);
+            long amount = Math.min(lots.expiredAmount(nowMillis), userPoint.point());
+            if (amount > 0) {
+                pointHistoryRepository.save(userId, amount, TransactionType.EXPIRE, nowMillis);
+                userPoint = saveOrDiscard(userId, userPoint.point() - amount);
+                pointMetrics.recordExpired(amount);
+            }
+            lots.expire(nowMillis);
+            return userPoint;
+        }
+    }
+
+    // 잔액 저장에 실패하면 앞서 저장한 내역이 다음 요청의 잔액과 함께 확정되지 않도록 버린다.
+    private UserPoint saveOrDiscard(long userId, long point) {
+        try {
+            return userPointRepository.saveOrUpdate(userId, point);
+        } catch (RuntimeException e) {
+            pointHistoryRepository.discardUncommitted(userId);
+            throw e;
+        }
+    }
+
+    private PointLotStore.UserLots lotsOf(long userId) {
+        return pointLotStore != null ? pointLotStore.lotsOf(userId) : null;
+    }
+
+    // 거절되면 어느 쪽(USE/CHARGE)에서 거절되었는지 남긴다.
+    private UserPoint applyTo(PointCommand command, UserPoint userPoint) {
+        try {
+            return command.applyTo(userPoint);
+        } catch (IllegalArgumentException e) {
+            pointMetrics.recordRejected(command.type(), e);
+            throw e;
+        }
+    }
+
+    // 기한이 있으면 남은 시간만큼만 Lock 을 기다리고, 그 안에 얻지 못하면 요청을 버린다.
+    private UserLockManager.UserLock lockUser(long userId, long deadline) {
+        if (requestTimeoutNanos == 0) {
+            return userLockManager.lock(userId);
+        }
+        try {
+            UserLockManager.UserLock lock = userLockManager.tryLock(userId, deadline - System.nanoTime());
+            if (lock == null) {
+                log.warn("Dropped request for user {}: lock not acquired before deadline", userId);
+                throw new PointTimeoutException(PointTimeoutReason.LOCK_TIMEOUT,
+                        "요청이 몰려 기한 안에 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+            }
+            return lock;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("포인트 처리 대기가 중단되었습니다.", e);
+        }
+    }
+
+    // Lock 을 기다리는 사이 기한이 지났다면 이미 포기한 요청이므로 테이블에 접근하지 않는다.
+    private void checkDeadline(long deadline) {
+        if (requestTimeoutNanos > 0 && System.nanoTime() - deadline >= 0) {
+            throw new PointTimeoutException(PointTimeoutReason.DEADLINE_EXPIRED,
+                    "요청 처리 기한이 지났습니다. 다시 시도해주세요.");
         }
     }
 
@@ -77,4 +298,34 @@ public class PointService {
     public List<PointHistory> getUserPointHistories(long userId) {
         return pointHistoryRepository.findAllById(userId);
     }
+
+    public PointHistoryPage getUserPointHistories(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        if (limit <= 0 || limit > MAX_HISTORY_PAGE_SIZE) {
+            throw new IllegalArgumentException(String.format("조회 건수는 1 이상 %d 이하여야 합니다.", MAX_HISTORY_PAGE_SIZE));
+        }
+        return pointHistoryRepository.findPageById(userId, cursor, limit, order);
+    }
+
+    /**
+     * 유저의 충전/사용 합계와 건수를 전체 및 시간 구간별로 조회한다.
+     */
+    public PointHistorySummary getUserPointSummary(long userId, Long fromMillis, Long toMillis) {
+        if (fromMillis != null && toMillis != null && fromMillis > toMillis) {
+            throw new IllegalArgumentException("조회 기간이 잘못 되었습니다.");
+        }
+        return pointHistoryRepository.summarizeById(userId, fromMillis, toMillis);
+    }
+
+    /**
+     * 조건에 맞는 내역을 유저 순서대로 sink 에 흘려보낸다.
+     * - 유저마다 저장소의 forEachById 로 한 번만 읽고 바로 흘려보낸다.
+     *   테이블은 페이지 조회도 매번 유저 내역 전체를 읽으므로, 페이지로 나눠 읽으면 페이지마다 테이블을 다시 훑게 된다.
+     */
+    public void exportHistories(PointHistoryExportQuery query, Consumer<PointHistory> sink) {
+        query.userIdStream().forEach(userId -> pointHistoryRepository.forEachById(userId, pointHistory -> {
+            if (query.matches(pointHistory)) {
+                sink.accept(pointHistory);
+            }
+        }));
+    }
 }
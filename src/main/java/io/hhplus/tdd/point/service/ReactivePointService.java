@@ -0,0 +1,169 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.UserPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PointService 의 논블로킹 버전
+ * - 모든 연산은 Mono/Flux 를 돌려주며, PointService 호출(blocking)은 크기가 제한된 boundedElastic 스케줄러에서만 실행한다.
+ * - 같은 유저의 충전/사용은 유저별 논블로킹 큐에 쌓고, 큐를 처음 채운 요청이 하나씩 꺼내 PointService 로 처리한다.
+ *   기다리는 요청은 쓰레드를 잡지 않고 큐에만 남으므로, 적은 쓰레드로도 많은 요청을 동시에 들고 있을 수 있다.
+ * - 처리는 PointService 를 그대로 거치므로 /point 와 같은 유저별 직렬화(Lock 또는 실행기), 포인트 lot, 멱등 키, 요청 기한을 따른다.
+ *   유저별 큐는 같은 유저의 요청이 스케줄러 쓰레드를 여러 개 잡고 Lock 을 기다리지 않게 하는 역할만 한다.
+ * - 요청 기한은 구독한 시점부터 계산하므로 큐에서 기다린 시간도 포함된다.
+ * - 큐는 처리할 요청이 남아있는 동안에만 유지하고, 비면 바로 제거한다. (UserLockManager 와 같은 참조 수 방식)
+ */
+@Service
+public class ReactivePointService implements AutoCloseable {
+
+    private final PointService pointService;
+    private final Scheduler scheduler;
+    private final Map<Long, UserQueue> queues = new ConcurrentHashMap<>();
+
+    public ReactivePointService(
+            PointService pointService,
+            @Value("${point.reactive.thread-cap:0}") int threadCap,
+            @Value("${point.reactive.queued-task-cap:100000}") int queuedTaskCap
+    ) {
+        if (threadCap < 0 || queuedTaskCap <= 0) {
+            throw new IllegalArgumentException("threadCap은 0 이상, queuedTaskCap은 0보다 커야합니다.");
+        }
+        this.pointService = pointService;
+        this.scheduler = Schedulers.newBoundedElastic(
+                threadCap > 0 ? threadCap : Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, queuedTaskCap, "point-reactive");
+    }
+
+    public Mono<UserPoint> getUserPoint(long userId) {
+        return Mono.fromCallable(() -> pointService.getUserPoint(userId))
+                .subscribeOn(scheduler);
+    }
+
+    public Flux<PointHistory> getUserPointHistories(long userId) {
+        return Mono.fromCallable(() -> pointService.getUserPointHistories(userId))
+                .subscribeOn(scheduler)
+                .flatMapIterable(histories -> histories);
+    }
+
+    public Mono<UserPoint> chargeUserPoint(long userId, long amount) {
+        return submit(PointCommand.charge(userId, amount), null);
+    }
+
+    public Mono<UserPoint> useUserPoint(long userId, long amount) {
+        return submit(PointCommand.use(userId, amount), null);
+    }
+
+    /**
+     * 같은 idempotencyKey 로 다시 요청하면 충전하지 않고 처음 결과를 돌려준다.
+     */
+    public Mono<UserPoint> chargeUserPoint(long userId, long amount, String idempotencyKey) {
+        return submit(PointCommand.charge(userId, amount), idempotencyKey);
+    }
+
+    /**
+     * 같은 idempotencyKey 로 다시 요청하면 사용하지 않고 처음 결과를 돌려준다.
+     */
+    public Mono<UserPoint> useUserPoint(long userId, long amount, String idempotencyKey) {
+        return submit(PointCommand.use(userId, amount), idempotencyKey);
+    }
+
+    /**
+     * 처리 대기 중인 요청이 있는 유저 수
+     */
+    public int activeUserCount() {
+        return queues.size();
+    }
+
+    @Override
+    public void close() {
+        scheduler.dispose();
+    }
+
+    // 구독할 때마다 한 번씩 큐에 넣는다.
+    private Mono<UserPoint> submit(PointCommand command, String idempotencyKey) {
+        return Mono.defer(() -> {
+            Task task = new Task(command, idempotencyKey, System.nanoTime());
+            enqueue(task);
+            return Mono.fromFuture(task.result);
+        });
+    }
+
+    private void enqueue(Task task) {
+        long userId = task.command.userId();
+        UserQueue queue = queues.compute(userId, (id, existing) -> {
+            UserQueue userQueue = existing != null ? existing : new UserQueue();
+            userQueue.references++;
+            return userQueue;
+        });
+        queue.tasks.offer(task);
+        // 0 -> 1 로 바꾼 요청만 처리를 시작하고, 나머지는 큐에 넣기만 한다.
+        if (queue.wip.getAndIncrement() == 0) {
+            try {
+                scheduler.schedule(() -> drain(userId, queue, null));
+            } catch (RejectedExecutionException e) {
+                drain(userId, queue, e);
+            }
+        }
+    }
+
+    /**
+     * 큐가 빌 때까지 하나씩 처리한다. 처리를 시작하지 못했다면(failure) 쌓인 요청을 모두 실패로 끝낸다.
+     * - 결과를 알리기 전에 참조를 먼저 놓아서, 응답을 받은 쪽에서는 처리가 끝난 상태만 보이게 한다.
+     */
+    private void drain(long userId, UserQueue queue, RuntimeException failure) {
+        do {
+            Task task = queue.tasks.poll();
+            UserPoint userPoint = null;
+            RuntimeException error = failure;
+            if (error == null) {
+                try {
+                    userPoint = pointService.execute(task.command, task.idempotencyKey, task.receivedNanos);
+                } catch (RuntimeException e) {
+                    error = e;
+                }
+            }
+            release(userId);
+            if (error != null) {
+                task.result.completeExceptionally(error);
+            } else {
+                task.result.complete(userPoint);
+            }
+        } while (queue.wip.decrementAndGet() != 0);
+    }
+
+    private void release(long userId) {
+        queues.computeIfPresent(userId, (id, queue) -> --queue.references == 0 ? null : queue);
+    }
+
+    private static final class UserQueue {
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger(); // 큐에 들어왔지만 끝나지 않은 요청 수
+        private int references; // queues.compute 안에서만 변경한다.
+    }
+
+    private static final class Task {
+        private final PointCommand command;
+        private final String idempotencyKey; // null 이면 멱등 처리하지 않는다.
+        private final long receivedNanos;
+        private final CompletableFuture<UserPoint> result = new CompletableFuture<>();
+
+        private Task(PointCommand command, String idempotencyKey, long receivedNanos) {
+            this.command = command;
+            this.idempotencyKey = idempotencyKey;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointTimeoutException;
+import io.hhplus.tdd.point.PointTimeoutReason;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 유저별 single-writer 실행기
+ * - userId 해시로 고정된 수의 shard 중 하나에 요청을 보내고, shard 마다 하나의 쓰레드가 순서대로 처리한다.
+ * - shard 가 자기 유저들의 잔액을 직접 들고 있으므로 Lock 없이도 유저별 처리 순서가 도착 순서로 정해진다.
+ * - 요청마다 내역을 먼저 저장하고, 성공한 요청만 잔액에 반영한다. 내역 저장에 실패한 요청 하나만 실패로 돌려준다.
+ * - 한 번에 꺼낸 요청들의 잔액 저장(saveOrUpdate)은 유저별로 한 번만 수행한다.
+ * - shard 가 들고 있는 잔액은 저장이 끝난 값이므로, maxCachedUsers 를 넘으면 가장 오래 쓰이지 않은 유저부터 지운다.
+ *   지운 유저는 다음 요청에서 저장소에서 다시 읽는다.
+ * - 큐가 가득 차면 요청한 쓰레드는 자리가 날 때까지 대기한다. (backpressure)
+ *   shard 쓰레드가 멈춘 경우에는 기다리지 않고 실패한다.
+ * - 요청에 기한(PointCommand.deadlineNanos)이 있으면 큐 자리를 기다리다 기한이 지난 요청과,
+ *   shard 가 꺼냈을 때 이미 기한이 지난 요청은 잔액을 읽지 않고 버린다.
+ * - 적재(read)와 종료(write)는 admissionLock 으로 나누므로, 접수된 요청은 종료 전에 모두 처리되거나 실패로 완료된다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "point.service.engine", havingValue = "sharded")
+public class ShardedPointCommandEngine implements PointCommandEngine, AutoCloseable {
+
+    private final UserPointRepository userPointRepository;
+    private final PointHistoryRepository pointHistoryRepository;
+    private final Shard[] shards;
+    private final int batchSize;
+    private final int maxCachedUsers;
+    private final ReentrantReadWriteLock admissionLock = new ReentrantReadWriteLock(); // 적재(read)와 종료(write)가 겹치지 않도록 한다.
+    private volatile boolean running = true;
+
+    public ShardedPointCommandEngine(
+            UserPointRepository userPointRepository,
+            PointHistoryRepository pointHistoryRepository,
+            @Value("${point.service.sharded.shard-count:0}") int shardCount,
+            @Value("${point.service.sharded.queue-capacity:10000}") int queueCapacity,
+            @Value("${point.service.sharded.batch-size:128}") int batchSize,
+            @Value("${point.service.sharded.max-cached-users:10000}") int maxCachedUsers
+    ) {
+        if (shardCount < 0 || queueCapacity <= 0 || batchSize <= 0 || maxCachedUsers <= 0) {
+            throw new IllegalArgumentException("shardCount는 0 이상, queueCapacity, batchSize, maxCachedUsers는 0보다 커야합니다.");
+        }
+        this.userPointRepository = userPointRepository;
+        this.pointHistoryRepository = pointHistoryRepository;
+        this.batchSize = batchSize;
+        this.maxCachedUsers = maxCachedUsers;
+        int count = shardCount > 0 ? shardCount : Runtime.getRuntime().availableProcessors();
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard(i, queueCapacity);
+        }
+    }
+
+    @Override
+    public UserPoint execute(PointCommand command) {
+        try {
+            return submit(command).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 요청을 담당 shard 에 적재하고, 처리가 끝나면 완료되는 future 를 돌려준다.
+     */
+    public CompletableFuture<UserPoint> submit(PointCommand command) {
+        PendingCommand pending = new PendingCommand(command);
+        Shard shard = shardOf(command.userId());
+        admissionLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("포인트 실행기가 종료되었습니다.");
+            }
+            while (!shard.queue.offer(pending, 100, TimeUnit.MILLISECONDS)) {
+                if (!shard.thread.isAlive()) {
+                    throw new IllegalStateException("포인트 실행기가 요청을 처리하지 못하고 있습니다.");
+                }
+                checkAdmissionDeadline(command);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("포인트 요청 적재가 중단되었습니다.", e);
+        } finally {
+            admissionLock.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    // 큐가 가득 찬 채로 기한이 지나면 더 기다리지 않고 버린다.
+    private static void checkAdmissionDeadline(PointCommand command) {
+        if (command.deadlineNanos() != PointCommand.NO_DEADLINE && System.nanoTime() - command.deadlineNanos() >= 0) {
+            throw new PointTimeoutException(PointTimeoutReason.LOCK_TIMEOUT,
+                    "요청이 몰려 기한 안에 처리하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 새 요청 접수를 막고, 큐에 남은 요청을 모두 처리한 뒤 shard 쓰레드를 종료한다.
+     */
+    @Override
+    public void close() {
+        admissionLock.writeLock().lock(); // 적재 중인 submit()이 끝난 뒤에 접수를 막는다.
+        try {
+            running = false;
+        } finally {
+            admissionLock.writeLock().unlock();
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // shard 쓰레드가 인터럽트 등으로 먼저 끝나 남은 요청은 처리할 쓰레드가 없으므로 실패로 돌려준다.
+            PendingCommand pending;
+            while ((pending = shard.queue.poll()) != null) {
+                pending.future.completeExceptionally(new IllegalStateException("포인트 실행기가 종료되었습니다."));
+            }
+        }
+    }
+
+    private Shard shardOf(long userId) {
+        int hash = Long.hashCode(userId);
+        hash ^= (hash >>> 16); // 연속된 userId 가 고르게 퍼지도록 상위 비트를 섞는다.
+        return shards[Math.floorMod(hash, shards.length)];
+    }
+
+    private final class Shard {
+        private final BlockingQueue<PendingCommand> queue;
+        // shard 쓰레드만 접근한다. 접근 순서로 정렬해서 가장 오래 쓰이지 않은 유저부터 지운다.
+        private final Map<Long, UserPoint> userPoints = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UserPoint> eldest) {
+                return size() > maxCachedUsers;
+            }
+        };
+        private final Thread thread;
+
+        private Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this::runLoop, "point-shard-" + index);
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void runLoop() {
+            List<PendingCommand> batch = new ArrayList<>(batchSize);
+            while (running || !queue.isEmpty()) {
+                try {
+                    PendingCommand first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    process(batch);
+                    batch.clear();
+                } catch (InterruptedException e) {
+                    // close()를 통해서만 종료하므로 인터럽트는 무시하고 남은 요청을 계속 처리한다.
+                }
+            }
+        }
+
+        private void process(List<PendingCommand> batch) {
+            List<PendingCommand> applied = new ArrayList<>(batch.size());
+            Map<Long, UserPoint> dirty = new LinkedHashMap<>();
+            for (PendingCommand pending : batch) {
+                PointCommand command = pending.command;
+                long userId = command.userId();
+                try {
+                    command.checkDeadline(); // 큐에서 기다리는 사이 기한이 지났으면 잔액을 읽지 않고 버린다.
+                    UserPoint updated = command.applyTo(dirty.containsKey(userId) ? dirty.get(userId) : userPointOf(userId));
+                    // 내역이 저장된 요청만 잔액에 반영한다. 실패하면 이 요청만 빠지고 다음 요청은 이전 잔액에 적용된다.
+                    pointHistoryRepository.save(userId, command.amount(), command.type(), updated.updateMillis());
+                    dirty.put(userId, updated);
+                    pending.result = updated;
+                    applied.add(pending);
+                } catch (RuntimeException e) {
+                    log.error("Error applying {} for user {}: {}", command.type(), userId, e.getMessage());
+                    pending.future.completeExceptionally(e);
+                }
+            }
+
+            Map<Long, UserPoint> saved = new HashMap<>();
+            Map<Long, RuntimeException> failures = new HashMap<>();
+            dirty.forEach((userId, userPoint) -> {
+                try {
+                    saved.put(userId, userPointRepository.saveOrUpdate(userId, userPoint.point()));
+                    userPoints.put(userId, userPoint);
+                } catch (RuntimeException e) {
+                    log.error("Error saving points for user {}: {}", userId, e.getMessage());
+                    pointHistoryRepository.discardUncommitted(userId);
+                    failures.put(userId, e);
+                    userPoints.remove(userId); // 저장소와 어긋났을 수 있으므로 다음 요청에서 다시 읽어온다.
+                }
+            });
+
+            for (PendingCommand pending : applied) {
+                long userId = pending.command.userId();
+                RuntimeException failure = failures.get(userId);
+                if (failure != null) {
+                    pending.future.completeExceptionally(failure);
+                } else {
+                    pending.future.complete(new UserPoint(userId, pending.result.point(), saved.get(userId).updateMillis()));
+                }
+            }
+        }
+
+        private UserPoint userPointOf(long userId) {
+            UserPoint userPoint = userPoints.get(userId);
+            if (userPoint == null) {
+                userPoint = userPointRepository.findById(userId);
+                userPoints.put(userId, userPoint);
+            }
+            return userPoint;
+        }
+    }
+
+    private static class PendingCommand {
+        private final PointCommand command;
+        private final CompletableFuture<UserPoint> future = new CompletableFuture<>();
+        private UserPoint result; // shard 쓰레드만 접근한다.
+
+        private PendingCommand(PointCommand command) {
+            this.command = command;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.hhplus.tdd.point.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 유저별 Lock 관리자
+ * - Lock 을 기다리거나 잡고 있는 쓰레드 수(참조 수)를 세고, 0 이 되면 바로 제거한다.
+ * - 따라서 보관하는 Lock 수는 지금 처리 중인 유저 수를 넘지 않는다. (한 번이라도 본 유저 수와 무관)
+ * - 참조가 남아있는 동안에는 같은 Lock 이 유지되므로 유저 단위 상호 배제는 그대로 보장된다.
+ */
+@Component
+public class UserLockManager {
+
+    private final Map<Long, LockEntry> locks = new ConcurrentHashMap<>();
+
+    /**
+     * 유저의 Lock 을 획득한다. 반환된 UserLock 을 close 하면 해제된다.
+     */
+    public UserLock lock(long userId) {
+        LockEntry entry = retain(userId);
+        try {
+            entry.lock.lock();
+        } catch (RuntimeException | Error e) {
+            release(userId);
+            throw e;
+        }
+        return new UserLock(userId, entry);
+    }
+
+    /**
+     * timeoutNanos 안에 유저의 Lock 을 얻으면 UserLock 을, 얻지 못하면 null 을 반환한다.
+     */
+    public UserLock tryLock(long userId, long timeoutNanos) throws InterruptedException {
+        LockEntry entry = retain(userId);
+        boolean acquired = false;
+        try {
+            acquired = entry.lock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            if (!acquired) {
+                release(userId);
+            }
+        }
+        return acquired ? new UserLock(userId, entry) : null;
+    }
+
+    /**
+     * 현재 보관 중인 Lock 수
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    // 참조 수 증감을 compute 안에서 처리해야 제거 직후 다른 쓰레드가 새 Lock 을 만드는 경우와 겹치지 않는다.
+    private LockEntry retain(long userId) {
+        return locks.compute(userId, (id, existing) -> {
+            LockEntry entry = existing != null ? existing : new LockEntry();
+            entry.references++;
+            return entry;
+        });
+    }
+
+    private void release(long userId) {
+        locks.computeIfPresent(userId, (id, entry) -> --entry.references == 0 ? null : entry);
+    }
+
+    public final class UserLock implements AutoCloseable {
+        private final long userId;
+        private final LockEntry entry;
+        private boolean released;
+
+        private UserLock(long userId, LockEntry entry) {
+            this.userId = userId;
+            this.entry = entry;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            entry.lock.unlock();
+            release(userId);
+        }
+    }
+
+    private static final class LockEntry {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private int references; // locks.compute 안에서만 변경한다.
+    }
+}
@@ -0,0 +1,672 @@
+package io.hhplus.tdd.point.wal;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.TransactionType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 스냅샷으로 write-ahead log 에서 빠져나간 (오래된) 내역을 보관하는 컬럼형 파일 저장소
+ * - 내역은 변경되지 않는 chunk 파일 단위로 저장하며, chunk 는 연속된 보관 순번 범위를 가진다. (n 번째로 보관된 내역의 순번은 n)
+ * - 내역 id 는 write-ahead log 에 함께 남긴 저장소의 id 를 그대로 쓴다. 로그에는 잔액과 함께 끝난 요청의 내역만 id 와 무관한 순서로 남으므로,
+ *   id 는 순번과 달리 비어 있는 값이 있고, 스냅샷 경계 근처에서는 이웃한 chunk 의 id 범위(minId ~ maxId)가 겹칠 수 있다.
+ * - chunk 안에서는 (userId, id) 순으로 정렬한 뒤 id, userId, amount, updateMillis, type 을 각각 고정 길이 컬럼으로 붙여 쓰고,
+ *   마지막에 유저별 (userId, 시작 행, 행 수) 색인을 userId 순으로 둔다.
+ * - 조회는 chunk 를 메모리 매핑해서 색인을 이분 탐색하므로 힙에 내역 객체를 들고 있지 않는다.
+ * - chunk 는 임시 파일에 쓴 뒤 이름을 바꿔서 추가하므로 중간에 중단되어도 반쪽짜리 chunk 가 보이지 않는다.
+ * - chunk 가 maxChunks 개를 넘으면 앞쪽 chunk 들을 하나로 합친다.
+ * - 조회는 기동 시 복구한 내역의 마지막 id(lastVisibleId)까지만 한다. 실행 중에 옮겨진 내역은 아직 테이블에도 있고, id 가 그보다 크다.
+ */
+@Slf4j
+public class PointHistoryArchive implements AutoCloseable {
+
+    static final int MAX_CHUNK_ROWS = 4 * 1024 * 1024;
+    private static final int PENDING_LIMIT = 256 * 1024; // 힙에 모아둘 최대 행 수. 넘으면 바로 chunk 로 쓴다.
+    private static final String CHUNK_SUFFIX = ".chunk";
+    private static final int MAGIC = 0x50484143; // "PHAC"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 8 + 8; // magic, version, firstSequence, rows, users, minId, maxId
+    private static final int INDEX_ENTRY_SIZE = 8 + 4 + 4;
+
+    private final Path directory;
+    private final int maxChunks;
+    private final ReentrantLock writeLock = new ReentrantLock(); // chunk 추가/병합/정리는 한 쓰레드씩
+    private final List<PointWalRecord> pending = new ArrayList<>();
+    private volatile List<Chunk> chunks; // 보관 순번 순. 교체만 하고 수정하지 않는다.
+    private volatile long sealedCount;
+    private volatile long lastVisibleId;
+
+    public PointHistoryArchive(Path directory, int maxChunks) {
+        if (maxChunks < 2) {
+            throw new IllegalArgumentException("maxChunks는 2 이상이어야 합니다.");
+        }
+        this.directory = directory;
+        this.maxChunks = maxChunks;
+        try {
+            Files.createDirectories(directory);
+            this.chunks = openChunks();
+        } catch (IOException e) {
+            throw new UncheckedIOException("내역 보관 디렉토리를 열 수 없습니다: " + directory, e);
+        }
+        this.sealedCount = chunks.isEmpty() ? 0L : chunks.get(chunks.size() - 1).lastSequence();
+    }
+
+    /**
+     * 기동 시 스냅샷 기준으로 보관 범위를 맞추고, 그 범위를 조회 대상으로 삼는다.
+     * - 스냅샷을 쓰기 전에 중단되어 더 들어간 chunk 는 지운다.
+     */
+    public void recover(long historyCursor) {
+        truncateTo(historyCursor);
+        lastVisibleId = chunks.stream().mapToLong(chunk -> chunk.maxId).max().orElse(0L);
+    }
+
+    /**
+     * 보관된 내역 수(보관 순번)를 count 로 맞춘다. 아직 chunk 로 쓰지 않은 내역은 버린다.
+     */
+    public void truncateTo(long count) {
+        writeLock.lock();
+        try {
+            pending.clear();
+            if (sealedCount < count) {
+                throw new IllegalStateException(String.format("내역 보관소에 %d 건이 필요하지만 %d 건만 있습니다: %s", count, sealedCount, directory));
+            }
+            List<Chunk> kept = new ArrayList<>();
+            for (Chunk chunk : chunks) {
+                if (chunk.lastSequence() <= count) {
+                    kept.add(chunk);
+                } else if (chunk.firstSequence <= count) {
+                    throw new IllegalStateException("chunk 경계가 아닌 위치로 되돌릴 수 없습니다: " + count);
+                } else {
+                    delete(chunk.path);
+                }
+            }
+            chunks = List.copyOf(kept);
+            sealedCount = count;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 내역 레코드를 뒤에 붙인다. 일정량이 모이거나 force()를 호출하면 chunk 로 쓴다.
+     */
+    public void append(List<PointWalRecord> records) {
+        writeLock.lock();
+        try {
+            pending.addAll(records);
+            if (pending.size() >= PENDING_LIMIT) {
+                sealPending();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 모아둔 내역을 chunk 로 쓰고 디스크에 반영한다.
+     */
+    public void force() {
+        writeLock.lock();
+        try {
+            sealPending();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * chunk 가 maxChunks 개를 넘으면 앞쪽부터 MAX_CHUNK_ROWS 를 넘지 않는 만큼 하나로 합친다.
+     */
+    public void compact() {
+        writeLock.lock();
+        try {
+            List<Chunk> current = chunks;
+            if (current.size() <= maxChunks) {
+                return;
+            }
+            int from = 0;
+            while (from < current.size()) {
+                int to = from;
+                long rows = 0;
+                while (to < current.size() && rows + current.get(to).rows <= MAX_CHUNK_ROWS) {
+                    rows += current.get(to).rows;
+                    to++;
+                }
+                if (to - from >= 2) {
+                    merge(current, from, to);
+                    return;
+                }
+                from = Math.max(to, from + 1);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 조회 대상 범위에서 유저의 내역을 id 순서로 찾는다.
+     */
+    public List<PointHistory> findAllByUserId(long userId) {
+        long visible = lastVisibleId;
+        List<PointHistory> histories = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            if (chunk.minId <= visible) {
+                chunk.collect(userId, visible, histories);
+            }
+        }
+        histories.sort(Comparator.comparingLong(PointHistory::id)); // id 범위가 겹친 chunk 의 행을 제자리로 옮긴다.
+        return histories;
+    }
+
+    /**
+     * 조회 대상 범위에서 유저의 내역을 cursor(제외) 다음부터 limit 건 order 순서로 찾는다.
+     * - id 범위가 cursor 쪽에 걸치지 않는 chunk 는 건너뛰고, chunk 안에서는 유저 구간을 이분 탐색해 필요한 행만 읽는다.
+     * - chunk 마다 limit + 1 건까지만 모아서 id 순으로 맞추고, 이미 모은 limit + 1 건보다 뒤에 있는 chunk 는 읽지 않는다.
+     */
+    public PointHistoryPage findPageByUserId(long userId, Long cursor, int limit, PointHistoryOrder order) {
+        long visible = lastVisibleId;
+        List<Chunk> current = chunks;
+        List<PointHistory> histories = new ArrayList<>(Math.min(limit + 1, 64));
+        if (order == PointHistoryOrder.ASC) {
+            long afterId = cursor != null ? cursor : 0L;
+            for (Chunk chunk : current) {
+                if (chunk.minId > visible || chunk.maxId <= afterId
+                        || (histories.size() > limit && chunk.minId > histories.get(limit).id())) {
+                    continue;
+                }
+                chunk.collectAscending(userId, afterId, visible, limit + 1, histories);
+                histories.sort(Comparator.comparingLong(PointHistory::id));
+                keepFirst(histories, limit + 1);
+            }
+        } else {
+            long beforeId = cursor != null ? Math.min(cursor, visible + 1) : visible + 1;
+            for (int i = current.size() - 1; i >= 0; i--) {
+                Chunk chunk = current.get(i);
+                if (chunk.minId >= beforeId
+                        || (histories.size() > limit && chunk.maxId < histories.get(limit).id())) {
+                    continue;
+                }
+                chunk.collectDescending(userId, beforeId, limit + 1, histories);
+                histories.sort(Comparator.comparingLong(PointHistory::id).reversed());
+                keepFirst(histories, limit + 1);
+            }
+        }
+        boolean hasNext = histories.size() > limit;
+        if (hasNext) {
+            histories.remove(limit);
+        }
+        return new PointHistoryPage(histories, hasNext ? histories.get(histories.size() - 1).id() : null);
+    }
+
+    /**
+     * 보관된 내역 수 (chunk 로 쓰기 전인 내역 포함)
+     */
+    public long count() {
+        writeLock.lock();
+        try {
+            return sealedCount + pending.size();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 기동 시 복구한 내역 중 가장 큰 id. 이후에 저장되는 내역의 id 는 이보다 크다.
+     */
+    public long lastVisibleId() {
+        return lastVisibleId;
+    }
+
+    public int chunkCount() {
+        return chunks.size();
+    }
+
+    @Override
+    public void close() {
+        // 매핑은 GC 시 해제된다. 보관할 내역은 스냅샷 단계에서 이미 force() 되었다.
+    }
+
+    private void sealPending() {
+        int offset = 0;
+        while (offset < pending.size()) {
+            int end = Math.min(pending.size(), offset + MAX_CHUNK_ROWS);
+            writeChunk(pending.subList(offset, end), sealedCount + 1);
+            sealedCount += end - offset;
+            offset = end;
+        }
+        pending.clear();
+    }
+
+    private void writeChunk(List<PointWalRecord> records, long firstSequence) {
+        int rows = records.size();
+        Integer[] order = new Integer[rows];
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            order[i] = i;
+            minId = Math.min(minId, records.get(i).historyId());
+            maxId = Math.max(maxId, records.get(i).historyId());
+        }
+        // 로그에 남은 순서는 id 순서와 다를 수 있으므로 유저 안에서도 id 로 정렬한다.
+        Arrays.sort(order, Comparator.<Integer>comparingLong(i -> records.get(i).userId()).thenComparingLong(i -> records.get(i).historyId()));
+        int users = 0;
+        for (int i = 0; i < rows; i++) {
+            if (i == 0 || records.get(order[i]).userId() != records.get(order[i - 1]).userId()) {
+                users++;
+            }
+        }
+
+        ChunkWriter writer = new ChunkWriter(firstSequence, rows, users, minId, maxId);
+        for (int i = 0; i < rows; i++) {
+            PointWalRecord record = records.get(order[i]);
+            writer.row(record.historyId(), record.userId(), record.amount(), record.updateMillis(), (byte) record.type().ordinal());
+        }
+        chunks = append(chunks, writer.finish());
+    }
+
+    private void merge(List<Chunk> current, int from, int to) {
+        List<Chunk> sources = current.subList(from, to);
+        long firstSequence = sources.get(0).firstSequence;
+        int rows = sources.stream().mapToInt(chunk -> chunk.rows).sum();
+        long minId = sources.stream().mapToLong(chunk -> chunk.minId).min().orElseThrow();
+        long maxId = sources.stream().mapToLong(chunk -> chunk.maxId).max().orElseThrow();
+
+        // 1. 합친 뒤의 유저 수를 센다. 2. 유저 순서대로, 같은 유저는 여러 chunk 의 행을 id 순서로 섞어서 옮긴다.
+        int users = 0;
+        long previous = 0;
+        boolean first = true;
+        PriorityQueue<IndexCursor> queue = indexCursors(sources);
+        while (!queue.isEmpty()) {
+            IndexCursor cursor = queue.poll();
+            if (first || cursor.userId() != previous) {
+                users++;
+                previous = cursor.userId();
+                first = false;
+            }
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+
+        ChunkWriter writer = new ChunkWriter(firstSequence, rows, users, minId, maxId);
+        queue = indexCursors(sources);
+        List<IndexCursor> sameUser = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            sameUser.add(queue.poll());
+            while (!queue.isEmpty() && queue.peek().userId() == sameUser.get(0).userId()) {
+                sameUser.add(queue.poll());
+            }
+            copyUserRows(sameUser, writer);
+            for (IndexCursor cursor : sameUser) {
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+            }
+            sameUser.clear();
+        }
+        Chunk merged = writer.finish();
+
+        List<Chunk> next = new ArrayList<>(current.subList(0, from));
+        next.add(merged);
+        next.addAll(current.subList(to, current.size()));
+        chunks = List.copyOf(next);
+        // 이미 매핑된 버퍼는 파일을 지워도 읽을 수 있으므로 진행 중인 조회에는 영향이 없다.
+        sources.forEach(chunk -> delete(chunk.path));
+        log.info("Merged {} point history archive chunks into {}", sources.size(), merged.path.getFileName());
+    }
+
+    // 같은 유저의 행(각 chunk 안에서는 id 순)을 id 순서로 섞어서 옮긴다. id 가 같으면 앞 chunk 의 행이 먼저다.
+    private static void copyUserRows(List<IndexCursor> cursors, ChunkWriter writer) {
+        int[] rows = new int[cursors.size()];
+        int[] ends = new int[cursors.size()];
+        for (int i = 0; i < cursors.size(); i++) {
+            IndexCursor cursor = cursors.get(i);
+            rows[i] = cursor.chunk.indexStart(cursor.position);
+            ends[i] = rows[i] + cursor.chunk.indexCount(cursor.position);
+        }
+        while (true) {
+            int next = -1;
+            for (int i = 0; i < cursors.size(); i++) {
+                if (rows[i] < ends[i] && (next < 0 || cursors.get(i).chunk.id(rows[i]) < cursors.get(next).chunk.id(rows[next]))) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                return;
+            }
+            Chunk chunk = cursors.get(next).chunk;
+            int row = rows[next]++;
+            writer.row(chunk.id(row), chunk.userId(row), chunk.amount(row), chunk.updateMillis(row), chunk.type(row));
+        }
+    }
+
+    private static void keepFirst(List<PointHistory> histories, int count) {
+        if (histories.size() > count) {
+            histories.subList(count, histories.size()).clear();
+        }
+    }
+
+    private static PriorityQueue<IndexCursor> indexCursors(List<Chunk> sources) {
+        PriorityQueue<IndexCursor> queue = new PriorityQueue<>(
+                Comparator.comparingLong(IndexCursor::userId).thenComparingInt(cursor -> cursor.order));
+        for (int i = 0; i < sources.size(); i++) {
+            if (sources.get(i).users > 0) {
+                queue.add(new IndexCursor(sources.get(i), i));
+            }
+        }
+        return queue;
+    }
+
+    private List<Chunk> openChunks() throws IOException {
+        List<Chunk> opened = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.toList()) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(CHUNK_SUFFIX)) {
+                    opened.add(Chunk.open(path));
+                } else if (name.endsWith(CHUNK_SUFFIX + ".tmp")) {
+                    delete(path); // 쓰다가 중단된 chunk
+                }
+            }
+        }
+        // 병합 도중 중단되었다면 합친 chunk 와 원래 chunk 가 함께 남아있으므로, 넓은 범위의 chunk 를 남긴다.
+        opened.sort(Comparator.comparingLong((Chunk chunk) -> chunk.firstSequence).thenComparing(chunk -> -chunk.lastSequence()));
+        List<Chunk> result = new ArrayList<>();
+        long next = 1;
+        for (Chunk chunk : opened) {
+            if (chunk.lastSequence() < next) {
+                delete(chunk.path);
+                continue;
+            }
+            if (chunk.firstSequence != next) {
+                throw new IllegalStateException("내역 보관 chunk 가 연속되지 않습니다: " + chunk.path);
+            }
+            result.add(chunk);
+            next = chunk.lastSequence() + 1;
+        }
+        return List.copyOf(result);
+    }
+
+    private Path chunkPath(long firstSequence, long lastSequence) {
+        return directory.resolve(String.format("%020d-%020d%s", firstSequence, lastSequence, CHUNK_SUFFIX));
+    }
+
+    private static List<Chunk> append(List<Chunk> chunks, Chunk chunk) {
+        List<Chunk> next = new ArrayList<>(chunks);
+        next.add(chunk);
+        return List.copyOf(next);
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete point history archive chunk {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static long[] columnOffsets(int rows) {
+        long ids = HEADER_SIZE;
+        long userIds = ids + 8L * rows;
+        long amounts = userIds + 8L * rows;
+        long millis = amounts + 8L * rows;
+        long types = millis + 8L * rows;
+        long index = types + rows;
+        index += (8 - index % 8) % 8; // 색인은 8바이트 경계에서 시작한다.
+        return new long[]{ids, userIds, amounts, millis, types, index};
+    }
+
+    /**
+     * 매핑된 chunk 파일 하나 (읽기 전용)
+     */
+    private static final class Chunk {
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final long firstSequence;
+        private final int rows;
+        private final int users;
+        private final long minId;
+        private final long maxId;
+        private final int idOffset;
+        private final int userIdOffset;
+        private final int amountOffset;
+        private final int millisOffset;
+        private final int typeOffset;
+        private final int indexOffset;
+
+        private Chunk(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IllegalStateException("내역 보관 chunk 형식이 아닙니다: " + path);
+            }
+            this.firstSequence = buffer.getLong(8);
+            this.rows = buffer.getInt(16);
+            this.users = buffer.getInt(20);
+            this.minId = buffer.getLong(24);
+            this.maxId = buffer.getLong(32);
+            long[] offsets = columnOffsets(rows);
+            if (buffer.capacity() != offsets[5] + (long) users * INDEX_ENTRY_SIZE) {
+                throw new IllegalStateException("내역 보관 chunk 가 손상되었습니다: " + path);
+            }
+            this.idOffset = (int) offsets[0];
+            this.userIdOffset = (int) offsets[1];
+            this.amountOffset = (int) offsets[2];
+            this.millisOffset = (int) offsets[3];
+            this.typeOffset = (int) offsets[4];
+            this.indexOffset = (int) offsets[5];
+        }
+
+        private static Chunk open(Path path) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return new Chunk(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            }
+        }
+
+        private long lastSequence() {
+            return firstSequence + rows - 1;
+        }
+
+        private void collect(long userId, long maxId, List<PointHistory> histories) {
+            int entry = findUser(userId);
+            if (entry < 0) {
+                return;
+            }
+            int start = indexStart(entry);
+            int end = start + indexCount(entry);
+            for (int row = start; row < end && id(row) <= maxId; row++) {
+                histories.add(history(row, userId));
+            }
+        }
+
+        // 유저의 행 중 id 가 afterId 보다 크고 maxId 이하인 것을 앞에서부터 max 건까지 더 담는다.
+        private void collectAscending(long userId, long afterId, long maxId, int max, List<PointHistory> histories) {
+            int entry = findUser(userId);
+            if (entry < 0) {
+                return;
+            }
+            int start = indexStart(entry);
+            int end = start + indexCount(entry);
+            int first = firstRowAfter(start, end, afterId);
+            for (int row = first; row < end && id(row) <= maxId && row - first < max; row++) {
+                histories.add(history(row, userId));
+            }
+        }
+
+        // 유저의 행 중 id 가 beforeId 보다 작은 것을 뒤에서부터 max 건까지 더 담는다.
+        private void collectDescending(long userId, long beforeId, int max, List<PointHistory> histories) {
+            int entry = findUser(userId);
+            if (entry < 0) {
+                return;
+            }
+            int start = indexStart(entry);
+            int end = start + indexCount(entry);
+            int last = firstRowAfter(start, end, beforeId - 1) - 1;
+            for (int row = last; row >= start && last - row < max; row--) {
+                histories.add(history(row, userId));
+            }
+        }
+
+        // 유저 색인 항목 위치. 없으면 -1
+        private int findUser(long userId) {
+            int low = 0;
+            int high = users - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                long midUserId = indexUserId(mid);
+                if (midUserId < userId) {
+                    low = mid + 1;
+                } else if (midUserId > userId) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        // [start, end) 구간에서 id 가 afterId 보다 큰 첫 행
+        private int firstRowAfter(int start, int end, long afterId) {
+            int low = start;
+            int high = end;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (id(mid) <= afterId) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private PointHistory history(int row, long userId) {
+            return new PointHistory(id(row), userId, amount(row), TransactionType.values()[type(row)], updateMillis(row));
+        }
+
+        private long id(int row) {
+            return buffer.getLong(idOffset + row * 8);
+        }
+
+        private long userId(int row) {
+            return buffer.getLong(userIdOffset + row * 8);
+        }
+
+        private long amount(int row) {
+            return buffer.getLong(amountOffset + row * 8);
+        }
+
+        private long updateMillis(int row) {
+            return buffer.getLong(millisOffset + row * 8);
+        }
+
+        private byte type(int row) {
+            return buffer.get(typeOffset + row);
+        }
+
+        private long indexUserId(int entry) {
+            return buffer.getLong(indexOffset + entry * INDEX_ENTRY_SIZE);
+        }
+
+        private int indexStart(int entry) {
+            return buffer.getInt(indexOffset + entry * INDEX_ENTRY_SIZE + 8);
+        }
+
+        private int indexCount(int entry) {
+            return buffer.getInt(indexOffset + entry * INDEX_ENTRY_SIZE + 12);
+        }
+    }
+
+    /**
+     * (userId, id) 순으로 행을 받아 chunk 파일을 쓴다.
+     */
+    private final class ChunkWriter {
+        private final Path target;
+        private final Path temp;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final long[] offsets;
+        private int row;
+        private int entry = -1;
+        private long currentUserId;
+
+        private ChunkWriter(long firstSequence, int rows, int users, long minId, long maxId) {
+            this.target = chunkPath(firstSequence, firstSequence + rows - 1);
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.offsets = columnOffsets(rows);
+            try {
+                this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, offsets[5] + (long) users * INDEX_ENTRY_SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("내역 보관 chunk 를 만들 수 없습니다: " + temp, e);
+            }
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, firstSequence).putInt(16, rows).putInt(20, users)
+                    .putLong(24, minId).putLong(32, maxId);
+        }
+
+        private void row(long id, long userId, long amount, long updateMillis, byte type) {
+            if (entry < 0 || userId != currentUserId) {
+                entry++;
+                currentUserId = userId;
+                int position = (int) offsets[5] + entry * INDEX_ENTRY_SIZE;
+                buffer.putLong(position, userId).putInt(position + 8, row).putInt(position + 12, 0);
+            }
+            int countPosition = (int) offsets[5] + entry * INDEX_ENTRY_SIZE + 12;
+            buffer.putInt(countPosition, buffer.getInt(countPosition) + 1);
+            buffer.putLong((int) offsets[0] + row * 8, id);
+            buffer.putLong((int) offsets[1] + row * 8, userId);
+            buffer.putLong((int) offsets[2] + row * 8, amount);
+            buffer.putLong((int) offsets[3] + row * 8, updateMillis);
+            buffer.put((int) offsets[4] + row, type);
+            row++;
+        }
+
+        private Chunk finish() {
+            try {
+                buffer.force();
+                channel.close();
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return Chunk.open(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException("내역 보관 chunk 를 쓸 수 없습니다: " + target, e);
+            }
+        }
+    }
+
+    private static final class IndexCursor {
+        private final Chunk chunk;
+        private final int order;
+        private int position;
+
+        private IndexCursor(Chunk chunk, int order) {
+            this.chunk = chunk;
+            this.order = order;
+        }
+
+        private long userId() {
+            return chunk.indexUserId(position);
+        }
+
+        private boolean advance() {
+            return ++position < chunk.users;
+        }
+    }
+}
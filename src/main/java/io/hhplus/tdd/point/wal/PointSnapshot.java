@@ -0,0 +1,104 @@
+package io.hhplus.tdd.point.wal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * 유저 잔액 스냅샷
+ * - nextSegmentId : 이 스냅샷에 반영되지 않은 첫 write-ahead log 세그먼트 (기동 시 여기서부터 다시 반영한다)
+ * - historyCursor : 내역 보관 파일(PointHistoryArchive)로 옮긴 내역 수 (= 마지막 보관 순번. 내역 id 와는 다르다)
+ * - balances : 유저별 잔액
+ * 파일 형식 : magic, version, nextSegmentId, historyCursor, count, (userId, point) * count, CRC32C
+ * 메모리 매핑한 임시 파일에 쓴 뒤 이름을 바꿔서 교체하므로, 읽는 쪽은 항상 온전한 스냅샷만 본다.
+ */
+public record PointSnapshot(
+        long nextSegmentId,
+        long historyCursor,
+        Map<Long, Long> balances
+) {
+    private static final int MAGIC = 0x50534E50; // "PSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4;
+    private static final int ENTRY_SIZE = 8 + 8;
+
+    public static PointSnapshot empty() {
+        return new PointSnapshot(0L, 0L, Map.of());
+    }
+
+    /**
+     * 스냅샷 파일을 읽는다. 파일이 없으면 빈 스냅샷
+     */
+    public static PointSnapshot read(Path path) {
+        if (!Files.exists(path)) {
+            return empty();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE + 4) {
+                throw new IllegalStateException("스냅샷 파일이 손상되었습니다: " + path);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalStateException("스냅샷 파일 형식이 아닙니다: " + path);
+            }
+            long nextSegmentId = buffer.getLong();
+            long historyCursor = buffer.getLong();
+            int count = buffer.getInt();
+            if (size != HEADER_SIZE + (long) count * ENTRY_SIZE + 4 || buffer.getInt((int) size - 4) != checksum(buffer, (int) size - 4)) {
+                throw new IllegalStateException("스냅샷 파일이 손상되었습니다: " + path);
+            }
+            Map<Long, Long> balances = new HashMap<>(Math.max(16, (int) (count / 0.75f) + 1));
+            for (int i = 0; i < count; i++) {
+                balances.put(buffer.getLong(), buffer.getLong());
+            }
+            return new PointSnapshot(nextSegmentId, historyCursor, balances);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 파일을 읽을 수 없습니다: " + path, e);
+        }
+    }
+
+    /**
+     * 임시 파일에 기록/fsync 한 뒤 path 로 원자적으로 교체한다.
+     */
+    public void write(Path path) {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        long size = HEADER_SIZE + (long) balances.size() * ENTRY_SIZE + 4;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("스냅샷이 너무 큽니다: " + balances.size() + " users");
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(nextSegmentId)
+                    .putLong(historyCursor)
+                    .putInt(balances.size());
+            balances.forEach((userId, point) -> buffer.putLong(userId).putLong(point));
+            buffer.putInt(checksum(buffer, (int) size - 4));
+            buffer.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 파일을 쓸 수 없습니다: " + temp, e);
+        }
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("스냅샷 파일을 교체할 수 없습니다: " + path, e);
+        }
+    }
+
+    private static int checksum(MappedByteBuffer buffer, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(0, length));
+        return (int) crc.getValue();
+    }
+}
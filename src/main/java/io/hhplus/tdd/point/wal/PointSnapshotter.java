@@ -0,0 +1,129 @@
+package io.hhplus.tdd.point.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 주기적으로 잔액 스냅샷을 만들고 write-ahead log 를 줄인다.
+ * 1. write-ahead log 를 새 세그먼트로 넘긴다. (writer 쓰레드가 batch 사이에 처리하므로 요청은 막히지 않는다)
+ * 2. 이전 스냅샷에 닫힌 세그먼트들을 차례로 반영하고, 그 안의 내역은 보관 파일로 옮긴다.
+ * 3. 새 스냅샷을 쓴 뒤 반영한 세그먼트를 지우고, 보관 파일의 chunk 가 많아졌으면 합친다.
+ * 모든 작업은 파일만 읽고 쓰므로 요청 처리 경로와 Lock 을 공유하지 않는다.
+ * 어느 단계에서 중단되어도 스냅샷 파일이 기준이 되므로, 다음 기동이나 다음 주기에 그대로 다시 만들 수 있다.
+ */
+@Slf4j
+public class PointSnapshotter implements AutoCloseable {
+
+    private static final int ARCHIVE_BATCH_SIZE = 1024;
+
+    private final PointWriteAheadLog writeAheadLog;
+    private final PointHistoryArchive pointHistoryArchive;
+    private final Path snapshotPath;
+    private final ScheduledExecutorService scheduler;
+    private final ReentrantLock snapshotLock = new ReentrantLock(); // 주기 실행과 직접 호출이 겹치지 않도록 한다.
+
+    public PointSnapshotter(PointWriteAheadLog writeAheadLog, PointHistoryArchive pointHistoryArchive, Path snapshotPath, long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("intervalMillis는 0보다 커야합니다.");
+        }
+        this.writeAheadLog = writeAheadLog;
+        this.pointHistoryArchive = pointHistoryArchive;
+        this.snapshotPath = snapshotPath;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "point-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::snapshotQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 지금까지 기록된 변경을 스냅샷에 반영한다.
+     * @return 새로 만든 스냅샷 (반영할 세그먼트가 없으면 기존 스냅샷)
+     */
+    public PointSnapshot snapshot() {
+        snapshotLock.lock();
+        try {
+            return snapshot(writeAheadLog, pointHistoryArchive, snapshotPath);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    /**
+     * 스냅샷 이후 기록된 세그먼트를 새 스냅샷에 반영하고, 그 안의 내역은 보관 파일로 옮긴다. (기동 시 복구도 같은 방법으로 한다)
+     * - 한 번에 한 쓰레드만 호출해야 한다.
+     */
+    static PointSnapshot snapshot(PointWriteAheadLog writeAheadLog, PointHistoryArchive pointHistoryArchive, Path snapshotPath) {
+        PointSnapshot previous = PointSnapshot.read(snapshotPath);
+        if (writeAheadLog.size() == 0 && writeAheadLog.activeSegmentId() == Math.max(previous.nextSegmentId(), 1L)) {
+            return previous; // 지난 스냅샷 이후 기록된 변경이 없다.
+        }
+        long boundary = writeAheadLog.rotate();
+        List<Long> segments = writeAheadLog.segmentIds().stream()
+                .filter(id -> id >= previous.nextSegmentId() && id < boundary)
+                .toList();
+        if (segments.isEmpty()) {
+            return previous;
+        }
+
+        // 지난번에 스냅샷을 쓰기 전에 중단되었다면 그때 옮긴 내역부터 다시 옮긴다.
+        pointHistoryArchive.truncateTo(previous.historyCursor());
+        Map<Long, Long> balances = new HashMap<>(previous.balances());
+        List<PointWalRecord> histories = new ArrayList<>(ARCHIVE_BATCH_SIZE);
+        for (long segmentId : segments) {
+            writeAheadLog.replayCommittedSegment(segmentId, record -> {
+                switch (record.kind()) {
+                    case BALANCE -> balances.put(record.userId(), record.amount());
+                    case HISTORY -> {
+                        histories.add(record);
+                        if (histories.size() == ARCHIVE_BATCH_SIZE) {
+                            pointHistoryArchive.append(histories);
+                            histories.clear();
+                        }
+                    }
+                }
+            });
+        }
+        pointHistoryArchive.append(histories);
+        pointHistoryArchive.force();
+
+        PointSnapshot snapshot = new PointSnapshot(boundary, pointHistoryArchive.count(), balances);
+        snapshot.write(snapshotPath);
+        writeAheadLog.deleteSegmentsBefore(boundary);
+        pointHistoryArchive.compact();
+        log.info("Wrote point snapshot with {} users, history cursor {}, covering {} log segments",
+                balances.size(), snapshot.historyCursor(), segments.size());
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+                scheduler.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            scheduler.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            log.error("Failed to write point snapshot: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.hhplus.tdd.point.wal;
+
+import io.hhplus.tdd.database.UserPointTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * write-ahead log 설정 (point.wal.enabled=true 일 때만 등록)
+ * - point.wal.directory 에 로그 세그먼트(*.wal), 스냅샷(point.snapshot), 내역 보관 디렉토리(history-archive)를 둔다.
+ * - 빈을 만들 때 스냅샷과 로그를 반영하므로(잔액은 테이블, 내역은 보관 파일), 저장소 빈은 복구가 끝난 상태를 사용한다.
+ * - point.wal.fsync : group(기본, fsync 후 응답) | interval(주기적 fsync)
+ */
+@Configuration
+@ConditionalOnProperty(name = "point.wal.enabled", havingValue = "true")
+public class PointWalConfig {
+
+    static final String SNAPSHOT_FILE = "point.snapshot";
+    static final String ARCHIVE_DIRECTORY = "history-archive";
+
+    @Bean
+    public PointHistoryArchive pointHistoryArchive(
+            @Value("${point.wal.directory:data/wal}") String directory,
+            @Value("${point.wal.archive.max-chunks:16}") int maxChunks
+    ) {
+        return new PointHistoryArchive(Path.of(directory, ARCHIVE_DIRECTORY), maxChunks);
+    }
+
+    @Bean
+    public PointWriteAheadLog pointWriteAheadLog(
+            UserPointTable userPointTable,
+            PointHistoryArchive pointHistoryArchive,
+            @Value("${point.wal.directory:data/wal}") String directory,
+            @Value("${point.wal.fsync:group}") String fsync,
+            @Value("${point.wal.fsync-interval-millis:10}") long fsyncIntervalMillis,
+            @Value("${point.wal.queue-capacity:10000}") int queueCapacity,
+            @Value("${point.wal.max-batch-size:512}") int maxBatchSize
+    ) {
+        PointWriteAheadLog.SyncMode syncMode = PointWriteAheadLog.SyncMode.valueOf(fsync.toUpperCase(Locale.ROOT));
+        PointWriteAheadLog writeAheadLog = new PointWriteAheadLog(Path.of(directory), syncMode, fsyncIntervalMillis, queueCapacity, maxBatchSize);
+        PointWalRecovery.recover(writeAheadLog, pointHistoryArchive, Path.of(directory, SNAPSHOT_FILE), userPointTable);
+        return writeAheadLog;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "point.wal.snapshot.enabled", havingValue = "true", matchIfMissing = true)
+    public PointSnapshotter pointSnapshotter(
+            PointWriteAheadLog pointWriteAheadLog,
+            PointHistoryArchive pointHistoryArchive,
+            @Value("${point.wal.directory:data/wal}") String directory,
+            @Value("${point.wal.snapshot.interval-millis:60000}") long intervalMillis
+    ) {
+        return new PointSnapshotter(pointWriteAheadLog, pointHistoryArchive, Path.of(directory, SNAPSHOT_FILE), intervalMillis);
+    }
+}
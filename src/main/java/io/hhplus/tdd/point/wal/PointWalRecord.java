@@ -0,0 +1,85 @@
+package io.hhplus.tdd.point.wal;
+
+import io.hhplus.tdd.point.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * write-ahead log 의 레코드 한 건
+ * - BALANCE : 유저 잔액 저장 (amount 가 저장된 잔액, type 은 null)
+ * - HISTORY : 포인트 내역 저장 (historyId 는 저장소가 부여한 내역 id. 재기동 후에도 같은 id 로 조회되도록 함께 남긴다)
+ * - LINKED_BALANCE : 뒤에 이어지는 잔액 레코드와 함께 반영되는 잔액 저장 (여러 유저를 한 그룹으로 기록할 때 마지막이 아닌 잔액)
+ * 고정 길이(SIZE)로 기록하며, 마지막 4바이트는 앞부분의 CRC32C 이다.
+ */
+public record PointWalRecord(
+        Kind kind,
+        long userId,
+        long amount,
+        TransactionType type,
+        long updateMillis,
+        long historyId
+) {
+    public static final int SIZE = 1 + 8 + 8 + 1 + 8 + 8 + 4;
+    private static final int BODY_SIZE = SIZE - 4;
+    private static final byte NO_TYPE = -1;
+
+    public enum Kind {
+        BALANCE, HISTORY, LINKED_BALANCE
+    }
+
+    public static PointWalRecord balance(long userId, long point) {
+        return new PointWalRecord(Kind.BALANCE, userId, point, null, 0L, 0L);
+    }
+
+    public static PointWalRecord linkedBalance(long userId, long point) {
+        return new PointWalRecord(Kind.LINKED_BALANCE, userId, point, null, 0L, 0L);
+    }
+
+    public static PointWalRecord history(long historyId, long userId, long amount, TransactionType type, long updateMillis) {
+        return new PointWalRecord(Kind.HISTORY, userId, amount, type, updateMillis, historyId);
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.put((byte) kind.ordinal())
+                .putLong(userId)
+                .putLong(amount)
+                .put(type != null ? (byte) type.ordinal() : NO_TYPE)
+                .putLong(updateMillis)
+                .putLong(historyId);
+        buffer.putInt(checksum(buffer, start));
+    }
+
+    /**
+     * SIZE 바이트를 읽어 레코드로 만든다. 체크섬이 맞지 않으면(기록 중 중단된 꼬리 등) null
+     */
+    static PointWalRecord readFrom(ByteBuffer buffer) {
+        int start = buffer.position();
+        int expected = checksum(buffer, start);
+        byte kind = buffer.get();
+        long userId = buffer.getLong();
+        long amount = buffer.getLong();
+        byte type = buffer.get();
+        long updateMillis = buffer.getLong();
+        long historyId = buffer.getLong();
+        int actual = buffer.getInt();
+        if (actual != expected || kind < 0 || kind >= Kind.values().length || type < NO_TYPE || type >= TransactionType.values().length) {
+            return null;
+        }
+        return new PointWalRecord(
+                Kind.values()[kind],
+                userId,
+                amount,
+                type == NO_TYPE ? null : TransactionType.values()[type],
+                updateMillis,
+                historyId
+        );
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start, BODY_SIZE));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,57 @@
+package io.hhplus.tdd.point.wal;
+
+import io.hhplus.tdd.database.UserPointTable;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+
+/**
+ * 기동 시 스냅샷과 write-ahead log 를 반영한다.
+ * - 스냅샷 뒤 세그먼트는 스냅샷을 만들 때와 같은 방법으로 새 스냅샷에 합친다. 그 안의 내역은 로그에 남긴 id 그대로 보관 파일로 옮긴다.
+ *   테이블은 내역 id 를 직접 부여하므로, 테이블에 다시 넣으면 id 가 기록 순서대로 새로 매겨져 커서와 id 가 바뀌기 때문이다.
+ * - 잔액은 새 스냅샷의 유저별 마지막 값을 테이블의 공개 API(insertOrUpdate)로 넣는다.
+ * - 잔액 레코드로 끝나지 않은 내역(기록 도중 중단된 요청)은 옮기지 않는다.
+ * - 보관 파일의 내역은 모두 조회 대상이 되고, 기동 후 테이블에 저장되는 내역의 id 는 그 뒤에 이어진다. (ArchivedPointHistoryRepository)
+ * 따라서 기동 시간은 전체 내역 수가 아니라 유저 수와 마지막 스냅샷 이후의 변경량에 비례한다.
+ */
+@Slf4j
+public final class PointWalRecovery {
+
+    private PointWalRecovery() {
+    }
+
+    public static Result recover(
+            PointWriteAheadLog writeAheadLog,
+            PointHistoryArchive pointHistoryArchive,
+            Path snapshotPath,
+            UserPointTable userPointTable
+    ) {
+        PointSnapshot previous = PointSnapshot.read(snapshotPath);
+        if (writeAheadLog.activeSegmentId() < previous.nextSegmentId()) {
+            throw new IllegalStateException(String.format("write-ahead log 세그먼트(%d)가 스냅샷(%d)보다 오래되었습니다: %s",
+                    writeAheadLog.activeSegmentId(), previous.nextSegmentId(), writeAheadLog.directory()));
+        }
+        // 스냅샷을 쓴 뒤 지우지 못한 세그먼트는 이미 반영되었으므로 정리한다.
+        writeAheadLog.deleteSegmentsBefore(previous.nextSegmentId());
+        pointHistoryArchive.truncateTo(previous.historyCursor());
+
+        PointSnapshot snapshot = PointSnapshotter.snapshot(writeAheadLog, pointHistoryArchive, snapshotPath);
+        pointHistoryArchive.recover(snapshot.historyCursor());
+        snapshot.balances().forEach(userPointTable::insertOrUpdate);
+
+        Result result = new Result(snapshot.balances().size(), snapshot.historyCursor() - previous.historyCursor(),
+                snapshot.historyCursor(), pointHistoryArchive.lastVisibleId());
+        log.info("Recovered {} user points and archived {} point histories (history cursor {}, last history id {}) from {}",
+                result.userPoints(), result.pointHistories(), result.historyCursor(), result.lastHistoryId(), writeAheadLog.directory());
+        return result;
+    }
+
+    /**
+     * @param userPoints     테이블에 넣은 잔액 수
+     * @param pointHistories 이번 기동에서 로그로부터 보관 파일로 옮긴 내역 수
+     * @param historyCursor  보관 파일의 내역 수
+     * @param lastHistoryId  보관 파일의 마지막 내역 id (기동 후 저장되는 내역의 id 는 이보다 크다)
+     */
+    public record Result(long userPoints, long pointHistories, long historyCursor, long lastHistoryId) {
+    }
+}
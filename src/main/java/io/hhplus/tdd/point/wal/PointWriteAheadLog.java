@@ -0,0 +1,550 @@
+package io.hhplus.tdd.point.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 포인트 변경 write-ahead log (append-only 세그먼트 파일)
+ * - append()는 레코드를 큐에 넣고, 전용 writer 쓰레드가 큐를 batch 단위로 꺼내 한 번에 기록한다.
+ * - GROUP : batch 마다 fsync 를 한 번 수행하고, fsync 가 끝난 뒤에 append()가 반환된다. (group commit)
+ * - INTERVAL : 기록 직후 append()가 반환되고, fsync 는 syncIntervalMillis 주기로 수행한다. (장애 시 주기만큼 유실 가능)
+ * - 파일 쓰기는 writer 쓰레드만 하므로 요청 쓰레드가 인터럽트되어도 채널이 닫히지 않는다.
+ * - 로그는 디렉토리 안의 세그먼트(0000…1.wal, 0000…2.wal …)로 나뉘며, rotate()로 새 세그먼트로 넘어간다.
+ *   닫힌 세그먼트는 스냅샷에 반영한 뒤 deleteSegmentsBefore()로 지운다.
+ * - 내역 레코드는 stage()로 유저별로 모아두었다가 commit()으로 같은 유저의 잔액 레코드와 함께 한 번에 기록한다.
+ *   commitAll()은 여러 유저의 내역과 잔액을 한 그룹으로 기록하며, 마지막이 아닌 잔액은 LINKED_BALANCE 로 남긴다.
+ *   한 번에 기록하는 레코드(그룹)는 큐에 연달아 들어가므로 다른 기록이나 rotate 가 끼어들지 않고, 항상 잔액 레코드로 끝난다.
+ * - 열 때 마지막 세그먼트의 체크섬이 깨진 꼬리(기록 중 중단된 레코드)와 잔액 레코드로 끝나지 않은 그룹은 잘라낸다.
+ */
+@Slf4j
+public class PointWriteAheadLog implements AutoCloseable {
+
+    public enum SyncMode {
+        GROUP, INTERVAL
+    }
+
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final int READ_CHUNK_RECORDS = 1024;
+
+    private final Path directory;
+    private final SyncMode syncMode;
+    private final long syncIntervalNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingRecord> queue;
+    private final ByteBuffer writeBuffer;
+    private final Thread writer;
+    private final ReentrantLock enqueueLock = new ReentrantLock(); // 그룹의 레코드가 큐에 연달아 들어가도록 한다.
+    private final Map<Long, List<PointWalRecord>> staged = new ConcurrentHashMap<>(); // 유저별로 잔액과 함께 기록할 내역 레코드
+    private final AtomicLong syncCount = new AtomicLong();
+    private FileChannel channel; // writer 쓰레드만 변경한다. (생성자, close 제외)
+    private volatile long activeSegmentId;
+    private volatile long validEnd; // 활성 세그먼트에서 마지막으로 온전히 기록된 레코드의 끝 위치
+    private volatile boolean running = true;
+
+    public PointWriteAheadLog(Path directory, SyncMode syncMode, long syncIntervalMillis, int queueCapacity, int maxBatchSize) {
+        if (syncIntervalMillis <= 0 || queueCapacity <= 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("syncIntervalMillis, queueCapacity, maxBatchSize는 0보다 커야합니다.");
+        }
+        this.directory = directory;
+        this.syncMode = syncMode;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.writeBuffer = ByteBuffer.allocateDirect(maxBatchSize * PointWalRecord.SIZE);
+        try {
+            Files.createDirectories(directory);
+            List<Long> segments = segmentIds();
+            this.activeSegmentId = segments.isEmpty() ? 1L : segments.get(segments.size() - 1);
+            this.channel = openSegment(activeSegmentId);
+            this.validEnd = recoverTail();
+        } catch (IOException e) {
+            throw new UncheckedIOException("write-ahead log 를 열 수 없습니다: " + directory, e);
+        }
+        this.writer = new Thread(this::writeLoop, "point-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * 레코드를 기록한다. GROUP 모드에서는 디스크에 반영(fsync)된 뒤에 반환한다.
+     */
+    public void append(PointWalRecord record) {
+        enqueue(new PendingRecord(record));
+    }
+
+    /**
+     * 여러 레코드를 이어서 접수하고 모두 기록될 때까지 기다린다.
+     * - 다른 기록이 끼어들지 않도록 연달아 큐에 넣으므로 보통 같은 batch 에 묶여 fsync 한 번으로 반영된다.
+     */
+    public void appendAll(List<PointWalRecord> records) {
+        List<PendingRecord> pendings = new ArrayList<>(records.size());
+        for (PointWalRecord record : records) {
+            pendings.add(new PendingRecord(record));
+        }
+        enqueueLock.lock();
+        try {
+            for (PendingRecord pending : pendings) {
+                put(pending);
+            }
+        } finally {
+            enqueueLock.unlock();
+        }
+        for (PendingRecord pending : pendings) {
+            await(pending);
+        }
+    }
+
+    /**
+     * 내역 레코드를 바로 기록하지 않고, 같은 유저의 다음 commit() 때 함께 기록하도록 모아둔다.
+     * - 같은 유저의 stage / commit 은 호출하는 쪽에서 순서대로(유저별 Lock, shard 등) 부른다.
+     */
+    public void stage(PointWalRecord record) {
+        if (record.kind() != PointWalRecord.Kind.HISTORY) {
+            throw new IllegalArgumentException("내역 레코드만 모아둘 수 있습니다.");
+        }
+        staged.compute(record.userId(), (userId, records) -> {
+            List<PointWalRecord> target = records != null ? records : new ArrayList<>();
+            target.add(record);
+            return target;
+        });
+    }
+
+    /**
+     * 유저의 모아둔 내역 레코드를 기록하지 않고 버린다. 잔액을 저장하지 못하고 끝난 요청이 호출한다.
+     * - 버리지 않으면 실패한 요청의 내역이 같은 유저의 다음 commit() 때 함께 기록된다.
+     */
+    public void discard(long userId) {
+        staged.remove(userId);
+    }
+
+    /**
+     * 유저의 잔액 레코드를 그동안 모아둔 내역 레코드 뒤에 붙여 한 번에 기록한다. (fsync 한 번)
+     * - 잔액 레코드가 그룹의 끝을 나타내므로, 기록 도중 중단되면 그룹 전체가 재생되지 않는다.
+     */
+    public void commit(PointWalRecord balance) {
+        commitAll(List.of(balance));
+    }
+
+    /**
+     * 여러 유저의 잔액 레코드를 그동안 모아둔 각 유저의 내역 레코드 뒤에 붙여 한 그룹으로 기록한다. (fsync 한 번)
+     * - 마지막 잔액만 BALANCE 로, 나머지는 LINKED_BALANCE 로 기록하므로 기록 도중 중단되면 어느 유저의 변경도 재생되지 않는다.
+     */
+    public void commitAll(List<PointWalRecord> balances) {
+        if (balances.isEmpty() || balances.stream().anyMatch(balance -> balance.kind() != PointWalRecord.Kind.BALANCE)) {
+            throw new IllegalArgumentException("잔액 레코드로만 기록을 마칠 수 있습니다.");
+        }
+        List<PointWalRecord> records = new ArrayList<>();
+        for (PointWalRecord balance : balances) {
+            List<PointWalRecord> histories = staged.remove(balance.userId());
+            if (histories != null) {
+                records.addAll(histories);
+            }
+        }
+        for (int i = 0; i < balances.size() - 1; i++) {
+            records.add(PointWalRecord.linkedBalance(balances.get(i).userId(), balances.get(i).amount()));
+        }
+        records.add(balances.get(balances.size() - 1));
+        if (records.size() == 1) {
+            append(records.get(0));
+            return;
+        }
+        appendAll(records);
+    }
+
+    /**
+     * 지금까지 접수된 레코드를 현재 세그먼트에 기록/fsync 하고 새 세그먼트로 넘어간다.
+     * @return 새 활성 세그먼트 번호 (이보다 작은 세그먼트는 더 이상 변경되지 않는다)
+     */
+    public long rotate() {
+        return enqueue(new PendingRecord(null));
+    }
+
+    /**
+     * 모든 세그먼트의 온전한 레코드를 순서대로 전달한다.
+     */
+    public void replay(Consumer<PointWalRecord> consumer) {
+        replayFrom(0L, consumer);
+    }
+
+    /**
+     * fromSegmentId 이상인 세그먼트의 온전한 레코드를 순서대로 전달한다.
+     */
+    public void replayFrom(long fromSegmentId, Consumer<PointWalRecord> consumer) {
+        for (long segmentId : segmentIds()) {
+            if (segmentId >= fromSegmentId) {
+                replaySegment(segmentId, consumer);
+            }
+        }
+    }
+
+    /**
+     * fromSegmentId 이상인 세그먼트에서 잔액 레코드로 끝난 그룹의 레코드만 순서대로 전달한다.
+     * - 잔액 레코드 없이 끝난 내역 레코드(기록 도중 중단된 그룹)는 건너뛴다.
+     * - LINKED_BALANCE 는 그룹이 끝난 뒤 BALANCE 로 바꿔서 전달한다.
+     */
+    public void replayCommittedFrom(long fromSegmentId, Consumer<PointWalRecord> consumer) {
+        for (long segmentId : segmentIds()) {
+            if (segmentId >= fromSegmentId) {
+                replayCommittedSegment(segmentId, consumer);
+            }
+        }
+    }
+
+    /**
+     * 세그먼트 하나에서 잔액 레코드로 끝난 그룹의 레코드만 순서대로 전달한다. (그룹은 세그먼트를 넘지 않는다)
+     */
+    public void replayCommittedSegment(long segmentId, Consumer<PointWalRecord> consumer) {
+        List<PointWalRecord> group = new ArrayList<>();
+        replaySegment(segmentId, record -> {
+            group.add(record.kind() == PointWalRecord.Kind.LINKED_BALANCE ? PointWalRecord.balance(record.userId(), record.amount()) : record);
+            if (record.kind() == PointWalRecord.Kind.BALANCE) {
+                group.forEach(consumer);
+                group.clear();
+            }
+        });
+        if (!group.isEmpty()) {
+            log.warn("Skipped {} uncommitted write-ahead log records at the end of {}", group.size(), segmentPath(segmentId));
+        }
+    }
+
+    /**
+     * 세그먼트 하나의 온전한 레코드를 순서대로 전달한다. 깨진 레코드를 만나면 거기서 멈춘다.
+     */
+    public void replaySegment(long segmentId, Consumer<PointWalRecord> consumer) {
+        Path segment = segmentPath(segmentId);
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK_RECORDS * PointWalRecord.SIZE);
+        try (FileChannel reader = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long end = segmentId == activeSegmentId ? validEnd : reader.size();
+            end -= end % PointWalRecord.SIZE;
+            long position = 0;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                readFully(reader, buffer, position);
+                buffer.flip();
+                while (buffer.remaining() >= PointWalRecord.SIZE) {
+                    PointWalRecord record = PointWalRecord.readFrom(buffer);
+                    if (record == null) {
+                        log.warn("Stopped replaying corrupted write-ahead log segment {} at {}", segment, position);
+                        return;
+                    }
+                    consumer.accept(record);
+                    position += PointWalRecord.SIZE;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("write-ahead log 를 읽을 수 없습니다: " + segment, e);
+        }
+    }
+
+    /**
+     * segmentId 보다 작은 (닫힌) 세그먼트를 지운다.
+     */
+    public void deleteSegmentsBefore(long segmentId) {
+        if (segmentId > activeSegmentId) {
+            throw new IllegalArgumentException("활성 세그먼트는 지울 수 없습니다.");
+        }
+        for (long id : segmentIds()) {
+            if (id < segmentId) {
+                try {
+                    Files.deleteIfExists(segmentPath(id));
+                } catch (IOException e) {
+                    throw new UncheckedIOException("write-ahead log 세그먼트를 지울 수 없습니다: " + segmentPath(id), e);
+                }
+            }
+        }
+    }
+
+    public List<Long> segmentIds() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> name.substring(0, name.length() - SEGMENT_SUFFIX.length()))
+                    .filter(name -> !name.isEmpty() && name.chars().allMatch(Character::isDigit))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("write-ahead log 디렉토리를 읽을 수 없습니다: " + directory, e);
+        }
+    }
+
+    public long activeSegmentId() {
+        return activeSegmentId;
+    }
+
+    /**
+     * 활성 세그먼트에 온전히 기록된 크기 (bytes)
+     */
+    public long size() {
+        return validEnd;
+    }
+
+    public long syncCount() {
+        return syncCount.get();
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    Path segmentPath(long segmentId) {
+        return directory.resolve(String.format("%020d%s", segmentId, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * 새 레코드 접수를 막고, 큐에 남은 레코드를 기록/fsync 한 뒤 파일을 닫는다.
+     */
+    @Override
+    public void close() {
+        enqueueLock.lock(); // 큐에 넣는 중인 기록이 끝난 뒤에 접수를 막는다. 이후로는 큐에 새 레코드가 들어오지 않는다.
+        try {
+            running = false;
+        } finally {
+            enqueueLock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PendingRecord pending;
+        while ((pending = queue.poll()) != null) {
+            pending.done.completeExceptionally(new IllegalStateException("write-ahead log 가 종료되었습니다."));
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            log.error("Failed to close write-ahead log {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private Long enqueue(PendingRecord pending) {
+        enqueueLock.lock();
+        try {
+            put(pending);
+        } finally {
+            enqueueLock.unlock();
+        }
+        return await(pending);
+    }
+
+    // enqueueLock 을 잡은 상태에서 호출한다.
+    private void put(PendingRecord pending) {
+        if (!running) {
+            throw new IllegalStateException("write-ahead log 가 종료되었습니다.");
+        }
+        try {
+            while (!queue.offer(pending, 100, TimeUnit.MILLISECONDS)) {
+                checkWriterAlive();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("write-ahead log 기록이 중단되었습니다.", e);
+        }
+    }
+
+    /**
+     * 접수된 레코드가 기록될 때까지 기다린다.
+     * - 접수된 레코드는 writer 가 기록하거나 close()가 실패로 완료하므로, writer 가 살아있는 동안만 기다린다.
+     */
+    private Long await(PendingRecord pending) {
+        try {
+            while (true) {
+                try {
+                    return pending.done.get(100, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    checkWriterAlive();
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("write-ahead log 기록 대기가 중단되었습니다.", e);
+        }
+    }
+
+    private void checkWriterAlive() {
+        if (!writer.isAlive()) {
+            throw new IllegalStateException("write-ahead log 가 기록하지 못하고 있습니다.");
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> batch = new ArrayList<>(maxBatchSize);
+        List<PendingRecord> records = new ArrayList<>(maxBatchSize);
+        long lastSyncNanos = System.nanoTime();
+        boolean unsynced = false;
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingRecord first = queue.poll(syncMode == SyncMode.INTERVAL ? syncIntervalNanos : TimeUnit.MILLISECONDS.toNanos(100), TimeUnit.NANOSECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - 1);
+                }
+                for (PendingRecord pending : batch) {
+                    if (pending.record != null) {
+                        records.add(pending);
+                        continue;
+                    }
+                    // rotate 요청 앞에 접수된 레코드는 현재 세그먼트에 남기고 넘어간다.
+                    unsynced = commit(records, unsynced, true);
+                    records.clear();
+                    lastSyncNanos = System.nanoTime();
+                    rotateSegment(pending);
+                }
+                if (!records.isEmpty() || unsynced) {
+                    boolean force = syncMode == SyncMode.GROUP || System.nanoTime() - lastSyncNanos >= syncIntervalNanos;
+                    unsynced = commit(records, unsynced, force);
+                    if (force) {
+                        lastSyncNanos = System.nanoTime();
+                    }
+                }
+                records.clear();
+                batch.clear();
+            } catch (InterruptedException e) {
+                // close()를 통해서만 종료하므로 인터럽트는 무시하고 남은 레코드를 계속 처리한다.
+            }
+        }
+    }
+
+    /**
+     * 레코드를 기록하고, force 가 true 면 fsync 까지 수행한 뒤 호출자에게 완료를 알린다.
+     * @return fsync 되지 않은 기록이 남아있는지 여부
+     */
+    private boolean commit(List<PendingRecord> records, boolean unsynced, boolean force) {
+        try {
+            if (!records.isEmpty()) {
+                write(records);
+                unsynced = true;
+            }
+            if (unsynced && force) {
+                channel.force(false);
+                syncCount.incrementAndGet();
+                unsynced = false;
+            }
+            records.forEach(pending -> pending.done.complete(null));
+        } catch (IOException e) {
+            log.error("Failed to write point write-ahead log: {}", e.getMessage());
+            UncheckedIOException failure = new UncheckedIOException("write-ahead log 기록에 실패했습니다.", e);
+            records.forEach(pending -> pending.done.completeExceptionally(failure));
+        }
+        return unsynced;
+    }
+
+    private void rotateSegment(PendingRecord pending) {
+        try {
+            FileChannel next = openSegment(activeSegmentId + 1);
+            channel.close();
+            channel = next;
+            validEnd = 0L;
+            activeSegmentId++;
+            pending.done.complete(activeSegmentId);
+        } catch (IOException e) {
+            log.error("Failed to rotate point write-ahead log: {}", e.getMessage());
+            pending.done.completeExceptionally(new UncheckedIOException("write-ahead log 세그먼트를 만들 수 없습니다.", e));
+        }
+    }
+
+    private void write(List<PendingRecord> records) throws IOException {
+        writeBuffer.clear();
+        for (PendingRecord pending : records) {
+            pending.record.writeTo(writeBuffer);
+        }
+        writeBuffer.flip();
+        long position = validEnd;
+        try {
+            while (writeBuffer.hasRemaining()) {
+                position += channel.write(writeBuffer, position);
+            }
+        } catch (IOException e) {
+            // 일부만 기록된 batch 는 다음 batch 가 덮어쓰도록 끝 위치를 옮기지 않는다.
+            channel.truncate(validEnd);
+            throw e;
+        }
+        validEnd = position;
+    }
+
+    private FileChannel openSegment(long segmentId) throws IOException {
+        return FileChannel.open(segmentPath(segmentId), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 활성 세그먼트에서 마지막으로 끝난 그룹(잔액 레코드)의 끝 위치를 찾고, 그 뒤의 깨진 꼬리와 끝나지 않은 그룹은 잘라낸다.
+     * - 끝나지 않은 그룹을 남겨두면 이어서 기록되는 같은 유저의 그룹에 붙어서 재생되므로 열 때 지운다.
+     */
+    private long recoverTail() throws IOException {
+        long fileSize = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK_RECORDS * PointWalRecord.SIZE);
+        long position = 0;
+        long committed = 0;
+        scan:
+        while (position + PointWalRecord.SIZE <= fileSize) {
+            buffer.clear();
+            long chunk = Math.min(buffer.capacity(), fileSize - position);
+            buffer.limit((int) (chunk - chunk % PointWalRecord.SIZE));
+            readFully(channel, buffer, position);
+            buffer.flip();
+            while (buffer.remaining() >= PointWalRecord.SIZE) {
+                PointWalRecord record = PointWalRecord.readFrom(buffer);
+                if (record == null) {
+                    break scan;
+                }
+                position += PointWalRecord.SIZE;
+                if (record.kind() == PointWalRecord.Kind.BALANCE) {
+                    committed = position;
+                }
+            }
+        }
+        if (committed < fileSize) {
+            log.warn("Truncating {} bytes of incomplete write-ahead log tail in {}", fileSize - committed, segmentPath(activeSegmentId));
+            channel.truncate(committed);
+            channel.force(false);
+        }
+        return committed;
+    }
+
+    private static void readFully(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = source.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("예상보다 일찍 파일 끝에 도달했습니다.");
+            }
+        }
+    }
+
+    private static class PendingRecord {
+        private final PointWalRecord record; // null 이면 rotate 요청
+        private final CompletableFuture<Long> done = new CompletableFuture<>();
+
+        private PendingRecord(PointWalRecord record) {
+            this.record = record;
+        }
+    }
+}
@@ -6,7 +6,9 @@ import io.hhplus.tdd.point.repository.PointHistoryRepository;
 import io.hhplus.tdd.point.repository.PointHistoryRepositoryImpl;
 import io.hhplus.tdd.point.repository.UserPointRepository;
 import io.hhplus.tdd.point.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.point.service.OptimisticPointCommandEngine;
 import io.hhplus.tdd.point.service.PointService;
+import io.hhplus.tdd.point.service.UserLockManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
@@ -14,6 +16,8 @@ import org.junit.jupiter.api.DisplayName;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -61,6 +65,93 @@ public class ConcurrentTest { // 동시성 제어 테스트
         verifyUserPoints();
     }
 
+    @Test
+    @DisplayName("낙관적(CAS) 모드에서도 동시 요청 시 포인트 충전 및 사용을 순차적으로 처리한다.")
+    void chargeOrUsePointWithOthersThenSequentiallyInOptimisticMode() throws InterruptedException {
+        // given
+        useOptimisticEngine(8);
+        final int threadCount = 5;
+        final ExecutorService executorService = Executors.newFixedThreadPool(16);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when
+        submitChargeAndUseRequests(executorService, latch, threadCount);
+        latch.await();
+        executorService.shutdown();
+
+        // then
+        assertThat(pointService.getUserPoint(123L).point()).isEqualTo(0);
+        assertThat(pointService.getUserPoint(456L).point()).isEqualTo(0);
+        assertThat(pointService.getUserPoint(789L).point()).isEqualTo(0);
+        assertThat(pointHistoryTable.selectAllByUserId(123L)).hasSize(threadCount * 2);
+    }
+
+    @Test
+    @DisplayName("낙관적(CAS) 모드에서 재시도를 다 쓰면 대기열로 넘어가도 충전이 누락되지 않는다.")
+    void optimisticModeFallsBackToQueueUnderContention() throws InterruptedException {
+        // given
+        useOptimisticEngine(0); // 첫 CAS 실패부터 바로 대기열로 보낸다.
+        final long userId = 123L;
+        final int threadCount = 30;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointService.chargeUserPoint(userId, 100L);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(60, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(pointService.getUserPoint(userId).point()).isEqualTo(100L * threadCount);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(threadCount);
+    }
+
+    @Test
+    @DisplayName("낙관적(CAS) 모드에서 동시에 사용해도 잔액보다 많이 사용되지 않는다.")
+    void optimisticModeNeverOverdraws() throws InterruptedException {
+        // given
+        useOptimisticEngine(8);
+        final long userId = 456L;
+        pointService.chargeUserPoint(userId, 1000L);
+        final int threadCount = 20;
+        final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch latch = new CountDownLatch(threadCount);
+        final AtomicInteger succeeded = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointService.useUserPoint(userId, 100L);
+                    succeeded.incrementAndGet();
+                } catch (IllegalArgumentException ignored) {
+                    // 잔액 부족으로 거절된 요청
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(60, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(succeeded.get()).isEqualTo(10);
+        assertThat(pointService.getUserPoint(userId).point()).isEqualTo(0);
+    }
+
+    private void useOptimisticEngine(int maxRetries) {
+        pointService.setCommandEngine(new OptimisticPointCommandEngine(
+                userPointRepository, pointHistoryRepository, new UserLockManager(), maxRetries, 100L));
+    }
+
     private void submitChargeAndUseRequests(ExecutorService executorService, CountDownLatch latch, int threadCount) {
         System.out.println("시작");
         for (int i = 0; i < threadCount; i++) {
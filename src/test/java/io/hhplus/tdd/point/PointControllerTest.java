@@ -1,5 +1,8 @@
 package io.hhplus.tdd.point;
 
+import io.hhplus.tdd.point.service.PointBulkService;
+import io.hhplus.tdd.point.service.PointConcurrencyLimiter;
+import io.hhplus.tdd.point.service.PointRateLimiter;
 import io.hhplus.tdd.point.service.PointService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,9 +12,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -30,6 +40,15 @@ class PointControllerTest {
     @MockBean
     private PointService pointService;
 
+    @MockBean
+    private PointBulkService pointBulkService;
+
+    @MockBean
+    private PointRateLimiter pointRateLimiter;
+
+    @MockBean
+    private PointConcurrencyLimiter pointConcurrencyLimiter;
+
     @BeforeEach
     public void beforeEach() {}
 
@@ -77,6 +96,84 @@ class PointControllerTest {
                 .andExpect(jsonPath("$[1].amount", is(1000)));
     }
 
+    @Test
+    @DisplayName("특정 유저의 히스토리를 커서 기반으로 페이지 조회할 수 있다.")
+    void getUserPointHistories_withCursor_shouldReturnPageAndNextCursor() throws Exception {
+        // given
+        long userId = 123L;
+        PointHistory history = new PointHistory(9L, userId, 1000L, TransactionType.USE, System.currentTimeMillis());
+        when(pointService.getUserPointHistories(userId, 10L, 1, PointHistoryOrder.DESC))
+                .thenReturn(new PointHistoryPage(List.of(history), 9L));
+
+        // when & then
+        mockMvc.perform(get("/point/{id}/histories", userId)
+                        .param("cursor", "10")
+                        .param("limit", "1")
+                        .param("order", "DESC"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "9"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(9)));
+    }
+
+    @Test
+    @DisplayName("특정 유저의 충전/사용 합계를 시간 구간별로 조회할 수 있다.")
+    void getUserPointSummary_shouldReturnTotalsAndBuckets() throws Exception {
+        // given
+        long userId = 123L;
+        PointHistorySummary summary = new PointHistorySummary(userId, 3_600_000L, 5000L, 1000L, 2L, 1L,
+                List.of(new PointHistorySummary.Bucket(0L, 5000L, 1000L, 2L, 1L)));
+        when(pointService.getUserPointSummary(userId, 0L, 3_600_000L)).thenReturn(summary);
+
+        // when & then
+        mockMvc.perform(get("/point/{id}/histories/summary", userId)
+                        .param("fromMillis", "0")
+                        .param("toMillis", "3600000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.chargedAmount", is(5000)))
+                .andExpect(jsonPath("$.useCount", is(1)))
+                .andExpect(jsonPath("$.buckets", hasSize(1)))
+                .andExpect(jsonPath("$.buckets[0].chargeCount", is(2)));
+    }
+
+    @Test
+    @DisplayName("여러 유저의 히스토리를 NDJSON 으로 내보낼 수 있다.")
+    void exportHistories_shouldStreamNdjson() throws Exception {
+        // given
+        PointHistory history1 = new PointHistory(1L, 1L, 5000L, TransactionType.CHARGE, 10L);
+        PointHistory history2 = new PointHistory(2L, 2L, 1000L, TransactionType.CHARGE, 20L);
+        doAnswer(invocation -> {
+            Consumer<PointHistory> sink = invocation.getArgument(1);
+            sink.accept(history1);
+            sink.accept(history2);
+            return null;
+        }).when(pointService).exportHistories(any(PointHistoryExportQuery.class), any());
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(get("/point/histories/export")
+                        .param("fromUserId", "1")
+                        .param("toUserId", "2")
+                        .param("type", "CHARGE"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"id\":1,\"userId\":1,\"amount\":5000,\"type\":\"CHARGE\",\"updateMillis\":10}\n"
+                                + "{\"id\":2,\"userId\":2,\"amount\":1000,\"type\":\"CHARGE\",\"updateMillis\":20}\n"));
+    }
+
+    @Test
+    @DisplayName("내보낼 유저를 지정하지 않으면 내보내기에 실패한다.")
+    void exportHistories_withoutUsers_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/point/histories/export"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("400")));
+    }
+
     @Test
     @DisplayName("유저의 포인트 충전 요청")
     void chargeUserPoint_shouldReturnUpdatedUserPoint() throws Exception {
@@ -97,6 +194,25 @@ class PointControllerTest {
                 .andExpect(jsonPath("$.point", is(10000)));
     }
 
+    @Test
+    @DisplayName("Idempotency-Key 헤더가 있으면 키와 함께 충전을 요청한다.")
+    void chargeUserPoint_withIdempotencyKey_shouldPassKey() throws Exception {
+        // given
+        long userId = 123L;
+        long amount = 10_000L;
+        String idempotencyKey = "charge-123-1";
+        when(pointService.chargeUserPoint(userId, amount, idempotencyKey)).thenReturn(new UserPoint(userId, amount, 0));
+
+        // when & then
+        mockMvc.perform(patch("/point/{id}/charge", userId)
+                        .header("Idempotency-Key", idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(String.valueOf(amount)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.point", is(10000)));
+        verify(pointService, never()).chargeUserPoint(userId, amount);
+    }
+
     @Test
     @DisplayName("유저의 포인트 사용 요청")
     void useUserPoint_shouldReturnUpdatedUserPoint() throws Exception {
@@ -114,4 +230,99 @@ class PointControllerTest {
                 .andExpect(jsonPath("$.id", is((int) userId)))
                 .andExpect(jsonPath("$.point", is(4000)));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("기한 안에 유저 Lock 을 얻지 못한 충전 요청은 503 과 Retry-After 로 응답한다.")
+    void charge_whenLockTimedOut_shouldReturnServiceUnavailable() throws Exception {
+        // given
+        long userId = 123L;
+        when(pointService.chargeUserPoint(userId, 1000L))
+                .thenThrow(new PointTimeoutException(PointTimeoutReason.LOCK_TIMEOUT, "요청이 몰려 기한 안에 처리하지 못했습니다."));
+
+        // when & then
+        mockMvc.perform(patch("/point/{id}/charge", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("1000"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.code", is("503")));
+    }
+
+    @Test
+    @DisplayName("유저별 요청 수 제한을 넘은 사용 요청은 서비스를 호출하지 않고 429 로 거절한다.")
+    void use_whenRateLimited_shouldReturnTooManyRequests() throws Exception {
+        // given
+        long userId = 123L;
+        doThrow(new PointThrottledException(PointThrottleReason.USER_RATE_LIMIT, 2L, "요청이 너무 많습니다."))
+                .when(pointRateLimiter).acquire(userId);
+
+        // when & then
+        mockMvc.perform(patch("/point/{id}/use", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("1000"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.code", is("429")));
+        verify(pointService, never()).useUserPoint(userId, 1000L);
+    }
+
+    @Test
+    @DisplayName("한 유저의 포인트를 다른 유저에게 옮기면 두 유저의 잔액을 돌려준다.")
+    void transfer_shouldReturnBothUserPoints() throws Exception {
+        // given
+        when(pointService.transfer(1L, 2L, 300L)).thenReturn(new PointTransferResult(
+                new UserPoint(1L, 700L, 0L),
+                new UserPoint(2L, 800L, 0L)
+        ));
+
+        // when & then
+        mockMvc.perform(post("/point/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromUserId\":1,\"toUserId\":2,\"amount\":300}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.from.point", is(700)))
+                .andExpect(jsonPath("$.to.point", is(800)));
+        verify(pointRateLimiter).acquire(1L);
+    }
+
+    @Test
+    @DisplayName("현재 설정에서 포인트 이동을 지원하지 않으면 501 을 돌려준다.")
+    void transfer_shouldReturnNotImplementedWhenUnsupported() throws Exception {
+        // given
+        when(pointService.transfer(1L, 2L, 300L))
+                .thenThrow(new PointUnsupportedException("포인트 이동은 point.service.engine=lock 에서만 지원합니다."));
+
+        // when & then
+        mockMvc.perform(post("/point/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromUserId\":1,\"toUserId\":2,\"amount\":300}"))
+                .andExpect(status().isNotImplemented())
+                .andExpect(jsonPath("$.code", is("501")));
+    }
+
+    @Test
+    @DisplayName("여러 유저의 포인트 충전/사용을 한 번에 요청하면 항목별 결과를 돌려준다.")
+    void bulk_shouldReturnResultPerItem() throws Exception {
+        // given
+        List<PointBulkItem> items = List.of(
+                new PointBulkItem(1L, TransactionType.CHARGE, 1000L),
+                new PointBulkItem(2L, TransactionType.USE, 500L)
+        );
+        when(pointBulkService.process(items)).thenReturn(List.of(
+                PointBulkResult.success(0, new UserPoint(1L, 1000L, 0L)),
+                PointBulkResult.failure(1, 2L, "잔고부족")
+        ));
+
+        // when & then
+        mockMvc.perform(post("/point/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"userId\":1,\"type\":\"CHARGE\",\"amount\":1000},"
+                                + "{\"userId\":2,\"type\":\"USE\",\"amount\":500}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].success", is(true)))
+                .andExpect(jsonPath("$[0].userPoint.point", is(1000)))
+                .andExpect(jsonPath("$[1].success", is(false)))
+                .andExpect(jsonPath("$[1].message", is("잔고부족")));
+    }
+}
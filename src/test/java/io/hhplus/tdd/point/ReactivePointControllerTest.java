@@ -0,0 +1,117 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.point.service.PointConcurrencyLimiter;
+import io.hhplus.tdd.point.service.PointRateLimiter;
+import io.hhplus.tdd.point.service.ReactivePointService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ReactivePointController.class, properties = "point.admission.max-concurrent=1")
+@Import({PointRateLimiter.class, PointConcurrencyLimiter.class})
+class ReactivePointControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactivePointService reactivePointService;
+
+    @Test
+    @DisplayName("충전 요청은 비동기로 처리되어 충전된 포인트를 돌려준다.")
+    void charge_shouldReturnUpdatedUserPointAsynchronously() throws Exception {
+        // given
+        long userId = 123L;
+        when(reactivePointService.chargeUserPoint(userId, 1000L)).thenReturn(Mono.just(new UserPoint(userId, 1000L, 0L)));
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(patch("/reactive/point/{id}/charge", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.point", is(1000)));
+    }
+
+    @Test
+    @DisplayName("처리 중인 요청은 PointController 의 동시 처리 수 한도를 나눠 쓰지 않는다.")
+    void charge_isNotLimitedByServletConcurrencyLimit() throws Exception {
+        // given : PointController 의 한도(1)보다 많은 요청이 처리 중이다.
+        long userId = 123L;
+        when(reactivePointService.chargeUserPoint(userId, 1000L)).thenReturn(Mono.never());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(patch("/reactive/point/{id}/charge", userId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("1000"))
+                    .andExpect(request().asyncStarted());
+        }
+        when(reactivePointService.chargeUserPoint(userId, 1000L)).thenReturn(Mono.just(new UserPoint(userId, 1000L, 0L)));
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(patch("/reactive/point/{id}/charge", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("잔액이 부족하면 400 으로 응답한다.")
+    void use_withInsufficientPoint_shouldReturnBadRequest() throws Exception {
+        // given
+        long userId = 123L;
+        when(reactivePointService.useUserPoint(userId, 1000L)).thenReturn(Mono.error(new IllegalArgumentException("잔고부족")));
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(patch("/reactive/point/{id}/use", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code", is("400")));
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key 헤더가 있으면 키와 함께 충전을 요청한다.")
+    void charge_withIdempotencyKey_shouldPassKey() throws Exception {
+        // given
+        long userId = 123L;
+        when(reactivePointService.chargeUserPoint(userId, 1000L, "key-1")).thenReturn(Mono.just(new UserPoint(userId, 1000L, 0L)));
+
+        // when
+        MvcResult mvcResult = mockMvc.perform(patch("/reactive/point/{id}/charge", userId)
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("1000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.point", is(1000)));
+    }
+}
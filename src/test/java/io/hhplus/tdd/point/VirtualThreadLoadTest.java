@@ -0,0 +1,124 @@
+package io.hhplus.tdd.point;
+
+import io.hhplus.tdd.TddApplication;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadLoadTest { // 가상 쓰레드 부하 테스트
+    private static final int USER_COUNT = 1_000; // 동시에 충전하는 유저 수
+    private static final int TOMCAT_MAX_THREADS = 200; // Tomcat 기본 최대 쓰레드 수
+    private static final long SETTLE_MILLIS = 1_000L; // 이 시간 동안 새로 도착한 요청이 없으면 더 들어오지 않는다고 본다.
+
+    /**
+     * 같은 부하를 spring.threads.virtual.enabled 만 바꿔서 두 번 보낸다.
+     * - 유저마다 PATCH /point/{id}/charge 를 하나씩 보내고, 잔액 조회에서 더 이상 새 요청이 도착하지 않을 때까지 풀어주지 않는다.
+     * - 동시에 PointService 안에서 잔액 조회를 기다린 요청 수(peak)를 두 설정에서 각각 재서 비교한다.
+     */
+    @Test
+    @DisplayName("같은 부하에서 가상 쓰레드 설정은 모든 충전을 동시에 처리하고, 플랫폼 쓰레드 설정은 Tomcat 쓰레드 수에서 멈춘다.")
+    void virtualThreadsRunMoreChargesConcurrentlyThanPlatformThreads() throws Exception {
+        // when
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+
+        // then
+        assertThat(platform.platformCaller()).isTrue();
+        assertThat(platform.peak()).isPositive().isLessThanOrEqualTo(TOMCAT_MAX_THREADS);
+        assertThat(virtual.platformCaller()).isFalse();
+        assertThat(virtual.peak()).isEqualTo(USER_COUNT).isGreaterThan(platform.peak());
+    }
+
+    private LoadResult run(boolean virtualThreads) throws Exception {
+        BlockingUserPointRepository userPointRepository = new BlockingUserPointRepository();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TddApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + TOMCAT_MAX_THREADS,
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "point.admission.max-concurrent=0",
+                        "point.admission.rate-limit.permits-per-second=0"
+                )
+                .initializers(applicationContext -> ((GenericApplicationContext) applicationContext).registerBean(
+                        BlockingUserPointRepository.class, () -> userPointRepository, definition -> definition.setPrimary(true)))
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>(USER_COUNT);
+            for (int i = 0; i < USER_COUNT; i++) {
+                HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/point/" + i + "/charge"))
+                        .header("Content-Type", "application/json")
+                        .method("PATCH", HttpRequest.BodyPublishers.ofString("100"))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+            }
+            userPointRepository.awaitSettled();
+            userPointRepository.release.countDown();
+
+            for (CompletableFuture<HttpResponse<String>> response : responses) {
+                assertThat(response.get(60, TimeUnit.SECONDS).statusCode()).isEqualTo(200);
+            }
+            return new LoadResult(userPointRepository.peak.get(), userPointRepository.platformCaller.get());
+        }
+    }
+
+    private record LoadResult(int peak, boolean platformCaller) {
+    }
+
+    // 풀어줄 때까지 조회를 막아두고 동시에 막혀 있는 요청 수와 호출한 쓰레드 종류를 기록한다.
+    static class BlockingUserPointRepository implements UserPointRepository {
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final AtomicBoolean platformCaller = new AtomicBoolean();
+
+        // 모든 요청이 도착했거나 SETTLE_MILLIS 동안 새로 도착한 요청이 없을 때까지 기다린다.
+        void awaitSettled() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+            int previous;
+            do {
+                previous = inFlight.get();
+                Thread.sleep(SETTLE_MILLIS);
+            } while ((previous == 0 || inFlight.get() != previous) && inFlight.get() < USER_COUNT && System.nanoTime() < deadline);
+        }
+
+        @Override
+        public UserPoint findById(long id) {
+            if (!Thread.currentThread().isVirtual()) {
+                platformCaller.set(true);
+            }
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return UserPoint.empty(id);
+        }
+
+        @Override
+        public UserPoint saveOrUpdate(long id, long amount) {
+            return new UserPoint(id, amount, System.currentTimeMillis());
+        }
+    }
+}
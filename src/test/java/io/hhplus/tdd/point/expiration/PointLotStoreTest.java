@@ -0,0 +1,131 @@
+package io.hhplus.tdd.point.expiration;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class PointLotStoreTest {
+
+    static final long TTL_MILLIS = 1_000L;
+
+    @Mock
+    PointHistoryRepository pointHistoryRepository;
+
+    TimingWheel<Long> timingWheel;
+    PointLotStore pointLotStore;
+
+    @BeforeEach
+    void beforeEach() {
+        timingWheel = new TimingWheel<>(10, 64, 0);
+        pointLotStore = new PointLotStore(pointHistoryRepository, TTL_MILLIS, timingWheel);
+        lenient().when(pointHistoryRepository.findPageById(anyLong(), any(), anyInt(), any()))
+                .thenReturn(new PointHistoryPage(List.of(), null));
+    }
+
+    @Test
+    @DisplayName("사용은 가장 오래된 lot 부터 차감하고, 만료되는 금액은 오래된 lot 의 남은 금액이다.")
+    void useConsumesOldestLotFirst() {
+        // given
+        PointLotStore.UserLots lots = pointLotStore.lotsOf(1L);
+        lots.charge(100L, 0L);
+        lots.charge(200L, 500L);
+
+        // when
+        lots.use(150L);
+
+        // then : 첫 lot 은 모두 쓰였고, 두 번째 lot 에 150 이 남는다.
+        assertThat(lots.size()).isEqualTo(1);
+        assertThat(lots.remaining()).isEqualTo(150L);
+        assertThat(lots.expiredAmount(1_000L)).isZero();
+        assertThat(lots.expiredAmount(1_500L)).isEqualTo(150L);
+    }
+
+    @Test
+    @DisplayName("처음 접근하는 유저는 저장된 충전/사용/만료 내역으로 lot 을 채운다.")
+    void seedsLotsFromHistories() {
+        // given
+        given(pointHistoryRepository.findPageById(1L, null, PointLotStore.LOAD_PAGE_SIZE, PointHistoryOrder.ASC)).willReturn(new PointHistoryPage(List.of(
+                new PointHistory(1L, 1L, 100L, TransactionType.CHARGE, 0L),
+                new PointHistory(2L, 1L, 200L, TransactionType.CHARGE, 500L)
+        ), 2L));
+        given(pointHistoryRepository.findPageById(1L, 2L, PointLotStore.LOAD_PAGE_SIZE, PointHistoryOrder.ASC)).willReturn(new PointHistoryPage(List.of(
+                new PointHistory(3L, 1L, 50L, TransactionType.USE, 600L),
+                new PointHistory(4L, 1L, 50L, TransactionType.EXPIRE, 1_000L)
+        ), null));
+
+        // when
+        PointLotStore.UserLots lots = pointLotStore.lotsOf(1L);
+        pointLotStore.lotsOf(1L);
+
+        // then : 내역은 페이지 단위로 처음 한 번만 읽는다.
+        assertThat(lots.size()).isEqualTo(1);
+        assertThat(lots.remaining()).isEqualTo(200L);
+        assertThat(timingWheel.size()).isEqualTo(1);
+        verify(pointHistoryRepository, times(2)).findPageById(anyLong(), any(), anyInt(), any());
+        verify(pointHistoryRepository, never()).findAllById(anyLong());
+    }
+
+    @Test
+    @DisplayName("유저 수가 상한을 넘으면 lot 을 모두 쓴 유저만 지우고, 남은 lot 이 있는 유저는 유지한다.")
+    void evictsOnlyFullyConsumedUsers() {
+        // given
+        PointLotStore bounded = new PointLotStore(pointHistoryRepository, TTL_MILLIS, timingWheel, 4);
+        for (long userId = 1; userId <= 4; userId++) {
+            PointLotStore.UserLots lots = bounded.lotsOf(userId);
+            lots.charge(100L, 0L);
+            if (userId % 2 == 0) {
+                lots.use(100L);
+            }
+        }
+
+        // when
+        bounded.lotsOf(5L);
+
+        // then : lot 을 모두 쓴 유저 하나가 지워진 자리에 5번 유저가 들어오고, 1, 3 번 유저의 lot 은 그대로 남는다.
+        assertThat(bounded.userCount()).isEqualTo(4);
+        assertThat(bounded.lotsOf(1L).remaining()).isEqualTo(100L);
+        assertThat(bounded.lotsOf(3L).remaining()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("lot 이 여러 개여도 timing wheel 에는 유저당 가장 오래된 lot 하나만 등록한다.")
+    void schedulesOneEntryPerUser() {
+        // given
+        PointLotStore.UserLots lots = pointLotStore.lotsOf(1L);
+        for (int i = 0; i < 100; i++) {
+            lots.charge(10L, i * 10L);
+        }
+        List<Long> fired = new ArrayList<>();
+
+        // when
+        timingWheel.advance(TTL_MILLIS + 10, fired::add);
+        lots.expire(TTL_MILLIS + 10);
+
+        // then : 만료된 lot 을 꺼낸 뒤 남은 lot 중 가장 오래된 것으로 다시 등록한다.
+        assertThat(fired).containsExactly(1L);
+        assertThat(lots.size()).isEqualTo(98);
+        assertThat(timingWheel.size()).isEqualTo(1);
+    }
+}
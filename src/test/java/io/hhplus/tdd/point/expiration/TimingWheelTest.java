@@ -0,0 +1,72 @@
+package io.hhplus.tdd.point.expiration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    @Test
+    @DisplayName("만료 시각이 지나기 전에는 꺼내지 않고, 지나면 만료 순서대로 꺼낸다.")
+    void firesInOrderAndNeverEarly() {
+        // given
+        TimingWheel<String> timingWheel = new TimingWheel<>(10, 4, 0);
+        timingWheel.schedule(25, "b");
+        timingWheel.schedule(5, "a");
+        timingWheel.schedule(35, "c");
+        List<String> fired = new ArrayList<>();
+
+        // when & then
+        timingWheel.advance(20, fired::add);
+        assertThat(fired).containsExactly("a");
+
+        timingWheel.advance(40, fired::add);
+        assertThat(fired).containsExactly("a", "b", "c");
+        assertThat(timingWheel.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("한 단계의 범위를 넘는 먼 항목도 위 단계에서 내려와 제때 꺼내진다.")
+    void cascadesFarItems() {
+        // given : 0 단계는 40ms, 1 단계는 160ms 까지 맡는다.
+        TimingWheel<Long> timingWheel = new TimingWheel<>(10, 4, 0);
+        timingWheel.schedule(1_005, 1L);
+        timingWheel.schedule(155, 2L);
+        List<Long> fired = new ArrayList<>();
+
+        // when
+        timingWheel.advance(1_000, fired::add);
+        List<Long> beforeExpire = List.copyOf(fired);
+        timingWheel.advance(1_010, fired::add);
+
+        // then
+        assertThat(beforeExpire).containsExactly(2L);
+        assertThat(fired).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("같은 tick 에 만료되는 항목들은 한 번에 꺼내지고, 이미 지난 항목은 다음 advance 에서 바로 꺼낸다.")
+    void firesBatchOfSameTick() {
+        // given
+        TimingWheel<Long> timingWheel = new TimingWheel<>(10, 64, 1_000);
+        for (long i = 0; i < 10_000; i++) {
+            timingWheel.schedule(100_000 + i % 10, i);
+        }
+        timingWheel.schedule(500, -1L);
+        List<Long> fired = new ArrayList<>();
+
+        // when
+        timingWheel.advance(1_000, fired::add);
+        int pastDue = fired.size();
+        timingWheel.advance(100_010, fired::add);
+
+        // then
+        assertThat(pastDue).isEqualTo(1);
+        assertThat(fired).hasSize(10_001);
+        assertThat(timingWheel.size()).isZero();
+    }
+}
@@ -0,0 +1,60 @@
+package io.hhplus.tdd.point.metrics;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.TimedPointHistoryRepository;
+import io.hhplus.tdd.point.repository.TimedUserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.point.service.PointService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointMetricsTest {
+    SimpleMeterRegistry meterRegistry;
+    PointService pointService;
+
+    @BeforeEach
+    void beforeEach() {
+        meterRegistry = new SimpleMeterRegistry();
+        PointMetrics pointMetrics = new PointMetrics(meterRegistry);
+        pointService = new PointService(
+                new TimedUserPointRepository(new UserPointRepositoryImpl(new UserPointTable()), pointMetrics),
+                new TimedPointHistoryRepository(new PointHistoryRepositoryImpl(new PointHistoryTable()), pointMetrics)
+        );
+        pointService.setPointMetrics(pointMetrics);
+    }
+
+    @Test
+    @DisplayName("충전 시 Lock 대기/점유 시간과 저장소 처리 시간을 기록한다.")
+    void chargeRecordsLockAndRepositoryTimers() {
+        // when
+        pointService.chargeUserPoint(123L, 1000L);
+
+        // then
+        assertThat(meterRegistry.find("point.lock.wait").tag("operation", "charge").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("point.lock.hold").tag("operation", "charge").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("point.repository.latency").tag("method", "findById").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("point.repository.latency").tag("method", "saveOrUpdate").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find("point.repository.latency").tag("method", "save").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("거절된 사용 요청을 사유별로 센다.")
+    void rejectedUseIsCountedByReason() {
+        // when
+        assertThatThrownBy(() -> pointService.useUserPoint(456L, 1000L))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // then
+        assertThat(meterRegistry.find("point.rejected")
+                .tag("operation", "use")
+                .tag("reason", "insufficient_point")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,232 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.PointHistorySummary;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AggregatingPointHistoryRepositoryTest {
+    private static final long BUCKET_MILLIS = 1_000L;
+
+    PointHistoryTable pointHistoryTable;
+    PointHistoryRepository delegate;
+    AggregatingPointHistoryRepository aggregatingPointHistoryRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        pointHistoryTable = new PointHistoryTable();
+        delegate = spy(new PointHistoryRepositoryImpl(pointHistoryTable));
+        aggregatingPointHistoryRepository = new AggregatingPointHistoryRepository(delegate, BUCKET_MILLIS, 3);
+    }
+
+    @Test
+    @DisplayName("저장한 내역이 전체 합계와 시간 구간별 합계에 바로 반영된다.")
+    void saveUpdatesTotalsAndBuckets() {
+        // given
+        long userId = 1L;
+        aggregatingPointHistoryRepository.save(userId, 1000L, TransactionType.CHARGE, 100L);
+        aggregatingPointHistoryRepository.save(userId, 300L, TransactionType.USE, 900L);
+        aggregatingPointHistoryRepository.save(userId, 500L, TransactionType.CHARGE, 1_500L);
+
+        // when
+        PointHistorySummary summary = aggregatingPointHistoryRepository.summarizeById(userId, null, null);
+
+        // then
+        assertThat(summary.chargedAmount()).isEqualTo(1500L);
+        assertThat(summary.usedAmount()).isEqualTo(300L);
+        assertThat(summary.chargeCount()).isEqualTo(2L);
+        assertThat(summary.useCount()).isEqualTo(1L);
+        assertThat(summary.buckets()).containsExactly(
+                new PointHistorySummary.Bucket(0L, 1000L, 300L, 1L, 1L),
+                new PointHistorySummary.Bucket(1_000L, 500L, 0L, 1L, 0L)
+        );
+    }
+
+    @Test
+    @DisplayName("여러 유저의 내역을 한 번에 저장하면 하위 저장소에도 한 번에 넘기고 유저별 합계에 반영한다.")
+    void saveAllUpdatesEachUsersTotals() {
+        // given
+        List<PointHistory> histories = List.of(
+                new PointHistory(0L, 1L, 300L, TransactionType.USE, 100L),
+                new PointHistory(0L, 2L, 300L, TransactionType.CHARGE, 100L)
+        );
+
+        // when
+        List<PointHistory> saved = aggregatingPointHistoryRepository.saveAll(histories);
+
+        // then
+        verify(delegate, times(1)).saveAll(histories);
+        assertThat(saved).extracting(PointHistory::userId).containsExactly(1L, 2L);
+        assertThat(aggregatingPointHistoryRepository.summarizeById(1L, null, null).usedAmount()).isEqualTo(300L);
+        assertThat(aggregatingPointHistoryRepository.summarizeById(2L, null, null).chargedAmount()).isEqualTo(300L);
+    }
+
+    @Test
+    @DisplayName("집계 조회는 내역을 다시 읽지 않고, 기존 내역은 처음 조회할 때 페이지 단위로 한 번만 읽는다.")
+    void summarizeDoesNotScanHistories() {
+        // given : 집계 저장소를 거치지 않고 미리 쌓인 내역
+        long userId = 2L;
+        pointHistoryTable.insert(userId, 700L, TransactionType.CHARGE, 10L);
+        aggregatingPointHistoryRepository.save(userId, 200L, TransactionType.USE, 20L);
+
+        // when
+        aggregatingPointHistoryRepository.summarizeById(userId, null, null);
+        PointHistorySummary summary = aggregatingPointHistoryRepository.summarizeById(userId, null, null);
+
+        // then
+        assertThat(summary.chargedAmount()).isEqualTo(700L);
+        assertThat(summary.usedAmount()).isEqualTo(200L);
+        verify(delegate, times(1)).findPageById(eq(userId), isNull(), eq(AggregatingPointHistoryRepository.SEED_PAGE_SIZE), eq(PointHistoryOrder.ASC));
+    }
+
+    @Test
+    @DisplayName("저장은 기존 내역을 읽지 않고, 집계가 만들어진 뒤의 저장만 집계에 더한다.")
+    void saveDoesNotSeedAggregate() {
+        // given
+        long userId = 5L;
+        aggregatingPointHistoryRepository.save(userId, 700L, TransactionType.CHARGE, 10L);
+        aggregatingPointHistoryRepository.summarizeById(userId, null, null);
+
+        // when
+        aggregatingPointHistoryRepository.save(userId, 200L, TransactionType.USE, 20L);
+        PointHistorySummary summary = aggregatingPointHistoryRepository.summarizeById(userId, null, null);
+
+        // then
+        assertThat(summary.chargedAmount()).isEqualTo(700L);
+        assertThat(summary.usedAmount()).isEqualTo(200L);
+        verify(delegate, times(1)).findPageById(anyLong(), any(), anyInt(), any()); // 첫 조회에서 한 번만 읽는다.
+    }
+
+    @Test
+    @DisplayName("집계를 채우는 동안 같은 유저의 저장이 겹쳐도 집계가 만들어지고, 겹친 내역은 한 번씩만 집계된다.")
+    void savesDuringSeedAreMergedOnce() {
+        // given : 첫 페이지를 읽기 직전에 저장한 내역은 읽히고, 읽은 직후에 저장한 내역은 읽히지 않는다.
+        long userId = 6L;
+        pointHistoryTable.insert(userId, 700L, TransactionType.CHARGE, 10L);
+        List<Runnable> beforeRead = new ArrayList<>();
+        List<Runnable> afterRead = new ArrayList<>();
+        PointHistoryRepository hooked = spy(new PointHistoryRepositoryImpl(pointHistoryTable) {
+            @Override
+            public PointHistoryPage findPageById(long userId, Long cursor, int limit, PointHistoryOrder order) {
+                beforeRead.forEach(Runnable::run);
+                beforeRead.clear();
+                PointHistoryPage page = super.findPageById(userId, cursor, limit, order);
+                afterRead.forEach(Runnable::run);
+                afterRead.clear();
+                return page;
+            }
+        });
+        AggregatingPointHistoryRepository repository = new AggregatingPointHistoryRepository(hooked, BUCKET_MILLIS, 3);
+        beforeRead.add(() -> repository.save(userId, 200L, TransactionType.USE, 20L));
+        afterRead.add(() -> repository.save(userId, 100L, TransactionType.CHARGE, 30L));
+
+        // when
+        PointHistorySummary seeded = repository.summarizeById(userId, null, null);
+        repository.save(userId, 50L, TransactionType.USE, 40L);
+        PointHistorySummary summary = repository.summarizeById(userId, null, null);
+
+        // then
+        assertThat(seeded.chargedAmount()).isEqualTo(800L);
+        assertThat(seeded.usedAmount()).isEqualTo(200L);
+        assertThat(seeded.chargeCount()).isEqualTo(2L);
+        assertThat(seeded.useCount()).isEqualTo(1L);
+        assertThat(summary.usedAmount()).isEqualTo(250L);
+        verify(hooked, times(1)).findPageById(anyLong(), any(), anyInt(), any()); // 채운 집계가 남아 다시 읽지 않는다.
+    }
+
+    @Test
+    @DisplayName("집계를 유지하는 유저 수가 상한을 넘으면 일부를 지우고, 지운 유저는 다음 조회에서 다시 채운다.")
+    void aggregatesAreBoundedAndReseeded() {
+        // given
+        AggregatingPointHistoryRepository bounded = new AggregatingPointHistoryRepository(delegate, BUCKET_MILLIS, 3, 4);
+        for (long userId = 1; userId <= 4; userId++) {
+            pointHistoryTable.insert(userId, userId * 100, TransactionType.CHARGE, 10L);
+            bounded.summarizeById(userId, null, null);
+        }
+
+        // when
+        bounded.summarizeById(5L, null, null);
+
+        // then
+        assertThat(bounded.userCount()).isLessThanOrEqualTo(4);
+        for (long userId = 1; userId <= 4; userId++) {
+            assertThat(bounded.summarizeById(userId, null, null).chargedAmount()).isEqualTo(userId * 100);
+        }
+    }
+
+    @Test
+    @DisplayName("구간은 조회 기간에 드는 것만 담고, 최근 구간 수를 넘으면 오래된 구간부터 버린다.")
+    void bucketsAreFilteredAndBounded() {
+        // given
+        long userId = 3L;
+        for (long second = 0; second < 5; second++) {
+            aggregatingPointHistoryRepository.save(userId, 100L, TransactionType.CHARGE, second * BUCKET_MILLIS);
+        }
+
+        // when
+        PointHistorySummary all = aggregatingPointHistoryRepository.summarizeById(userId, null, null);
+        PointHistorySummary range = aggregatingPointHistoryRepository.summarizeById(userId, 3_000L, 4_000L);
+
+        // then
+        assertThat(all.chargedAmount()).isEqualTo(500L);
+        assertThat(all.buckets()).extracting(PointHistorySummary.Bucket::startMillis).containsExactly(2_000L, 3_000L, 4_000L);
+        assertThat(range.buckets()).extracting(PointHistorySummary.Bucket::startMillis).containsExactly(3_000L);
+    }
+
+    @Test
+    @DisplayName("여러 쓰레드가 동시에 저장해도 집계가 저장된 내역과 일치한다.")
+    void concurrentSavesKeepTotalsConsistent() throws Exception {
+        // given
+        long userId = 4L;
+        int threadCount = 8;
+        int savesPerThread = 1_000;
+        // 테이블은 동시 쓰기를 지원하지 않으므로 아무 것도 저장하지 않는 저장소를 사용한다.
+        PointHistoryRepository empty = mock(PointHistoryRepository.class);
+        when(empty.findPageById(anyLong(), any(), anyInt(), any())).thenReturn(new PointHistoryPage(List.of(), null));
+        AggregatingPointHistoryRepository repository = new AggregatingPointHistoryRepository(empty, BUCKET_MILLIS, 3);
+        repository.summarizeById(userId, null, null); // 집계를 먼저 만들어 두어야 이후 저장이 집계에 더해진다.
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                for (int j = 0; j < savesPerThread; j++) {
+                    repository.save(userId, 10L, TransactionType.CHARGE, System.currentTimeMillis());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        PointHistorySummary summary = repository.summarizeById(userId, null, null);
+        assertThat(summary.chargeCount()).isEqualTo((long) threadCount * savesPerThread);
+        assertThat(summary.chargedAmount()).isEqualTo(10L * threadCount * savesPerThread);
+    }
+}
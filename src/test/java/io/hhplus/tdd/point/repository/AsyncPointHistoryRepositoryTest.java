@@ -0,0 +1,221 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AsyncPointHistoryRepositoryTest {
+
+    @Test
+    @DisplayName("비동기로 저장한 내역은 유저별로 저장한 순서대로 조회된다.")
+    void findAllByIdReturnsHistoriesInSaveOrder() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(pointHistoryTable, 4, 2);
+
+        // when
+        repository.save(123L, 1000L, TransactionType.CHARGE, 1L);
+        repository.save(456L, 2000L, TransactionType.CHARGE, 2L);
+        repository.save(123L, 300L, TransactionType.USE, 3L);
+        repository.save(123L, 500L, TransactionType.CHARGE, 4L);
+        List<PointHistory> histories = repository.findAllById(123L);
+
+        // then
+        assertThat(histories).extracting(PointHistory::amount).containsExactly(1000L, 300L, 500L);
+        assertThat(histories).extracting(PointHistory::type)
+                .containsExactly(TransactionType.CHARGE, TransactionType.USE, TransactionType.CHARGE);
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("종료 시 큐에 남아있는 내역을 모두 테이블에 반영한다.")
+    void closeDrainsPendingHistories() {
+        // given
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(pointHistoryTable, 16, 8);
+        for (int i = 0; i < 5; i++) {
+            repository.save(789L, 100L, TransactionType.CHARGE, i);
+        }
+
+        // when
+        repository.close();
+
+        // then
+        assertThat(repository.pendingCount()).isZero();
+        assertThat(pointHistoryTable.selectAllByUserId(789L)).hasSize(5);
+    }
+
+    @Test
+    @DisplayName("종료된 저장소에는 내역을 저장할 수 없다.")
+    void saveAfterCloseFails() {
+        // given
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(new PointHistoryTable(), 4, 2);
+        repository.close();
+
+        // when & then
+        assertThatThrownBy(() -> repository.save(123L, 1000L, TransactionType.CHARGE, 1L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("종료와 동시에 저장해도, 접수된 내역은 모두 반영되고 이후 flush 도 끝난다.")
+    void saveRacingWithCloseIsNeverLost() throws Exception {
+        // given
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(pointHistoryTable, 1_000, 64);
+        AtomicInteger accepted = new AtomicInteger();
+        AtomicInteger inserted = new AtomicInteger();
+        willAnswer(invocation -> {
+            inserted.incrementAndGet();
+            return null;
+        }).given(pointHistoryTable).insert(anyLong(), anyLong(), any(), anyLong());
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < 10_000; j++) {
+                    try {
+                        repository.save(1L, 100L, TransactionType.CHARGE, j);
+                        accepted.incrementAndGet();
+                    } catch (IllegalStateException closed) {
+                        return null;
+                    }
+                }
+                return null;
+            }));
+        }
+
+        // when
+        start.countDown();
+        repository.close();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        repository.flush();
+        assertThat(inserted.get()).isEqualTo(accepted.get());
+    }
+
+    @Test
+    @DisplayName("반영이 제한 시간 안에 끝나지 않으면 flush 는 기다리지 않고 실패한다.")
+    void flushTimesOut() {
+        // given
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            return null;
+        }).given(pointHistoryTable).insert(anyLong(), anyLong(), any(), anyLong());
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(pointHistoryTable, 4, 2, 50L);
+        repository.save(1L, 100L, TransactionType.CHARGE, 1L);
+
+        // when & then
+        assertThatThrownBy(() -> repository.findAllById(1L))
+                .isInstanceOf(IllegalStateException.class);
+        release.countDown();
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("반영을 기다리다 인터럽트되면 조회는 반영되지 않은 결과를 돌려주지 않고 실패하며, 인터럽트 표시는 남는다.")
+    void flushInterruptedFails() {
+        // given
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            release.await();
+            return null;
+        }).given(pointHistoryTable).insert(anyLong(), anyLong(), any(), anyLong());
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(pointHistoryTable, 4, 2, 10_000L);
+        repository.save(1L, 100L, TransactionType.CHARGE, 1L);
+
+        // when & then
+        Thread.currentThread().interrupt();
+        try {
+            assertThatThrownBy(() -> repository.findAllById(1L))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasCauseInstanceOf(InterruptedException.class);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+            release.countDown();
+            repository.close();
+        }
+    }
+
+    @Test
+    @DisplayName("insert 가 잠깐 실패하면 다시 시도해서 반영한다.")
+    void transientInsertFailureIsRetried() {
+        // given
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        AtomicInteger inserted = new AtomicInteger();
+        willThrow(new IllegalStateException("일시적인 오류"))
+                .willThrow(new IllegalStateException("일시적인 오류"))
+                .willAnswer(invocation -> {
+                    inserted.incrementAndGet();
+                    return null;
+                })
+                .given(pointHistoryTable).insert(anyLong(), anyLong(), any(), anyLong());
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(pointHistoryTable, 4, 2);
+
+        // when
+        repository.save(1L, 100L, TransactionType.CHARGE, 1L);
+        repository.flush();
+
+        // then
+        assertThat(inserted.get()).isEqualTo(1);
+        assertThat(repository.deadLetterCount()).isZero();
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("다시 시도해도 실패한 내역은 dead-letter 에 남고, flush 는 끝나며, 나중에 다시 반영할 수 있다.")
+    void exhaustedInsertGoesToDeadLetter() {
+        // given
+        PointHistoryTable pointHistoryTable = mock(PointHistoryTable.class);
+        willThrow(new IllegalStateException("저장 실패"))
+                .given(pointHistoryTable).insert(anyLong(), anyLong(), any(), anyLong());
+        AsyncPointHistoryRepository repository = new AsyncPointHistoryRepository(pointHistoryTable, 4, 2);
+
+        // when
+        repository.save(1L, 100L, TransactionType.CHARGE, 1L);
+        repository.flush();
+
+        // then
+        verify(pointHistoryTable, times(AsyncPointHistoryRepository.MAX_INSERT_ATTEMPTS)).insert(1L, 100L, TransactionType.CHARGE, 1L);
+        assertThat(repository.deadLetterCount()).isEqualTo(1);
+        assertThat(repository.deadLetters()).extracting(PointHistory::amount).containsExactly(100L);
+
+        // when : 저장소가 회복된 뒤 다시 반영한다.
+        willAnswer(invocation -> null).given(pointHistoryTable).insert(anyLong(), anyLong(), any(), anyLong());
+
+        // then
+        assertThat(repository.retryDeadLetters()).isEqualTo(1);
+        assertThat(repository.deadLetterCount()).isZero();
+        repository.close();
+    }
+}
@@ -0,0 +1,176 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedUserPointRepositoryTest {
+    UserPointTable userPointTable;
+    CachedUserPointRepository cachedUserPointRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointTable = new UserPointTable();
+        // 주기 반영이 테스트 중에 끼어들지 않도록 충분히 긴 주기를 사용하고 flush()를 직접 호출한다.
+        cachedUserPointRepository = new CachedUserPointRepository(userPointTable, 60_000L);
+    }
+
+    @AfterEach
+    void afterEach() {
+        cachedUserPointRepository.close();
+    }
+
+    @Test
+    @DisplayName("저장한 잔액은 테이블 반영 전에도 바로 조회된다.")
+    void findByIdReturnsWrittenPointBeforeFlush() {
+        // given
+        long userId = 123L;
+
+        // when
+        cachedUserPointRepository.saveOrUpdate(userId, 1000L);
+        UserPoint userPoint = cachedUserPointRepository.findById(userId);
+
+        // then
+        assertThat(userPoint.point()).isEqualTo(1000L);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(0L); // 아직 테이블에는 반영되지 않음
+    }
+
+    @Test
+    @DisplayName("같은 유저의 연속된 쓰기는 마지막 값 하나로 합쳐서 테이블에 반영된다.")
+    void flushCoalescesWritesPerUser() {
+        // given
+        long userId = 456L;
+        cachedUserPointRepository.saveOrUpdate(userId, 1000L);
+        cachedUserPointRepository.saveOrUpdate(userId, 2000L);
+        cachedUserPointRepository.saveOrUpdate(userId, 3000L);
+        assertThat(cachedUserPointRepository.pendingCount()).isEqualTo(1);
+
+        // when
+        cachedUserPointRepository.flush();
+
+        // then
+        assertThat(cachedUserPointRepository.pendingCount()).isZero();
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(3000L);
+    }
+
+    @Test
+    @DisplayName("종료 시 남아있는 변경분을 테이블에 반영한다.")
+    void closeFlushesPendingWrites() {
+        // given
+        long userId = 789L;
+        cachedUserPointRepository.saveOrUpdate(userId, 500L);
+
+        // when
+        cachedUserPointRepository.close();
+
+        // then
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(500L);
+    }
+
+    @Test
+    @DisplayName("밀린 유저 수가 한도에 닿으면 다음 쓰기는 반영이 끝난 뒤에 진행된다.")
+    void writeFlushesWhenPendingReachesLimit() {
+        // given
+        CachedUserPointRepository repository = new CachedUserPointRepository(userPointTable, 60_000L, 2, 60_000L, 2, 100);
+        repository.saveOrUpdate(1L, 100L);
+        repository.saveOrUpdate(2L, 200L);
+
+        // when
+        repository.saveOrUpdate(1L, 150L); // 이미 밀려 있는 유저는 합쳐지므로 기다리지 않는다.
+        int pendingBeforeLimit = repository.pendingCount();
+        repository.saveOrUpdate(3L, 300L);
+
+        // then
+        assertThat(pendingBeforeLimit).isEqualTo(2);
+        assertThat(repository.pendingCount()).isEqualTo(1);
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(150L);
+        assertThat(userPointTable.selectById(2L).point()).isEqualTo(200L);
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("캐시가 한도를 넘으면 테이블에 반영된 유저만 지우고, 지운 유저는 테이블에서 다시 읽는다.")
+    void evictsOnlyFlushedUsers() {
+        // given
+        CachedUserPointRepository repository = new CachedUserPointRepository(userPointTable, 60_000L, 100, 60_000L, 4, 4);
+        for (long userId = 1; userId <= 8; userId++) {
+            repository.saveOrUpdate(userId, userId * 100);
+        }
+
+        // when
+        repository.flush();
+
+        // then
+        assertThat(repository.cachedCount()).isLessThanOrEqualTo(4);
+        assertThat(repository.lagMillis()).isZero();
+        for (long userId = 1; userId <= 8; userId++) {
+            assertThat(repository.findById(userId).point()).isEqualTo(userId * 100);
+        }
+        repository.close();
+    }
+
+    @Test
+    @DisplayName("캐시에 없는 유저의 조회가 쓰기/반영/삭제와 겹쳐도 이전 값을 캐시에 남기지 않는다.")
+    void loadRacingWithWriteFlushEvictDoesNotCacheStaleValue() throws Exception {
+        // given : 매 반영마다 캐시를 비우도록 한도를 1로 두고, 지연 없는 테이블을 사용한다.
+        UserPointTable fastTable = new UserPointTable() {
+            private final Map<Long, UserPoint> table = new ConcurrentHashMap<>();
+
+            @Override
+            public UserPoint selectById(Long id) {
+                return table.getOrDefault(id, UserPoint.empty(id));
+            }
+
+            @Override
+            public UserPoint insertOrUpdate(long id, long amount) {
+                UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+                table.put(id, userPoint);
+                return userPoint;
+            }
+        };
+        CachedUserPointRepository repository = new CachedUserPointRepository(fastTable, 60_000L, 1_000, 5_000L, 1, 1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        int rounds = 2_000;
+
+        // when : 유저마다 조회와 (쓰기 -> 반영 -> 삭제)를 동시에 진행한다.
+        try {
+            for (long userId = 1; userId <= rounds; userId++) {
+                long id = userId;
+                CountDownLatch start = new CountDownLatch(1);
+                Future<?> reader = executorService.submit(() -> {
+                    start.await();
+                    return repository.findById(id);
+                });
+                Future<?> writer = executorService.submit(() -> {
+                    start.await();
+                    repository.saveOrUpdate(id, 100L);
+                    repository.flush();
+                    return null;
+                });
+                start.countDown();
+                reader.get();
+                writer.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        // then : 캐시에 남은 값이든 테이블에서 다시 읽은 값이든 마지막으로 쓴 잔액이어야 한다.
+        for (long userId = 1; userId <= rounds; userId++) {
+            assertThat(repository.findById(userId).point()).isEqualTo(100L);
+        }
+        repository.close();
+    }
+}
@@ -0,0 +1,110 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IndexedPointHistoryRepositoryTest {
+    PointHistoryTable pointHistoryTable;
+    IndexedPointHistoryRepository repository;
+
+    @BeforeEach
+    void beforeEach() {
+        pointHistoryTable = new PointHistoryTable();
+        repository = new IndexedPointHistoryRepository(pointHistoryTable);
+    }
+
+    @Test
+    @DisplayName("유저별 내역만 저장 순서대로 조회된다.")
+    void findAllByIdReturnsOnlyUserHistories() {
+        // given
+        repository.save(123L, 1000L, TransactionType.CHARGE, 1L);
+        repository.save(456L, 2000L, TransactionType.CHARGE, 2L);
+        repository.save(123L, 300L, TransactionType.USE, 3L);
+
+        // when
+        List<PointHistory> histories = repository.findAllById(123L);
+
+        // then
+        assertThat(histories).extracting(PointHistory::id).containsExactly(1L, 3L);
+        assertThat(histories).extracting(PointHistory::amount).containsExactly(1000L, 300L);
+        assertThat(repository.findAllById(789L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("테이블에 먼저 저장되어 있던 내역도 색인에 포함된다.")
+    void existingTableHistoriesAreIndexed() {
+        // given
+        pointHistoryTable.insert(123L, 500L, TransactionType.CHARGE, 1L);
+
+        // when
+        repository.save(123L, 100L, TransactionType.USE, 2L);
+
+        // then
+        assertThat(repository.findAllById(123L)).extracting(PointHistory::amount).containsExactly(500L, 100L);
+    }
+
+    @Test
+    @DisplayName("조회 결과는 읽기 전용이며 이후 저장된 내역에 영향을 받지 않는다.")
+    void returnedHistoriesAreReadOnlySnapshot() {
+        // given
+        repository.save(123L, 1000L, TransactionType.CHARGE, 1L);
+        List<PointHistory> histories = repository.findAllById(123L);
+
+        // when
+        repository.save(123L, 200L, TransactionType.USE, 2L);
+
+        // then
+        assertThat(histories).hasSize(1);
+        assertThatThrownBy(() -> histories.add(histories.get(0))).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    @DisplayName("커서 기반으로 오래된 순 페이지를 조회한다.")
+    void findPageByIdAscending() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            repository.save(123L, 100L * (i + 1), TransactionType.CHARGE, i);
+        }
+
+        // when
+        PointHistoryPage first = repository.findPageById(123L, null, 2, PointHistoryOrder.ASC);
+        PointHistoryPage second = repository.findPageById(123L, first.nextCursor(), 2, PointHistoryOrder.ASC);
+        PointHistoryPage last = repository.findPageById(123L, second.nextCursor(), 2, PointHistoryOrder.ASC);
+
+        // then
+        assertThat(first.histories()).extracting(PointHistory::id).containsExactly(1L, 2L);
+        assertThat(second.histories()).extracting(PointHistory::id).containsExactly(3L, 4L);
+        assertThat(last.histories()).extracting(PointHistory::id).containsExactly(5L);
+        assertThat(last.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("최신 순 페이지는 색인 저장소와 기본 구현의 결과가 같다.")
+    void findPageByIdDescendingMatchesDefaultImplementation() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            repository.save(i % 2 == 0 ? 123L : 456L, 100L, TransactionType.CHARGE, i);
+        }
+        PointHistoryRepository tableRepository = new PointHistoryRepositoryImpl(pointHistoryTable);
+
+        // when
+        PointHistoryPage indexed = repository.findPageById(123L, 5L, 1, PointHistoryOrder.DESC);
+        PointHistoryPage scanned = tableRepository.findPageById(123L, 5L, 1, PointHistoryOrder.DESC);
+
+        // then
+        assertThat(indexed.histories()).extracting(PointHistory::id).containsExactly(3L);
+        assertThat(indexed).isEqualTo(scanned);
+        assertThat(indexed.nextCursor()).isEqualTo(3L);
+    }
+}
@@ -0,0 +1,163 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapUserPointRepositoryTest {
+    UserPointTable userPointTable;
+    OffHeapUserPointRepository offHeapUserPointRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointTable = new UserPointTable();
+        // 테스트 중에 테이블이 여러 번 늘어나도록 작게 시작한다.
+        offHeapUserPointRepository = new OffHeapUserPointRepository(userPointTable, 4, 4);
+    }
+
+    @Test
+    @DisplayName("저장한 잔액을 그대로 조회하고, 테이블에는 쓰지 않는다.")
+    void saveOrUpdateAndFindById() {
+        // given
+        long userId = 123L;
+
+        // when
+        UserPoint saved = offHeapUserPointRepository.saveOrUpdate(userId, 1000L);
+        UserPoint found = offHeapUserPointRepository.findById(userId);
+
+        // then
+        assertThat(found).isEqualTo(saved);
+        assertThat(found.point()).isEqualTo(1000L);
+        assertThat(userPointTable.selectById(userId).point()).isZero();
+    }
+
+    @Test
+    @DisplayName("처음 조회하는 유저는 테이블의 잔액을 읽어와 채운다.")
+    void findByIdLoadsFromTableOnFirstAccess() {
+        // given
+        userPointTable.insertOrUpdate(1L, 500L);
+
+        // when
+        UserPoint loaded = offHeapUserPointRepository.findById(1L);
+        UserPoint unknown = offHeapUserPointRepository.findById(2L);
+
+        // then
+        assertThat(loaded.point()).isEqualTo(500L);
+        assertThat(unknown.point()).isZero();
+        assertThat(offHeapUserPointRepository.size()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("테이블이 늘어나도 저장된 모든 유저의 잔액이 유지된다.")
+    void growKeepsAllEntries() {
+        // given
+        int userCount = 10_000;
+        long bytesBefore = offHeapUserPointRepository.offHeapBytes();
+
+        // when
+        for (long userId = 0; userId < userCount; userId++) {
+            offHeapUserPointRepository.saveOrUpdate(userId, userId * 10);
+        }
+
+        // then
+        assertThat(offHeapUserPointRepository.size()).isEqualTo(userCount);
+        assertThat(offHeapUserPointRepository.offHeapBytes()).isGreaterThan(bytesBefore);
+        for (long userId = 0; userId < userCount; userId++) {
+            assertThat(offHeapUserPointRepository.findById(userId).point()).isEqualTo(userId * 10);
+        }
+    }
+
+    @Test
+    @DisplayName("여러 쓰레드가 update 로 같은 유저들의 잔액을 바꿔도 유실되는 변경이 없다.")
+    void concurrentUpdatesAreAtomicPerUser() throws Exception {
+        // given
+        int threadCount = 8;
+        int userCount = 1_000;
+        int iterations = 20;
+        for (long userId = 0; userId < userCount; userId++) {
+            offHeapUserPointRepository.saveOrUpdate(userId, 0L);
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        // when
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                for (int iteration = 0; iteration < iterations; iteration++) {
+                    for (long userId = 0; userId < userCount; userId++) {
+                        offHeapUserPointRepository.update(userId, point -> point + 1);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        for (long userId = 0; userId < userCount; userId++) {
+            assertThat(offHeapUserPointRepository.findById(userId).point()).isEqualTo((long) threadCount * iterations);
+        }
+    }
+
+    @Test
+    @DisplayName("쓰기와 테이블 확장이 진행되는 동안에도 Lock 없이 읽은 잔액은 항상 쓰여진 값 중 하나이다.")
+    void readsNeverSeePartialWrites() throws Exception {
+        // given
+        long hotUserId = 7L;
+        offHeapUserPointRepository.saveOrUpdate(hotUserId, 0L);
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        // when : 한 유저의 잔액을 계속 늘려가며 쓰고, 다른 유저를 계속 추가해 확장을 일으킨다.
+        Future<?> writer = executorService.submit(() -> {
+            for (long value = 1; value <= 200_000; value++) {
+                offHeapUserPointRepository.saveOrUpdate(hotUserId, value);
+                offHeapUserPointRepository.saveOrUpdate(1_000_000 + value, -value);
+            }
+            running.set(false);
+        });
+        List<Future<Long>> readers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            readers.add(executorService.submit(() -> {
+                long last = 0;
+                while (running.get()) {
+                    long point = offHeapUserPointRepository.findById(hotUserId).point();
+                    if (point < last) {
+                        return point; // 이미 본 값보다 이전 값이 보이면 실패
+                    }
+                    last = point;
+                }
+                return -1L;
+            }));
+        }
+        writer.get();
+
+        // then
+        for (Future<Long> reader : readers) {
+            assertThat(reader.get()).isEqualTo(-1L);
+        }
+        executorService.shutdown();
+        assertThat(offHeapUserPointRepository.findById(hotUserId).point()).isEqualTo(200_000L);
+    }
+
+    @Test
+    @DisplayName("shard 수가 2의 거듭제곱이 아니면 IllegalArgumentException 이 발생한다.")
+    void invalidShardCount() {
+        assertThatThrownBy(() -> new OffHeapUserPointRepository(userPointTable, 16, 3))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,118 @@
+package io.hhplus.tdd.point.repository;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.service.UserLockManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ReadCachedUserPointRepositoryTest {
+    UserPointTable userPointTable;
+    UserPointRepository delegate;
+    ReadCachedUserPointRepository readCachedUserPointRepository;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointTable = new UserPointTable();
+        delegate = spy(new UserPointRepositoryImpl(userPointTable));
+        readCachedUserPointRepository = new ReadCachedUserPointRepository(delegate);
+    }
+
+    @Test
+    @DisplayName("저장한 잔액은 테이블에 반영되고, 이후 조회는 테이블을 거치지 않고 같은 값을 돌려준다.")
+    void readYourWrites() {
+        // given
+        long userId = 1L;
+        UserPoint saved = readCachedUserPointRepository.saveOrUpdate(userId, 1000L);
+
+        // when
+        UserPoint found = readCachedUserPointRepository.findById(userId);
+
+        // then
+        assertThat(found).isEqualTo(saved);
+        assertThat(userPointTable.selectById(userId).point()).isEqualTo(1000L);
+        verify(delegate, times(0)).findById(anyLong());
+    }
+
+    @Test
+    @DisplayName("저장한 적 없는 유저의 조회는 테이블에서 읽고 캐시에 남기지 않는다.")
+    void readMissIsNotCached() {
+        // given
+        userPointTable.insertOrUpdate(2L, 500L);
+
+        // when
+        readCachedUserPointRepository.findById(2L);
+        UserPoint found = readCachedUserPointRepository.findById(2L);
+
+        // then
+        assertThat(found.point()).isEqualTo(500L);
+        assertThat(readCachedUserPointRepository.size()).isZero();
+        verify(delegate, times(2)).findById(2L);
+    }
+
+    @Test
+    @DisplayName("캐시가 가득 차면 최근에 조회되지 않은 유저부터 지우고, 지운 유저는 테이블에서 다시 읽는다.")
+    void evictsUnreferencedUsersWhenFull() {
+        // given
+        ReadCachedUserPointRepository bounded = new ReadCachedUserPointRepository(new UserPointRepositoryImpl(userPointTable), 4);
+        for (long userId = 1; userId <= 4; userId++) {
+            bounded.saveOrUpdate(userId, userId * 100);
+        }
+
+        // when
+        bounded.saveOrUpdate(5L, 500L);
+
+        // then
+        assertThat(bounded.size()).isLessThanOrEqualTo(4);
+        for (long userId = 1; userId <= 5; userId++) {
+            assertThat(bounded.findById(userId).point()).isEqualTo(userId * 100);
+        }
+    }
+
+    @Test
+    @DisplayName("저장에 실패하면 캐시에 남은 이전 잔액을 그대로 돌려준다.")
+    void failedWriteKeepsPreviousValue() {
+        // given
+        long userId = 3L;
+        readCachedUserPointRepository.saveOrUpdate(userId, 1000L);
+        doThrow(new IllegalStateException("저장 실패")).when(delegate).saveOrUpdate(userId, 2000L);
+
+        // when
+        assertThatThrownBy(() -> readCachedUserPointRepository.saveOrUpdate(userId, 2000L))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(readCachedUserPointRepository.findById(userId).point()).isEqualTo(1000L);
+    }
+
+    @Test
+    @DisplayName("같은 유저의 Lock 을 잡은 쓰기가 진행 중이어도 조회는 기다리지 않고 마지막 저장 값을 돌려준다.")
+    void readDoesNotBlockBehindWriter() throws Exception {
+        // given
+        long userId = 4L;
+        readCachedUserPointRepository.saveOrUpdate(userId, 1000L);
+        UserLockManager userLockManager = new UserLockManager();
+
+        // when
+        UserPoint found;
+        try (UserLockManager.UserLock ignored = userLockManager.lock(userId)) {
+            found = CompletableFuture.supplyAsync(() -> readCachedUserPointRepository.findById(userId))
+                    .get(100, TimeUnit.MILLISECONDS);
+        }
+
+        // then
+        assertThat(found.point()).isEqualTo(1000L);
+    }
+}
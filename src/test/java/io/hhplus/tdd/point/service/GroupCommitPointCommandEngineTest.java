@@ -0,0 +1,194 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitPointCommandEngineTest {
+    PointHistoryTable pointHistoryTable;
+    CountingUserPointRepository userPointRepository;
+    PointService pointService;
+
+    @BeforeEach
+    void beforeEach() {
+        pointHistoryTable = new PointHistoryTable();
+        userPointRepository = new CountingUserPointRepository(new UserPointRepositoryImpl(new UserPointTable()));
+        pointService = new PointService(userPointRepository, new PointHistoryRepositoryImpl(pointHistoryTable));
+        pointService.setCommandEngine(new GroupCommitPointCommandEngine(userPointRepository, new PointHistoryRepositoryImpl(pointHistoryTable), 128));
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 충전 요청을 묶어서 처리하고 잔액 저장 횟수를 줄인다.")
+    void concurrentChargesAreGroupCommitted() throws InterruptedException {
+        // given
+        long userId = 123L;
+        int requestCount = 20;
+        ExecutorService executorService = Executors.newFixedThreadPool(requestCount);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointService.chargeUserPoint(userId, 100L);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(userPointRepository.findById(userId).point()).isEqualTo(100L * requestCount);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(requestCount);
+        assertThat(userPointRepository.saveCount.get()).isLessThan(requestCount);
+    }
+
+    @Test
+    @DisplayName("같은 batch 안에서도 요청마다 성공/실패가 따로 결정된다.")
+    void eachCommandGetsItsOwnResult() {
+        // given
+        long userId = 456L;
+        pointService.chargeUserPoint(userId, 1000L);
+
+        // when & then
+        assertThatThrownBy(() -> pointService.useUserPoint(userId, 2000L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("잔고부족");
+        UserPoint userPoint = pointService.useUserPoint(userId, 400L);
+
+        assertThat(userPoint.point()).isEqualTo(600L);
+        assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("같은 유저에게 요청이 끊임없이 들어와도, leader 가 된 쓰레드는 자기 요청이 끝나면 돌아온다.")
+    void leaderReturnsUnderSustainedLoad() throws Exception {
+        // given
+        long userId = 789L;
+        GroupCommitPointCommandEngine engine = new GroupCommitPointCommandEngine(
+                new PointServiceTransferTest.InMemoryUserPointRepository(),
+                new PointServiceTransferTest.InMemoryPointHistoryRepository(), 4);
+        int threadCount = 8;
+        AtomicBoolean stop = new AtomicBoolean();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount + 1);
+        List<Future<?>> loaders = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            loaders.add(executorService.submit(() -> {
+                while (!stop.get()) {
+                    engine.execute(PointCommand.charge(userId, 1L));
+                    engine.execute(PointCommand.use(userId, 1L));
+                }
+            }));
+        }
+
+        // when : 부하가 계속되는 동안 한 쓰레드가 요청을 차례로 보낸다.
+        Future<?> sequential = executorService.submit(() -> {
+            for (int i = 0; i < 500; i++) {
+                engine.execute(PointCommand.charge(userId, 1L));
+                engine.execute(PointCommand.use(userId, 1L));
+            }
+        });
+
+        // then
+        try {
+            sequential.get(30, TimeUnit.SECONDS);
+        } finally {
+            stop.set(true);
+            for (Future<?> loader : loaders) {
+                loader.get(30, TimeUnit.SECONDS);
+            }
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("인터럽트된 쓰레드도 자기 요청이 처리될 때까지 기다렸다가 결과를 받고, 인터럽트 표시는 그대로 남는다.")
+    void interruptedWaiterKeepsInterruptStatus() throws Exception {
+        // given : leader 가 잔액 조회에서 풀려날 때까지 붙잡혀 있다.
+        long userId = 654L;
+        CountDownLatch leading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PointServiceTransferTest.InMemoryUserPointRepository delegate = new PointServiceTransferTest.InMemoryUserPointRepository();
+        UserPointRepository blockingRepository = new UserPointRepository() {
+            @Override
+            public UserPoint findById(long id) {
+                leading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return delegate.findById(id);
+            }
+
+            @Override
+            public UserPoint saveOrUpdate(long id, long amount) {
+                return delegate.saveOrUpdate(id, amount);
+            }
+        };
+        GroupCommitPointCommandEngine engine = new GroupCommitPointCommandEngine(
+                blockingRepository, new PointServiceTransferTest.InMemoryPointHistoryRepository(), 128);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        Future<UserPoint> leader = executorService.submit(() -> engine.execute(PointCommand.charge(userId, 100L)));
+        leading.await();
+
+        // when : 인터럽트된 쓰레드가 leader 뒤에서 기다린다.
+        Future<Boolean> waiter = executorService.submit(() -> {
+            Thread.currentThread().interrupt();
+            UserPoint userPoint = engine.execute(PointCommand.charge(userId, 200L));
+            return userPoint.point() == 300L && Thread.currentThread().isInterrupted();
+        });
+        Thread.sleep(100L);
+        release.countDown();
+
+        // then
+        try {
+            assertThat(leader.get(10, TimeUnit.SECONDS).point()).isEqualTo(100L);
+            assertThat(waiter.get(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    // saveOrUpdate 호출 횟수를 세기 위한 저장소
+    static class CountingUserPointRepository implements UserPointRepository {
+        private final UserPointRepository delegate;
+        private final AtomicInteger saveCount = new AtomicInteger();
+
+        CountingUserPointRepository(UserPointRepository delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public UserPoint findById(long id) {
+            return delegate.findById(id);
+        }
+
+        @Override
+        public UserPoint saveOrUpdate(long id, long amount) {
+            saveCount.incrementAndGet();
+            return delegate.saveOrUpdate(id, amount);
+        }
+    }
+}
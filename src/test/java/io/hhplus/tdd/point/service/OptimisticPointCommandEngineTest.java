@@ -0,0 +1,105 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OptimisticPointCommandEngineTest {
+    PointServiceTransferTest.InMemoryUserPointRepository userPointRepository;
+    FailingPointHistoryRepository pointHistoryRepository;
+    OptimisticPointCommandEngine engine;
+    PointService pointService;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointRepository = new PointServiceTransferTest.InMemoryUserPointRepository();
+        pointHistoryRepository = new FailingPointHistoryRepository();
+        engine = new OptimisticPointCommandEngine(userPointRepository, pointHistoryRepository, new UserLockManager(), 2, 100L);
+        pointService = new PointService(userPointRepository, pointHistoryRepository);
+        pointService.setCommandEngine(engine);
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 충전/사용 내역은 잔액이 바뀐 순서대로 저장되고, 끝나면 유저 상태를 정리한다.")
+    void historiesAreSavedInVersionOrder() throws InterruptedException {
+        // given
+        long userId = 1L;
+        int threadCount = 32;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount * 2);
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointService.chargeUserPoint(userId, 100L);
+                } finally {
+                    latch.countDown();
+                }
+            });
+            executorService.submit(() -> {
+                try {
+                    pointService.useUserPoint(userId, 100L);
+                } catch (IllegalArgumentException ignored) {
+                    // 잔액이 모자라면 실패한다.
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        assertThat(latch.await(30, TimeUnit.SECONDS)).isTrue();
+        executorService.shutdown();
+
+        // then: 내역을 저장 순서대로 다시 적용하면 잔액이 음수가 되지 않고 최종 잔액과 같다.
+        long balance = 0L;
+        for (PointHistory pointHistory : pointHistoryRepository.findAllById(userId)) {
+            balance += pointHistory.type() == TransactionType.CHARGE ? pointHistory.amount() : -pointHistory.amount();
+            assertThat(balance).isNotNegative();
+        }
+        assertThat(pointService.getUserPoint(userId).point()).isEqualTo(balance);
+        assertThat(engine.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("내역 저장에 실패하면 잔액을 저장된 값으로 되돌리고, 다음 요청은 되돌린 잔액을 기준으로 처리한다.")
+    void failedHistoryRollsBackBalance() {
+        // given
+        long userId = 1L;
+        pointService.chargeUserPoint(userId, 1_000L);
+        pointHistoryRepository.failNext = true;
+
+        // when
+        assertThatThrownBy(() -> pointService.chargeUserPoint(userId, 500L))
+                .isInstanceOf(IllegalStateException.class);
+        pointService.useUserPoint(userId, 1_000L);
+
+        // then
+        assertThat(pointService.getUserPoint(userId).point()).isZero();
+        assertThat(pointHistoryRepository.findAllById(userId)).extracting(PointHistory::amount).containsExactly(1_000L, 1_000L);
+        assertThat(engine.size()).isZero();
+    }
+
+    // failNext 가 켜져 있으면 다음 저장 한 번을 실패시킨다.
+    static class FailingPointHistoryRepository extends PointServiceTransferTest.InMemoryPointHistoryRepository {
+        volatile boolean failNext;
+
+        @Override
+        public synchronized PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("history unavailable");
+            }
+            return super.save(userId, amount, type, updateMillis);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointBulkItem;
+import io.hhplus.tdd.point.PointBulkResult;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PointBulkServiceTest {
+    @Mock
+    private PointService pointService;
+
+    private PointBulkService pointBulkService;
+
+    @BeforeEach
+    void beforeEach() {
+        pointBulkService = new PointBulkService(pointService, Executors.newFixedThreadPool(4));
+    }
+
+    @AfterEach
+    void afterEach() {
+        pointBulkService.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 유저의 항목은 요청 순서대로 처리하고, 결과는 요청 위치에 맞춰 돌려준다.")
+    void processKeepsPerUserOrder() {
+        // given
+        when(pointService.chargeUserPoint(1L, 1000L)).thenReturn(new UserPoint(1L, 1000L, 0L));
+        when(pointService.useUserPoint(1L, 300L)).thenReturn(new UserPoint(1L, 700L, 0L));
+        when(pointService.chargeUserPoint(2L, 500L)).thenReturn(new UserPoint(2L, 500L, 0L));
+        List<PointBulkItem> items = List.of(
+                new PointBulkItem(1L, TransactionType.CHARGE, 1000L),
+                new PointBulkItem(2L, TransactionType.CHARGE, 500L),
+                new PointBulkItem(1L, TransactionType.USE, 300L)
+        );
+
+        // when
+        List<PointBulkResult> results = pointBulkService.process(items);
+
+        // then
+        assertThat(results).extracting(PointBulkResult::index).containsExactly(0, 1, 2);
+        assertThat(results).extracting(result -> result.userPoint().point()).containsExactly(1000L, 500L, 700L);
+        InOrder inOrder = inOrder(pointService);
+        inOrder.verify(pointService).chargeUserPoint(1L, 1000L);
+        inOrder.verify(pointService).useUserPoint(1L, 300L);
+    }
+
+    @Test
+    @DisplayName("실패한 항목은 실패 사유를 담고, 다른 항목은 계속 처리한다.")
+    void processReportsFailurePerItem() {
+        // given
+        when(pointService.useUserPoint(1L, 5000L)).thenThrow(new IllegalArgumentException("잔고부족"));
+        when(pointService.chargeUserPoint(1L, 100L)).thenReturn(new UserPoint(1L, 100L, 0L));
+        List<PointBulkItem> items = List.of(
+                new PointBulkItem(1L, TransactionType.USE, 5000L),
+                new PointBulkItem(1L, TransactionType.CHARGE, 100L)
+        );
+
+        // when
+        List<PointBulkResult> results = pointBulkService.process(items);
+
+        // then
+        assertThat(results.get(0).success()).isFalse();
+        assertThat(results.get(0).message()).isEqualTo("잔고부족");
+        assertThat(results.get(1).success()).isTrue();
+    }
+
+    @Test
+    @DisplayName("빈 요청은 처리하지 않는다.")
+    void processRejectsEmptyItems() {
+        assertThatThrownBy(() -> pointBulkService.process(List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(pointService);
+    }
+}
@@ -0,0 +1,81 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointThrottleReason;
+import io.hhplus.tdd.point.PointThrottledException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointConcurrencyLimiterTest {
+
+    @Test
+    @DisplayName("한도만큼 처리 중이면 다음 요청은 바로 거절하고, 반납하면 다시 허용한다.")
+    void rejectsWhenFullAndAdmitsAfterRelease() {
+        // given
+        PointConcurrencyLimiter limiter = new PointConcurrencyLimiter(2);
+        PointConcurrencyLimiter.Permit first = limiter.acquire();
+        PointConcurrencyLimiter.Permit second = limiter.acquire();
+
+        // when & then
+        assertThatThrownBy(limiter::acquire)
+                .isInstanceOf(PointThrottledException.class)
+                .extracting(e -> ((PointThrottledException) e).reason())
+                .isEqualTo(PointThrottleReason.CONCURRENCY_LIMIT);
+
+        first.close();
+        first.close(); // 두 번 반납해도 한 번만 센다.
+        try (PointConcurrencyLimiter.Permit third = limiter.acquire()) {
+            assertThat(limiter.inFlight()).isEqualTo(2);
+        }
+        second.close();
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("여러 쓰레드가 동시에 요청해도 처리 중인 수가 한도를 넘지 않는다.")
+    void concurrentAcquireNeverExceedsLimit() throws Exception {
+        // given
+        int limit = 4;
+        PointConcurrencyLimiter limiter = new PointConcurrencyLimiter(limit);
+        int threadCount = 16;
+        AtomicInteger holding = new AtomicInteger();
+        AtomicInteger maxHolding = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < 10_000; j++) {
+                    try (PointConcurrencyLimiter.Permit ignored = limiter.acquire()) {
+                        maxHolding.accumulateAndGet(holding.incrementAndGet(), Math::max);
+                        holding.decrementAndGet();
+                    } catch (PointThrottledException throttled) {
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(maxHolding.get()).isLessThanOrEqualTo(limit);
+        assertThat(limiter.inFlight()).isZero();
+    }
+}
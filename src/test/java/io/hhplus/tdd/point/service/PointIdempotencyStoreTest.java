@@ -0,0 +1,162 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.UserPoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointIdempotencyStoreTest {
+
+    @Test
+    @DisplayName("같은 키로 다시 요청하면 처리하지 않고 처음 결과를 돌려준다.")
+    void duplicateReturnsStoredResult() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(60_000L, 100);
+        PointCommand command = PointCommand.charge(1L, 1000L);
+        AtomicInteger executions = new AtomicInteger();
+
+        // when
+        UserPoint first = store.execute("key-1", command, () -> new UserPoint(1L, 1000L * executions.incrementAndGet(), 0L));
+        UserPoint second = store.execute("key-1", command, () -> new UserPoint(1L, 1000L * executions.incrementAndGet(), 0L));
+
+        // then
+        assertThat(second).isEqualTo(first);
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("키가 같아도 유저가 다르면 별개의 요청으로 처리한다.")
+    void keysAreScopedPerUser() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(60_000L, 100);
+        AtomicInteger executions = new AtomicInteger();
+
+        // when
+        store.execute("key-1", PointCommand.charge(1L, 1000L), () -> new UserPoint(1L, executions.incrementAndGet(), 0L));
+        store.execute("key-1", PointCommand.charge(2L, 1000L), () -> new UserPoint(2L, executions.incrementAndGet(), 0L));
+
+        // then
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 금액을 요청하면 IllegalArgumentException 이 발생한다.")
+    void mismatchedCommandIsRejected() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(60_000L, 100);
+        store.execute("key-1", PointCommand.charge(1L, 1000L), () -> new UserPoint(1L, 1000L, 0L));
+
+        // when & then
+        assertThatThrownBy(() -> store.execute("key-1", PointCommand.charge(1L, 2000L), () -> new UserPoint(1L, 3000L, 0L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("실패한 요청은 보관하지 않으므로 같은 키로 다시 시도할 수 있다.")
+    void failedRequestCanBeRetried() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(60_000L, 100);
+        PointCommand command = PointCommand.use(1L, 1000L);
+        assertThatThrownBy(() -> store.execute("key-1", command, () -> {
+            throw new IllegalArgumentException("잔고부족");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // when
+        UserPoint retried = store.execute("key-1", command, () -> new UserPoint(1L, 0L, 0L));
+
+        // then
+        assertThat(retried.point()).isZero();
+        assertThat(store.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("보관 수를 넘거나 TTL 이 지나면 오래된 결과부터 지운다.")
+    void entriesAreBoundedAndExpire() throws InterruptedException {
+        // given
+        PointIdempotencyStore bounded = new PointIdempotencyStore(60_000L, 10);
+        PointIdempotencyStore shortLived = new PointIdempotencyStore(10L, 100);
+        AtomicInteger executions = new AtomicInteger();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            bounded.execute("key-" + i, PointCommand.charge(1L, 1L), () -> new UserPoint(1L, 1L, 0L));
+        }
+        shortLived.execute("key-1", PointCommand.charge(1L, 1L), () -> new UserPoint(1L, executions.incrementAndGet(), 0L));
+        Thread.sleep(20L);
+        shortLived.execute("key-1", PointCommand.charge(1L, 1L), () -> new UserPoint(1L, executions.incrementAndGet(), 0L));
+
+        // then
+        assertThat(bounded.size()).isEqualTo(10);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("실패해서 지운 요청은 보관 수에 세지 않으므로, 성공한 결과가 보관 수보다 먼저 지워지지 않는다.")
+    void failedRequestsDoNotCountTowardsMaxEntries() {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(60_000L, 2);
+        AtomicInteger executions = new AtomicInteger();
+        store.execute("key-1", PointCommand.charge(1L, 1L), () -> new UserPoint(1L, executions.incrementAndGet(), 0L));
+        assertThatThrownBy(() -> store.execute("key-2", PointCommand.use(1L, 1L), () -> {
+            throw new IllegalArgumentException("잔고부족");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // when
+        store.execute("key-3", PointCommand.charge(1L, 1L), () -> new UserPoint(1L, executions.incrementAndGet(), 0L));
+        store.execute("key-1", PointCommand.charge(1L, 1L), () -> new UserPoint(1L, executions.incrementAndGet(), 0L));
+
+        // then
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(executions.get()).isEqualTo(2); // key-1 은 지워지지 않아 다시 처리하지 않는다.
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 들어온 요청은 한 번만 처리되고 모두 같은 결과를 받는다.")
+    void concurrentDuplicatesExecuteOnce() throws Exception {
+        // given
+        PointIdempotencyStore store = new PointIdempotencyStore(60_000L, 100);
+        PointCommand command = PointCommand.charge(1L, 1000L);
+        AtomicInteger executions = new AtomicInteger();
+        int threadCount = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        // when
+        List<Future<UserPoint>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return store.execute("key-1", command, () -> {
+                    sleep(50L); // 느린 테이블 접근을 흉내낸다.
+                    return new UserPoint(1L, 1000L * executions.incrementAndGet(), 0L);
+                });
+            }));
+        }
+        start.countDown();
+
+        // then
+        for (Future<UserPoint> future : futures) {
+            assertThat(future.get().point()).isEqualTo(1000L);
+        }
+        executorService.shutdown();
+        assertThat(executions).hasValue(1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointThrottleReason;
+import io.hhplus.tdd.point.PointThrottledException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PointRateLimiterTest {
+
+    @Test
+    @DisplayName("burst 만큼은 바로 허용하고, 그 다음 요청은 기다리지 않고 거절한다.")
+    void rejectsBeyondBurst() {
+        // given : 초당 1개, 한 번에 3개까지
+        PointRateLimiter rateLimiter = new PointRateLimiter(1L, 3, 100);
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.acquire(1L);
+        }
+
+        // when & then
+        assertThatThrownBy(() -> rateLimiter.acquire(1L))
+                .isInstanceOf(PointThrottledException.class)
+                .satisfies(e -> {
+                    PointThrottledException throttled = (PointThrottledException) e;
+                    assertThat(throttled.reason()).isEqualTo(PointThrottleReason.USER_RATE_LIMIT);
+                    assertThat(throttled.retryAfterSeconds()).isEqualTo(1L);
+                });
+        rateLimiter.acquire(2L); // 다른 유저는 영향을 받지 않는다.
+    }
+
+    @Test
+    @DisplayName("시간이 지나면 토큰이 다시 차서 요청을 허용한다.")
+    void refillsOverTime() throws InterruptedException {
+        // given : 초당 100개 (10ms 마다 1개), 한 번에 1개
+        PointRateLimiter rateLimiter = new PointRateLimiter(100L, 1, 100);
+        rateLimiter.acquire(1L);
+        assertThatThrownBy(() -> rateLimiter.acquire(1L)).isInstanceOf(PointThrottledException.class);
+
+        // when
+        Thread.sleep(20L);
+
+        // then
+        rateLimiter.acquire(1L);
+    }
+
+    @Test
+    @DisplayName("여러 쓰레드가 한 유저로 동시에 요청해도 burst 를 넘겨 허용하지 않는다.")
+    void concurrentAcquireNeverExceedsBurst() throws Exception {
+        // given : 토큰이 거의 차지 않도록 초당 1개, 한 번에 100개
+        PointRateLimiter rateLimiter = new PointRateLimiter(1L, 100, 100);
+        int threadCount = 8;
+        int attemptsPerThread = 1_000;
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                for (int j = 0; j < attemptsPerThread; j++) {
+                    try {
+                        rateLimiter.acquire(1L);
+                        admitted.incrementAndGet();
+                    } catch (PointThrottledException ignored) {
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        // then : 테스트 도중 찬 토큰 몇 개를 감안한다.
+        assertThat(admitted.get()).isBetween(100, 110);
+    }
+
+    @Test
+    @DisplayName("보관하는 유저 수가 maxUsers 를 넘지 않는다.")
+    void bucketCountIsBounded() {
+        // given
+        PointRateLimiter rateLimiter = new PointRateLimiter(1L, 1, 100);
+
+        // when
+        for (long userId = 0; userId < 10_000; userId++) {
+            rateLimiter.acquire(userId);
+        }
+
+        // then
+        assertThat(rateLimiter.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("초당 요청 수를 0 으로 두면 제한하지 않고 유저도 보관하지 않는다.")
+    void disabledWhenPermitsPerSecondIsZero() {
+        // given
+        PointRateLimiter rateLimiter = new PointRateLimiter(0L, 1, 100);
+
+        // when
+        for (int i = 0; i < 1_000; i++) {
+            rateLimiter.acquire(1L);
+        }
+
+        // then
+        assertThat(rateLimiter.size()).isZero();
+    }
+}
@@ -94,4 +94,19 @@ class PointServiceChargeTest {
         verify(userPointRepository).findById(eq(userId));
         verify(pointHistoryRepository, never()).save(anyLong(), anyLong(), any(TransactionType.class), anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void 잔액_저장_실패시_저장한_내역을_확정하지_않고_버린다() {
+        // given
+        long userId = 321L;
+        long amount = 5_000L;
+        when(userPointRepository.findById(eq(userId))).thenReturn(UserPoint.empty(userId));
+        when(userPointRepository.saveOrUpdate(eq(userId), eq(amount))).thenThrow(new IllegalStateException("저장 실패"));
+
+        // when & then
+        assertThatThrownBy(() -> pointService.chargeUserPoint(userId, amount))
+                .isInstanceOf(IllegalStateException.class);
+        verify(pointHistoryRepository).save(eq(userId), eq(amount), eq(TransactionType.CHARGE), anyLong());
+        verify(pointHistoryRepository).discardUncommitted(userId);
+    }
+}
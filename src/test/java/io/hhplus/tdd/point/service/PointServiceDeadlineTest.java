@@ -0,0 +1,142 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointTimeoutException;
+import io.hhplus.tdd.point.PointTimeoutReason;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.metrics.PointMetrics;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class PointServiceDeadlineTest {
+    UserPointRepository userPointRepository;
+    PointHistoryRepository pointHistoryRepository;
+    SimpleMeterRegistry meterRegistry;
+    PointService pointService;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointRepository = mock(UserPointRepository.class);
+        pointHistoryRepository = mock(PointHistoryRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        pointService = new PointService(userPointRepository, pointHistoryRepository);
+        pointService.setPointMetrics(new PointMetrics(meterRegistry));
+        pointService.setRequestTimeoutMillis(100L);
+        when(userPointRepository.saveOrUpdate(anyLong(), anyLong()))
+                .thenAnswer(invocation -> new UserPoint(invocation.getArgument(0), invocation.getArgument(1), 0L));
+    }
+
+    @Test
+    @DisplayName("앞선 요청이 Lock 을 오래 잡고 있으면 기한 안에 Lock 을 얻지 못한 요청은 테이블에 접근하지 않고 버려진다.")
+    void requestIsDroppedWhenLockIsNotAcquiredBeforeDeadline() throws Exception {
+        // given : 첫 요청은 테이블 조회에서 300ms 동안 Lock 을 잡고 있는다.
+        long userId = 1L;
+        CountDownLatch holding = new CountDownLatch(1);
+        when(userPointRepository.findById(userId)).thenAnswer(invocation -> {
+            holding.countDown();
+            Thread.sleep(300L);
+            return UserPoint.empty(userId);
+        });
+        CompletableFuture<UserPoint> first = CompletableFuture.supplyAsync(() -> pointService.chargeUserPoint(userId, 1000L));
+        holding.await();
+
+        // when & then
+        assertThatThrownBy(() -> pointService.chargeUserPoint(userId, 500L))
+                .isInstanceOf(PointTimeoutException.class)
+                .extracting(e -> ((PointTimeoutException) e).reason())
+                .isEqualTo(PointTimeoutReason.LOCK_TIMEOUT);
+        assertThat(first.get().point()).isEqualTo(1000L);
+        verify(userPointRepository, times(1)).findById(userId);
+        verify(pointHistoryRepository, times(1)).save(eq(userId), anyLong(), any(), anyLong());
+        assertThat(meterRegistry.counter("point.dropped", "operation", "charge", "reason", "lock_timeout").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("기한을 두지 않으면(0) 앞선 요청이 끝날 때까지 기다렸다가 처리한다.")
+    void withoutDeadlineWaitsForLock() throws Exception {
+        // given
+        long userId = 2L;
+        pointService.setRequestTimeoutMillis(0L);
+        CountDownLatch holding = new CountDownLatch(1);
+        when(userPointRepository.findById(userId)).thenAnswer(invocation -> {
+            holding.countDown();
+            Thread.sleep(300L);
+            return UserPoint.empty(userId);
+        });
+        CompletableFuture<UserPoint> first = CompletableFuture.supplyAsync(() -> pointService.chargeUserPoint(userId, 1000L));
+        holding.await();
+
+        // when
+        UserPoint second = pointService.chargeUserPoint(userId, 500L);
+
+        // then
+        assertThat(first.get().point()).isEqualTo(1000L);
+        assertThat(second.point()).isEqualTo(500L); // 조회 결과를 빈 잔액으로 고정했으므로 500
+        verify(userPointRepository, times(2)).findById(userId);
+    }
+
+    @Test
+    @DisplayName("group-commit 실행기에서도 앞선 batch 를 기다리다 기한이 지난 요청은 잔액을 읽지 않고 버려진다.")
+    void groupCommitEngineDropsExpiredCommand() throws Exception {
+        pointService.setCommandEngine(new GroupCommitPointCommandEngine(userPointRepository, pointHistoryRepository, 128));
+        assertEngineDropsExpiredCommand(3L);
+    }
+
+    @Test
+    @DisplayName("sharded 실행기에서도 큐에서 기다리다 기한이 지난 요청은 잔액을 읽지 않고 버려진다.")
+    void shardedEngineDropsExpiredCommand() throws Exception {
+        try (ShardedPointCommandEngine engine = new ShardedPointCommandEngine(userPointRepository, pointHistoryRepository, 1, 1_000, 128, 1_000)) {
+            pointService.setCommandEngine(engine);
+            assertEngineDropsExpiredCommand(4L);
+        }
+    }
+
+    @Test
+    @DisplayName("optimistic 실행기는 기한이 지난 요청을 잔액을 읽기 전에 버린다.")
+    void optimisticEngineDropsExpiredCommand() {
+        // given
+        long userId = 5L;
+        OptimisticPointCommandEngine engine = new OptimisticPointCommandEngine(userPointRepository, pointHistoryRepository, new UserLockManager(), 8, 100L);
+        PointCommand expired = PointCommand.charge(userId, 1000L).withDeadline(System.nanoTime());
+
+        // when & then
+        assertThatThrownBy(() -> engine.execute(expired))
+                .isInstanceOf(PointTimeoutException.class)
+                .extracting(e -> ((PointTimeoutException) e).reason())
+                .isEqualTo(PointTimeoutReason.DEADLINE_EXPIRED);
+        verify(userPointRepository, never()).findById(userId);
+    }
+
+    // 첫 요청이 테이블 조회에서 300ms 동안 붙잡혀 있는 사이 들어온 요청은 기한(100ms)이 지나 버려진다.
+    private void assertEngineDropsExpiredCommand(long userId) throws Exception {
+        // given
+        CountDownLatch holding = new CountDownLatch(1);
+        when(userPointRepository.findById(userId)).thenAnswer(invocation -> {
+            holding.countDown();
+            Thread.sleep(300L);
+            return UserPoint.empty(userId);
+        });
+        CompletableFuture<UserPoint> first = CompletableFuture.supplyAsync(() -> pointService.chargeUserPoint(userId, 1000L));
+        holding.await();
+
+        // when & then
+        assertThatThrownBy(() -> pointService.chargeUserPoint(userId, 500L))
+                .isInstanceOf(PointTimeoutException.class)
+                .extracting(e -> ((PointTimeoutException) e).reason())
+                .isEqualTo(PointTimeoutReason.DEADLINE_EXPIRED);
+        assertThat(first.get().point()).isEqualTo(1000L);
+        verify(userPointRepository, times(1)).findById(userId);
+        verify(pointHistoryRepository, times(1)).save(eq(userId), anyLong(), any(), anyLong());
+        assertThat(meterRegistry.counter("point.dropped", "operation", "charge", "reason", "deadline_expired").count()).isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,121 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.expiration.PointExpirationScheduler;
+import io.hhplus.tdd.point.expiration.PointLotStore;
+import io.hhplus.tdd.point.expiration.TimingWheel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class PointServiceExpirationTest {
+
+    static final long TTL_MILLIS = 60_000L;
+    static final long TICK_MILLIS = 1_000L;
+
+    PointServiceTransferTest.InMemoryUserPointRepository userPointRepository;
+    PointServiceTransferTest.InMemoryPointHistoryRepository pointHistoryRepository;
+    PointLotStore pointLotStore;
+    PointService pointService;
+    PointExpirationScheduler pointExpirationScheduler;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointRepository = new PointServiceTransferTest.InMemoryUserPointRepository();
+        pointHistoryRepository = new PointServiceTransferTest.InMemoryPointHistoryRepository();
+        TimingWheel<Long> timingWheel = new TimingWheel<>(TICK_MILLIS, 64, System.currentTimeMillis());
+        pointLotStore = new PointLotStore(pointHistoryRepository, TTL_MILLIS, timingWheel);
+        pointService = new PointService(userPointRepository, pointHistoryRepository);
+        pointService.setPointLotStore(pointLotStore);
+        pointExpirationScheduler = new PointExpirationScheduler(timingWheel, pointService, TICK_MILLIS);
+    }
+
+    @AfterEach
+    void afterEach() {
+        pointExpirationScheduler.close();
+    }
+
+    @Test
+    @DisplayName("유효기간이 지나면 먼저 쓰고 남은 충전 포인트만 소멸되고, EXPIRE 내역이 한 건 남는다.")
+    void expiresRemainingOfOldestLots() {
+        // given : 1000 을 두 번 충전하고 1500 을 쓰면 두 번째 충전분 500 만 남는다.
+        pointService.chargeUserPoint(1L, 1_000L);
+        pointService.chargeUserPoint(1L, 1_000L);
+        pointService.useUserPoint(1L, 1_500L);
+        long expireMillis = System.currentTimeMillis() + TTL_MILLIS + TICK_MILLIS;
+
+        // when
+        int expiredUsers = pointExpirationScheduler.expire(expireMillis);
+
+        // then
+        assertThat(expiredUsers).isEqualTo(1);
+        assertThat(userPointRepository.findById(1L).point()).isZero();
+        assertThat(pointHistoryRepository.findAllById(1L))
+                .extracting(PointHistory::type, PointHistory::amount)
+                .containsExactly(
+                        tuple(TransactionType.CHARGE, 1_000L),
+                        tuple(TransactionType.CHARGE, 1_000L),
+                        tuple(TransactionType.USE, 1_500L),
+                        tuple(TransactionType.EXPIRE, 500L));
+    }
+
+    @Test
+    @DisplayName("유효기간이 지나기 전에는 소멸되지 않는다.")
+    void doesNotExpireBeforeTtl() {
+        // given
+        pointService.chargeUserPoint(1L, 1_000L);
+
+        // when
+        pointExpirationScheduler.expire(System.currentTimeMillis() + TTL_MILLIS / 2);
+
+        // then
+        assertThat(userPointRepository.findById(1L).point()).isEqualTo(1_000L);
+        assertThat(pointLotStore.lotsOf(1L).remaining()).isEqualTo(1_000L);
+    }
+
+    @Test
+    @DisplayName("이동으로 받은 포인트는 받은 시점부터 유효기간이 시작되고, 보낸 유저는 오래된 lot 부터 차감된다.")
+    void transferMovesLots() {
+        // given
+        pointService.chargeUserPoint(1L, 1_000L);
+
+        // when
+        pointService.transfer(1L, 2L, 400L);
+
+        // then
+        assertThat(pointLotStore.lotsOf(1L).remaining()).isEqualTo(600L);
+        assertThat(pointLotStore.lotsOf(2L).remaining()).isEqualTo(400L);
+    }
+
+    @Test
+    @DisplayName("lot 이 없는 잔액(기능 도입 전 잔액 등)은 소멸되지 않는다.")
+    void balanceWithoutLotsIsKept() {
+        // given
+        userPointRepository.saveOrUpdate(1L, 300L);
+        pointService.chargeUserPoint(1L, 200L);
+
+        // when
+        UserPoint userPoint = pointService.expireUserPoint(1L, System.currentTimeMillis() + TTL_MILLIS + TICK_MILLIS);
+
+        // then
+        assertThat(userPoint.point()).isEqualTo(300L);
+    }
+
+    @Test
+    @DisplayName("포인트 만료가 설정되지 않았으면 IllegalStateException 이 발생한다.")
+    void expireWithoutLotStoreIsRejected() {
+        // given
+        PointService withoutExpiration = new PointService(userPointRepository, pointHistoryRepository);
+
+        // when & then
+        assertThatThrownBy(() -> withoutExpiration.expireUserPoint(1L, System.currentTimeMillis()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
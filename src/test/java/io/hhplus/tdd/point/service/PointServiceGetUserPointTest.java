@@ -1,6 +1,9 @@
 package io.hhplus.tdd.point.service;
 
 import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryExportQuery;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
 import io.hhplus.tdd.point.TransactionType;
 import io.hhplus.tdd.point.UserPoint;
 import io.hhplus.tdd.point.repository.PointHistoryRepository;
@@ -14,9 +17,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.eq;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 
@@ -92,4 +97,39 @@ public class PointServiceGetUserPointTest {
         assertThat(result).isEmpty(); // 결과가 비어 있어야 함
         verify(pointHistoryRepository, times(1)).findAllById(eq(userId)); // 호출 검증
     }
+
+    @Test
+    void 포인트내역_페이지조회_실패케이스_조회건수범위초과() {
+        long userId = 123L;
+
+        // when & then
+        assertThatThrownBy(() -> pointService.getUserPointHistories(userId, null, PointService.MAX_HISTORY_PAGE_SIZE + 1, PointHistoryOrder.ASC))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("조회 건수");
+        verify(pointHistoryRepository, never()).findPageById(anyLong(), any(), anyInt(), any());
+    }
+
+    @Test
+    void 포인트내역_내보내기_조건에맞는내역만_전달() {
+        // given
+        PointHistory charge = new PointHistory(1L, 1L, 5000L, TransactionType.CHARGE, 100L);
+        PointHistory use = new PointHistory(2L, 1L, 1000L, TransactionType.USE, 200L);
+        PointHistory lateCharge = new PointHistory(3L, 2L, 3000L, TransactionType.CHARGE, 900L);
+        doAnswer(invocation -> {
+            Consumer<PointHistory> action = invocation.getArgument(1);
+            (invocation.<Long>getArgument(0) == 1L ? List.of(charge, use) : List.of(lateCharge)).forEach(action);
+            return null;
+        }).when(pointHistoryRepository).forEachById(anyLong(), any());
+        PointHistoryExportQuery query = new PointHistoryExportQuery(null, 1L, 2L, TransactionType.CHARGE, 0L, 500L);
+
+        // when
+        List<PointHistory> exported = new ArrayList<>();
+        pointService.exportHistories(query, exported::add);
+
+        // then : 유저마다 한 번씩만 읽는다. (테이블은 페이지 조회도 유저 내역 전체를 읽는다)
+        assertThat(exported).containsExactly(charge);
+        verify(pointHistoryRepository, times(1)).forEachById(eq(1L), any());
+        verify(pointHistoryRepository, times(1)).forEachById(eq(2L), any());
+        verify(pointHistoryRepository, never()).findPageById(anyLong(), any(), anyInt(), any());
+    }
 }
@@ -0,0 +1,211 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointRejectedException;
+import io.hhplus.tdd.point.PointTransferResult;
+import io.hhplus.tdd.point.PointUnsupportedException;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+
+class PointServiceTransferTest {
+    InMemoryUserPointRepository userPointRepository;
+    InMemoryPointHistoryRepository pointHistoryRepository;
+    UserLockManager userLockManager;
+    PointService pointService;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointRepository = new InMemoryUserPointRepository();
+        pointHistoryRepository = new InMemoryPointHistoryRepository();
+        userLockManager = new UserLockManager();
+        pointService = new PointService(userPointRepository, pointHistoryRepository);
+        pointService.setUserLockManager(userLockManager);
+    }
+
+    @Test
+    @DisplayName("보낸 유저의 잔액은 줄고 받은 유저의 잔액은 늘며, 두 내역은 한 번에 저장된다.")
+    void transferMovesPointsAndSavesBothHistoriesAtOnce() {
+        // given
+        userPointRepository.saveOrUpdate(1L, 1000L);
+        userPointRepository.saveOrUpdate(2L, 500L);
+
+        // when
+        PointTransferResult result = pointService.transfer(1L, 2L, 300L);
+
+        // then
+        assertThat(result.from().point()).isEqualTo(700L);
+        assertThat(result.to().point()).isEqualTo(800L);
+        assertThat(pointHistoryRepository.saveAllCount).hasValue(1);
+        assertThat(pointHistoryRepository.findAllById(1L))
+                .extracting(PointHistory::type, PointHistory::amount)
+                .containsExactly(tuple(TransactionType.USE, 300L));
+        assertThat(pointHistoryRepository.findAllById(2L))
+                .extracting(PointHistory::type, PointHistory::amount)
+                .containsExactly(tuple(TransactionType.CHARGE, 300L));
+    }
+
+    @Test
+    @DisplayName("보낸 유저의 잔액이 부족하면 두 유저 모두 잔액과 내역이 바뀌지 않는다.")
+    void insufficientPointChangesNothing() {
+        // given
+        userPointRepository.saveOrUpdate(1L, 100L);
+
+        // when & then
+        assertThatThrownBy(() -> pointService.transfer(1L, 2L, 300L))
+                .isInstanceOf(PointRejectedException.class);
+        assertThat(userPointRepository.findById(1L).point()).isEqualTo(100L);
+        assertThat(userPointRepository.findById(2L).point()).isZero();
+        assertThat(pointHistoryRepository.findAllById(1L)).isEmpty();
+        assertThat(pointHistoryRepository.findAllById(2L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("받은 유저가 최대 포인트를 넘게 되면 보낸 유저의 잔액도 바뀌지 않는다.")
+    void receiverOverMaxPointChangesNothing() {
+        // given
+        userPointRepository.saveOrUpdate(1L, 1000L);
+        userPointRepository.saveOrUpdate(2L, 999_900L);
+
+        // when & then
+        assertThatThrownBy(() -> pointService.transfer(1L, 2L, 500L))
+                .isInstanceOf(PointRejectedException.class);
+        assertThat(userPointRepository.findById(1L).point()).isEqualTo(1000L);
+        assertThat(pointHistoryRepository.findAllById(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("같은 유저에게 이동하면 IllegalArgumentException 이 발생한다.")
+    void transferToSelfIsRejected() {
+        assertThatThrownBy(() -> pointService.transfer(1L, 1L, 100L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("실행기(point.service.engine)를 쓰는 경우에는 이동을 지원하지 않는다고 거절한다.")
+    void transferIsNotSupportedWithCommandEngine() {
+        // given
+        pointService.setCommandEngine(mock(PointCommandEngine.class));
+
+        // when & then
+        assertThatThrownBy(() -> pointService.transfer(1L, 2L, 100L))
+                .isInstanceOf(PointUnsupportedException.class);
+    }
+
+    @Test
+    @DisplayName("여러 쓰레드가 유저들 사이로 무작위 방향의 이동을 동시에 보내도 교착 없이 끝나고, 전체 포인트는 보존된다.")
+    void randomCrossTransfersDoNotDeadlock() throws Exception {
+        // given : 저장소는 동시 접근을 막지 않으므로, 두 유저의 Lock 이 모두 지켜져야만 합계가 맞는다.
+        int userCount = 16;
+        long initialPoint = 10_000L;
+        for (long userId = 1; userId <= userCount; userId++) {
+            userPointRepository.saveOrUpdate(userId, initialPoint);
+        }
+        int threadCount = 16;
+        int transfersPerThread = 5_000;
+        AtomicInteger succeeded = new AtomicInteger();
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < threadCount; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int j = 0; j < transfersPerThread; j++) {
+                    long from = random.nextLong(1, userCount + 1);
+                    long to = random.nextLong(1, userCount);
+                    if (to >= from) {
+                        to++;
+                    }
+                    try {
+                        pointService.transfer(from, to, random.nextLong(1, 500));
+                        succeeded.incrementAndGet();
+                    } catch (PointRejectedException ignored) {
+                        // 잔액이 부족한 이동은 거절된다.
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS); // 교착되면 시간 초과로 실패한다.
+        }
+        executorService.shutdown();
+
+        // then
+        long total = 0L;
+        int historyCount = 0;
+        for (long userId = 1; userId <= userCount; userId++) {
+            total += userPointRepository.findById(userId).point();
+            historyCount += pointHistoryRepository.findAllById(userId).size();
+        }
+        assertThat(total).isEqualTo(userCount * initialPoint);
+        assertThat(historyCount).isEqualTo(succeeded.get() * 2);
+        assertThat(userLockManager.size()).isZero();
+    }
+
+    // 동시 접근을 막지 않는 저장소 (유저별 직렬화가 깨지면 값이 유실된다)
+    static class InMemoryUserPointRepository implements UserPointRepository {
+        private final Map<Long, UserPoint> table = new ConcurrentHashMap<>(); // 읽고-쓰는 순서는 보호하지 않는다.
+
+        @Override
+        public UserPoint findById(long id) {
+            UserPoint userPoint = table.get(id);
+            return userPoint != null ? userPoint : UserPoint.empty(id);
+        }
+
+        @Override
+        public UserPoint saveOrUpdate(long id, long amount) {
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            table.put(id, userPoint);
+            return userPoint;
+        }
+    }
+
+    static class InMemoryPointHistoryRepository implements PointHistoryRepository {
+        private final List<PointHistory> table = new ArrayList<>();
+        private final AtomicInteger saveAllCount = new AtomicInteger();
+
+        @Override
+        public synchronized PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+            PointHistory pointHistory = new PointHistory(table.size() + 1, userId, amount, type, updateMillis);
+            table.add(pointHistory);
+            return pointHistory;
+        }
+
+        @Override
+        public synchronized List<PointHistory> saveAll(List<PointHistory> histories) {
+            saveAllCount.incrementAndGet();
+            return PointHistoryRepository.super.saveAll(histories);
+        }
+
+        @Override
+        public synchronized List<PointHistory> findAllById(long userId) {
+            return table.stream().filter(pointHistory -> pointHistory.userId() == userId).toList();
+        }
+    }
+}
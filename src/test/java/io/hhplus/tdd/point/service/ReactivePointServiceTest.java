@@ -0,0 +1,199 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactivePointServiceTest {
+    InMemoryUserPointRepository userPointRepository;
+    InMemoryPointHistoryRepository pointHistoryRepository;
+    PointService pointService;
+    ReactivePointService reactivePointService;
+
+    @BeforeEach
+    void beforeEach() {
+        userPointRepository = new InMemoryUserPointRepository();
+        pointHistoryRepository = new InMemoryPointHistoryRepository();
+        pointService = new PointService(userPointRepository, pointHistoryRepository);
+        // 쓰레드 4개로 제한해서 많은 요청을 적은 쓰레드로 처리하는지 확인한다.
+        reactivePointService = new ReactivePointService(pointService, 4, 10_000);
+    }
+
+    @AfterEach
+    void afterEach() {
+        reactivePointService.close();
+    }
+
+    @Test
+    @DisplayName("충전 후 조회하면 충전된 잔액과 내역을 돌려준다.")
+    void chargeThenRead() {
+        // given
+        long userId = 1L;
+
+        // when & then
+        StepVerifier.create(reactivePointService.chargeUserPoint(userId, 1000L))
+                .assertNext(userPoint -> assertThat(userPoint.point()).isEqualTo(1000L))
+                .verifyComplete();
+        StepVerifier.create(reactivePointService.getUserPoint(userId))
+                .assertNext(userPoint -> assertThat(userPoint.point()).isEqualTo(1000L))
+                .verifyComplete();
+        StepVerifier.create(reactivePointService.getUserPointHistories(userId))
+                .assertNext(pointHistory -> assertThat(pointHistory.type()).isEqualTo(TransactionType.CHARGE))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("잔액보다 많이 사용하면 IllegalArgumentException 으로 끝나고 내역은 남지 않는다.")
+    void useMoreThanBalanceFails() {
+        // given
+        long userId = 2L;
+
+        // when & then
+        StepVerifier.create(reactivePointService.useUserPoint(userId, 1000L))
+                .expectError(IllegalArgumentException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(pointHistoryRepository.findAllById(userId)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("한 유저에게 동시에 쌓인 수많은 요청을 쓰레드 4개로 누락 없이 순서대로 처리한다.")
+    void manyInFlightRequestsForOneUser() {
+        // given : 저장소는 동시 접근을 막지 않으므로, 유저별 큐가 순서대로 처리해야만 합계가 맞는다.
+        long userId = 3L;
+        int requestCount = 10_000;
+
+        // when
+        List<UserPoint> results = Flux.range(0, requestCount)
+                .flatMap(i -> reactivePointService.chargeUserPoint(userId, 10L), requestCount)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        // then
+        assertThat(results).hasSize(requestCount);
+        assertThat(userPointRepository.findById(userId).point()).isEqualTo(10L * requestCount);
+        assertThat(pointHistoryRepository.findAllById(userId)).hasSize(requestCount);
+        assertThat(reactivePointService.activeUserCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("여러 유저에게 섞여 들어온 충전/사용 요청의 결과가 유저별로 정확하다.")
+    void concurrentRequestsForManyUsers() {
+        // given
+        int userCount = 100;
+        int requestsPerUser = 50;
+
+        // when
+        Flux.range(0, userCount * requestsPerUser)
+                .flatMap(i -> {
+                    long userId = 100L + i % userCount;
+                    Mono<UserPoint> charge = reactivePointService.chargeUserPoint(userId, 100L);
+                    return i / userCount % 2 == 0 ? charge : charge.then(reactivePointService.useUserPoint(userId, 50L));
+                }, 1_000)
+                .blockLast(Duration.ofSeconds(30));
+
+        // then : 유저마다 충전 50번(5000), 사용 25번(1250)
+        for (long userId = 100L; userId < 100L + userCount; userId++) {
+            assertThat(userPointRepository.findById(userId).point()).isEqualTo(3750L);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 유저에게 /point 와 /reactive/point 로 동시에 들어온 충전이 유실되지 않는다.")
+    void blockingAndReactiveChargesAreSerialized() throws InterruptedException {
+        // given
+        long userId = 4L;
+        int requestCount = 1_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(requestCount);
+
+        // when
+        for (int i = 0; i < requestCount; i++) {
+            executorService.submit(() -> {
+                try {
+                    pointService.chargeUserPoint(userId, 10L);
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        Flux.range(0, requestCount)
+                .flatMap(i -> reactivePointService.chargeUserPoint(userId, 10L), requestCount)
+                .blockLast(Duration.ofSeconds(30));
+        latch.await(30, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        assertThat(userPointRepository.findById(userId).point()).isEqualTo(10L * requestCount * 2);
+        assertThat(pointHistoryRepository.findAllById(userId)).hasSize(requestCount * 2);
+    }
+
+    @Test
+    @DisplayName("같은 Idempotency-Key 로 다시 요청하면 한 번만 충전된다.")
+    void sameIdempotencyKeyChargesOnce() {
+        // given
+        long userId = 5L;
+
+        // when
+        reactivePointService.chargeUserPoint(userId, 1000L, "key-1").block(Duration.ofSeconds(5));
+        UserPoint replayed = reactivePointService.chargeUserPoint(userId, 1000L, "key-1").block(Duration.ofSeconds(5));
+
+        // then
+        assertThat(replayed.point()).isEqualTo(1000L);
+        assertThat(userPointRepository.findById(userId).point()).isEqualTo(1000L);
+    }
+
+    // 동시 접근을 막지 않는 저장소 (유저별 직렬화가 깨지면 값이 유실된다)
+    static class InMemoryUserPointRepository implements UserPointRepository {
+        private final Map<Long, UserPoint> table = new ConcurrentHashMap<>(); // 읽고-쓰는 순서는 보호하지 않는다.
+
+        @Override
+        public UserPoint findById(long id) {
+            UserPoint userPoint = table.get(id);
+            return userPoint != null ? userPoint : UserPoint.empty(id);
+        }
+
+        @Override
+        public UserPoint saveOrUpdate(long id, long amount) {
+            UserPoint userPoint = new UserPoint(id, amount, System.currentTimeMillis());
+            table.put(id, userPoint);
+            return userPoint;
+        }
+    }
+
+    static class InMemoryPointHistoryRepository implements PointHistoryRepository {
+        private final List<PointHistory> table = new ArrayList<>();
+
+        @Override
+        public synchronized PointHistory save(long userId, long amount, TransactionType type, long updateMillis) {
+            PointHistory pointHistory = new PointHistory(table.size() + 1, userId, amount, type, updateMillis);
+            table.add(pointHistory);
+            return pointHistory;
+        }
+
+        @Override
+        public synchronized List<PointHistory> findAllById(long userId) {
+            return table.stream().filter(pointHistory -> pointHistory.userId() == userId).toList();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package io.hhplus.tdd.point.service;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.UserPoint;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.UserPointRepositoryImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedPointCommandEngineTest {
+    PointHistoryTable pointHistoryTable;
+    ShardedPointCommandEngine engine;
+    PointService pointService;
+
+    @BeforeEach
+    void beforeEach() {
+        pointHistoryTable = new PointHistoryTable();
+        UserPointRepositoryImpl userPointRepository = new UserPointRepositoryImpl(new UserPointTable());
+        PointHistoryRepositoryImpl pointHistoryRepository = new PointHistoryRepositoryImpl(pointHistoryTable);
+        engine = new ShardedPointCommandEngine(userPointRepository, pointHistoryRepository, 4, 1_000, 128, 1_000);
+        pointService = new PointService(userPointRepository, pointHistoryRepository);
+        pointService.setCommandEngine(engine);
+    }
+
+    @AfterEach
+    void afterEach() {
+        engine.close();
+    }
+
+    @Test
+    @DisplayName("여러 유저에게 동시에 들어온 충전 요청을 누락 없이 처리한다.")
+    void concurrentChargesForManyUsers() throws InterruptedException {
+        // given
+        int userCount = 8;
+        int requestsPerUser = 10;
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        CountDownLatch latch = new CountDownLatch(userCount * requestsPerUser);
+
+        // when
+        for (long userId = 1; userId <= userCount; userId++) {
+            long id = userId;
+            for (int i = 0; i < requestsPerUser; i++) {
+                executorService.submit(() -> {
+                    try {
+                        pointService.chargeUserPoint(id, 100L);
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+        }
+        latch.await(60, TimeUnit.SECONDS);
+        executorService.shutdown();
+
+        // then
+        for (long userId = 1; userId <= userCount; userId++) {
+            assertThat(pointService.getUserPoint(userId).point()).isEqualTo(100L * requestsPerUser);
+            assertThat(pointHistoryTable.selectAllByUserId(userId)).hasSize(requestsPerUser);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 유저의 요청은 적재한 순서대로 처리된다.")
+    void commandsForSameUserAreProcessedInOrder() {
+        // given
+        long userId = 123L;
+
+        // when
+        CompletableFuture<UserPoint> charge = engine.submit(PointCommand.charge(userId, 1000L));
+        CompletableFuture<UserPoint> use = engine.submit(PointCommand.use(userId, 400L));
+        CompletableFuture<UserPoint> overUse = engine.submit(PointCommand.use(userId, 1000L));
+
+        // then
+        assertThat(charge.join().point()).isEqualTo(1000L);
+        assertThat(use.join().point()).isEqualTo(600L);
+        assertThatThrownBy(overUse::join).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThat(pointService.getUserPoint(userId).point()).isEqualTo(600L);
+    }
+
+    @Test
+    @DisplayName("거절된 요청은 호출한 쓰레드에 IllegalArgumentException 으로 전달된다.")
+    void rejectedCommandThrowsToCaller() {
+        assertThatThrownBy(() -> pointService.useUserPoint(456L, 1000L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("종료 후에는 새 요청을 받지 않는다.")
+    void submitAfterCloseIsRejected() {
+        // given
+        List<CompletableFuture<UserPoint>> futures = new ArrayList<>();
+        futures.add(engine.submit(PointCommand.charge(789L, 100L)));
+
+        // when
+        engine.close();
+
+        // then
+        assertThat(futures.get(0).join().point()).isEqualTo(100L); // 종료 전에 적재된 요청은 처리된다.
+        assertThatThrownBy(() -> engine.submit(PointCommand.charge(789L, 100L)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("종료와 겹쳐 들어온 요청은 처리되거나 실패로 완료되고, 완료되지 않은 채 남지 않는다.")
+    void submitsRacingCloseAllComplete() throws InterruptedException {
+        // given
+        ShardedPointCommandEngine racingEngine = new ShardedPointCommandEngine(
+                new PointServiceTransferTest.InMemoryUserPointRepository(),
+                new PointServiceTransferTest.InMemoryPointHistoryRepository(),
+                4, 16, 8, 1_000);
+        int threadCount = 8;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        List<CompletableFuture<UserPoint>> futures = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch started = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            long userId = t;
+            executorService.submit(() -> {
+                started.countDown();
+                for (int i = 0; i < 1_000; i++) {
+                    try {
+                        futures.add(racingEngine.submit(PointCommand.charge(userId, 1L)));
+                    } catch (IllegalStateException e) {
+                        return; // 종료 후에는 접수 자체가 거절된다.
+                    }
+                }
+            });
+        }
+        started.await();
+
+        // when
+        racingEngine.close();
+        executorService.shutdown();
+
+        // then
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(futures).allMatch(CompletableFuture::isDone);
+    }
+
+    @Test
+    @DisplayName("내역 저장에 실패한 요청만 실패하고, 같은 배치의 다른 요청은 그 요청을 뺀 잔액으로 처리된다.")
+    void historyFailureFailsOnlyThatCommand() {
+        // given
+        long userId = 321L;
+        OptimisticPointCommandEngineTest.FailingPointHistoryRepository failingHistoryRepository = new OptimisticPointCommandEngineTest.FailingPointHistoryRepository();
+        PointServiceTransferTest.InMemoryUserPointRepository userPointRepository = new PointServiceTransferTest.InMemoryUserPointRepository();
+        ShardedPointCommandEngine failingEngine = new ShardedPointCommandEngine(userPointRepository, failingHistoryRepository, 1, 1_000, 128, 1_000);
+        failingEngine.execute(PointCommand.charge(userId, 1000L));
+        failingHistoryRepository.failNext = true;
+
+        // when
+        CompletableFuture<UserPoint> failed = failingEngine.submit(PointCommand.charge(userId, 500L));
+        CompletableFuture<UserPoint> use = failingEngine.submit(PointCommand.use(userId, 400L));
+
+        // then
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(use.join().point()).isEqualTo(600L);
+        assertThat(userPointRepository.findById(userId).point()).isEqualTo(600L);
+        assertThat(failingHistoryRepository.findAllById(userId)).hasSize(2);
+        failingEngine.close();
+    }
+}
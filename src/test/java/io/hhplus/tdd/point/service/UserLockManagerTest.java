@@ -0,0 +1,111 @@
+package io.hhplus.tdd.point.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserLockManagerTest {
+    UserLockManager userLockManager = new UserLockManager();
+
+    @Test
+    @DisplayName("Lock 을 해제하면 더 이상 참조가 없는 유저의 Lock 은 제거된다.")
+    void lockIsEvictedAfterRelease() {
+        // when
+        try (UserLockManager.UserLock ignored = userLockManager.lock(123L)) {
+            assertThat(userLockManager.size()).isEqualTo(1);
+        }
+
+        // then
+        assertThat(userLockManager.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 쓰레드가 Lock 을 잡고 있으면 tryLock 은 기한까지만 기다리고 null 을 반환하며, 참조도 남기지 않는다.")
+    void tryLockTimesOutWithoutLeakingReference() throws Exception {
+        // given
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+
+        // when
+        UserLockManager.UserLock acquired;
+        try (UserLockManager.UserLock ignored = userLockManager.lock(123L)) {
+            acquired = executorService.submit(() -> userLockManager.tryLock(123L, TimeUnit.MILLISECONDS.toNanos(50))).get();
+            assertThat(userLockManager.size()).isEqualTo(1);
+        }
+        executorService.shutdown();
+
+        // then
+        assertThat(acquired).isNull();
+        assertThat(userLockManager.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("많은 유저 ID 에 동시에 접근해도 유저별 상호 배제가 지켜지고, 끝나면 Lock 이 남지 않는다.")
+    void stressOverLargeUserIdSpace() throws Exception {
+        // given
+        int threadCount = 16;
+        int iterationsPerThread = 100_000;
+        int hotUserCount = 64; // 충돌을 만들기 위한 일부 유저
+        long[] hotCounters = new long[hotUserCount]; // Lock 안에서만 증가시키는 일반 배열
+        AtomicLong hotAttempts = new AtomicLong();
+        AtomicInteger maxHeld = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        AtomicInteger[] holders = new AtomicInteger[hotUserCount];
+        for (int i = 0; i < hotUserCount; i++) {
+            holders[i] = new AtomicInteger();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // when
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < iterationsPerThread; i++) {
+                    if (random.nextInt(4) == 0) {
+                        int hot = random.nextInt(hotUserCount);
+                        hotAttempts.incrementAndGet();
+                        try (UserLockManager.UserLock ignored = userLockManager.lock(hot)) {
+                            if (holders[hot].incrementAndGet() != 1) {
+                                violations.incrementAndGet();
+                            }
+                            hotCounters[hot]++;
+                            holders[hot].decrementAndGet();
+                        }
+                    } else {
+                        // 한 번 쓰고 마는 유저 ID (최대 수백만 개)
+                        long userId = hotUserCount + random.nextLong(10_000_000L);
+                        try (UserLockManager.UserLock ignored = userLockManager.lock(userId)) {
+                            maxHeld.accumulateAndGet(userLockManager.size(), Math::max);
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        long total = 0;
+        for (long count : hotCounters) {
+            total += count;
+        }
+        assertThat(violations.get()).isZero();
+        assertThat(total).isEqualTo(hotAttempts.get()); // 잃어버린 증가가 없어야 한다.
+        assertThat(maxHeld.get()).isLessThanOrEqualTo(threadCount); // 동시에 처리 중인 유저 수를 넘지 않는다.
+        assertThat(userLockManager.size()).isZero();
+    }
+}
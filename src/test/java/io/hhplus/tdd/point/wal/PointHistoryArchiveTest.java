@@ -0,0 +1,178 @@
+package io.hhplus.tdd.point.wal;
+
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PointHistoryArchiveTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("보관한 내역은 다시 열었을 때 유저별로 id 순서대로 조회된다.")
+    void findAllByUserIdReadsArchivedRowsInIdOrder() {
+        // given
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 16)) {
+            archive.recover(0L);
+            archive.append(List.of(
+                    PointWalRecord.history(1L, 2L, 100L, TransactionType.CHARGE, 10L),
+                    PointWalRecord.history(2L, 1L, 200L, TransactionType.CHARGE, 20L),
+                    PointWalRecord.history(3L, 2L, 50L, TransactionType.USE, 30L)
+            ));
+            archive.force();
+            archive.append(List.of(PointWalRecord.history(4L, 1L, 70L, TransactionType.USE, 40L)));
+            archive.force();
+        }
+
+        // when
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 16)) {
+            archive.recover(4L);
+
+            // then
+            assertThat(archive.findAllByUserId(1L)).containsExactly(
+                    new PointHistory(2L, 1L, 200L, TransactionType.CHARGE, 20L),
+                    new PointHistory(4L, 1L, 70L, TransactionType.USE, 40L)
+            );
+            assertThat(archive.findAllByUserId(2L)).extracting(PointHistory::id).containsExactly(1L, 3L);
+            assertThat(archive.findAllByUserId(3L)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("chunk 가 많아지면 합치고, 합친 뒤에도 같은 결과를 돌려준다.")
+    void compactMergesChunks() {
+        // given
+        int chunkCount = 5;
+        List<Long> expectedIds = new ArrayList<>();
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 2)) {
+            archive.recover(0L);
+            long id = 0;
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                List<PointWalRecord> records = new ArrayList<>();
+                for (long userId = 1; userId <= 10; userId++) {
+                    id++;
+                    records.add(PointWalRecord.history(id, userId, 10L, TransactionType.CHARGE, id));
+                    if (userId == 7L) {
+                        expectedIds.add(id);
+                    }
+                }
+                archive.append(records);
+                archive.force();
+            }
+
+            // when
+            archive.compact();
+
+            // then
+            assertThat(archive.chunkCount()).isEqualTo(1);
+        }
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 2)) {
+            archive.recover(50L);
+            assertThat(archive.findAllByUserId(7L)).extracting(PointHistory::id).containsExactlyElementsOf(expectedIds);
+        }
+    }
+
+    @Test
+    @DisplayName("기동 시 복구한 범위 뒤에 보관된 내역은 조회하지 않는다.")
+    void rowsArchivedAfterRecoveryAreNotVisible() {
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 16)) {
+            // given
+            archive.recover(0L);
+
+            // when
+            archive.append(List.of(PointWalRecord.history(1L, 1L, 100L, TransactionType.CHARGE, 10L)));
+            archive.force();
+
+            // then
+            assertThat(archive.count()).isEqualTo(1L);
+            assertThat(archive.findAllByUserId(1L)).isEmpty(); // 아직 테이블에 남아있는 내역이다.
+        }
+    }
+
+    @Test
+    @DisplayName("페이지 조회는 chunk 를 넘나들며 cursor 다음부터 limit 건씩 돌려준다.")
+    void findPageByUserIdSpansChunks() {
+        // given : 유저 1 의 내역 id 는 1, 3 (첫 chunk), 5, 7 (두 번째 chunk)
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 16)) {
+            archive.recover(0L);
+            for (long chunk = 0; chunk < 2; chunk++) {
+                long base = chunk * 4;
+                archive.append(List.of(
+                        PointWalRecord.history(base + 1, 1L, 100L, TransactionType.CHARGE, 10L),
+                        PointWalRecord.history(base + 2, 2L, 100L, TransactionType.CHARGE, 20L),
+                        PointWalRecord.history(base + 3, 1L, 50L, TransactionType.USE, 30L),
+                        PointWalRecord.history(base + 4, 2L, 50L, TransactionType.USE, 40L)
+                ));
+                archive.force();
+            }
+        }
+
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 16)) {
+            archive.recover(8L);
+
+            // when
+            PointHistoryPage first = archive.findPageByUserId(1L, null, 3, PointHistoryOrder.ASC);
+            PointHistoryPage second = archive.findPageByUserId(1L, first.nextCursor(), 3, PointHistoryOrder.ASC);
+            PointHistoryPage descending = archive.findPageByUserId(1L, 7L, 2, PointHistoryOrder.DESC);
+
+            // then
+            assertThat(first.histories()).extracting(PointHistory::id).containsExactly(1L, 3L, 5L);
+            assertThat(first.nextCursor()).isEqualTo(5L);
+            assertThat(second.histories()).extracting(PointHistory::id).containsExactly(7L);
+            assertThat(second.hasNext()).isFalse();
+            assertThat(descending.histories()).extracting(PointHistory::id).containsExactly(5L, 3L);
+            assertThat(descending.nextCursor()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    @DisplayName("로그에 기록된 순서와 id 순서가 달라도, id 가 비어 있어도 기록한 id 순서대로 조회하고 합친 뒤에도 같다.")
+    void rowsArchivedOutOfIdOrderAreReadInIdOrder() {
+        // given : 동시에 처리된 요청의 내역은 늦게 부여받은 id 가 먼저 기록될 수 있고, 실패한 요청의 id 는 비어 있다.
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 2)) {
+            archive.recover(0L);
+            archive.append(List.of(
+                    PointWalRecord.history(2L, 1L, 100L, TransactionType.CHARGE, 10L),
+                    PointWalRecord.history(5L, 1L, 100L, TransactionType.CHARGE, 20L)
+            ));
+            archive.force();
+            archive.append(List.of(
+                    PointWalRecord.history(1L, 1L, 300L, TransactionType.CHARGE, 5L),
+                    PointWalRecord.history(6L, 1L, 50L, TransactionType.USE, 30L)
+            ));
+            archive.force();
+            archive.append(List.of(PointWalRecord.history(7L, 2L, 100L, TransactionType.CHARGE, 40L)));
+            archive.force();
+        }
+
+        try (PointHistoryArchive archive = new PointHistoryArchive(dir, 2)) {
+            archive.recover(5L);
+
+            // when
+            PointHistoryPage first = archive.findPageByUserId(1L, null, 2, PointHistoryOrder.ASC);
+            PointHistoryPage second = archive.findPageByUserId(1L, first.nextCursor(), 2, PointHistoryOrder.ASC);
+            PointHistoryPage descending = archive.findPageByUserId(1L, null, 3, PointHistoryOrder.DESC);
+            archive.compact();
+
+            // then
+            assertThat(archive.lastVisibleId()).isEqualTo(7L);
+            assertThat(first.histories()).extracting(PointHistory::id).containsExactly(1L, 2L);
+            assertThat(first.nextCursor()).isEqualTo(2L);
+            assertThat(second.histories()).extracting(PointHistory::id).containsExactly(5L, 6L);
+            assertThat(second.hasNext()).isFalse();
+            assertThat(descending.histories()).extracting(PointHistory::id).containsExactly(6L, 5L, 2L);
+            assertThat(archive.chunkCount()).isEqualTo(1);
+            assertThat(archive.findAllByUserId(1L)).extracting(PointHistory::id).containsExactly(1L, 2L, 5L, 6L);
+        }
+    }
+}
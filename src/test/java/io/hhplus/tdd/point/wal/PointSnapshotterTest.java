@@ -0,0 +1,151 @@
+package io.hhplus.tdd.point.wal;
+
+import io.hhplus.tdd.database.PointHistoryTable;
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.PointHistoryOrder;
+import io.hhplus.tdd.point.PointHistoryPage;
+import io.hhplus.tdd.point.TransactionType;
+import io.hhplus.tdd.point.repository.ArchivedPointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepository;
+import io.hhplus.tdd.point.repository.PointHistoryRepositoryImpl;
+import io.hhplus.tdd.point.repository.UserPointRepository;
+import io.hhplus.tdd.point.repository.UserPointRepositoryImpl;
+import io.hhplus.tdd.point.repository.WalPointHistoryRepository;
+import io.hhplus.tdd.point.repository.WalUserPointRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PointSnapshotterTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("스냅샷은 잔액과 내역 커서를 기록하고, 반영한 로그 세그먼트를 지운다.")
+    void snapshotFoldsClosedSegmentsAndTruncatesLog() {
+        try (PointWriteAheadLog wal = openLog(); PointHistoryArchive archive = openArchive();
+             PointSnapshotter snapshotter = new PointSnapshotter(wal, archive, snapshotPath(), 60_000L)) {
+            // given
+            wal.append(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.append(PointWalRecord.balance(1L, 1000L));
+            wal.append(PointWalRecord.history(2L, 2L, 500L, TransactionType.CHARGE, 20L));
+            wal.append(PointWalRecord.balance(2L, 500L));
+
+            // when
+            PointSnapshot snapshot = snapshotter.snapshot();
+
+            // then
+            assertThat(snapshot.balances()).containsEntry(1L, 1000L).containsEntry(2L, 500L);
+            assertThat(snapshot.historyCursor()).isEqualTo(2L);
+            assertThat(wal.segmentIds()).containsExactly(snapshot.nextSegmentId());
+            assertThat(PointSnapshot.read(snapshotPath())).isEqualTo(snapshot);
+        }
+    }
+
+    @Test
+    @DisplayName("기동 시 스냅샷 이후의 로그만 새로 합치고, 내역은 테이블에 넣지 않고 보관 파일에서 조회한다.")
+    void recoverLoadsSnapshotAndReplaysNewerEventsOnly() {
+        // given
+        try (PointWriteAheadLog wal = openLog(); PointHistoryArchive archive = openArchive();
+             PointSnapshotter snapshotter = new PointSnapshotter(wal, archive, snapshotPath(), 60_000L)) {
+            wal.append(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.append(PointWalRecord.balance(1L, 1000L));
+            snapshotter.snapshot();
+            wal.append(PointWalRecord.history(2L, 1L, 300L, TransactionType.USE, 20L));
+            wal.append(PointWalRecord.balance(1L, 700L));
+        }
+        UserPointTable userPointTable = new UserPointTable();
+        PointHistoryTable pointHistoryTable = new PointHistoryTable();
+
+        // when
+        try (PointWriteAheadLog wal = openLog(); PointHistoryArchive archive = openArchive()) {
+            PointWalRecovery.Result result = PointWalRecovery.recover(wal, archive, snapshotPath(), userPointTable);
+            List<PointHistory> histories = new ArchivedPointHistoryRepository(new PointHistoryRepositoryImpl(pointHistoryTable), archive)
+                    .findAllById(1L);
+
+            // then
+            assertThat(result).isEqualTo(new PointWalRecovery.Result(1, 1, 2, 2));
+            assertThat(userPointTable.selectById(1L).point()).isEqualTo(700L);
+            assertThat(pointHistoryTable.selectAllByUserId(1L)).isEmpty();
+            assertThat(histories).containsExactly(
+                    new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, 10L),
+                    new PointHistory(2L, 1L, 300L, TransactionType.USE, 20L)
+            );
+        }
+    }
+
+    /**
+     * 유저 1 의 요청이 id 1 을 받은 뒤 유저 2 의 요청(id 2)이 먼저 끝나 로그에는 id 2, 1 순서로 남는다.
+     * 그 사이 스냅샷이 찍혀 id 2 는 보관 파일에, id 1 은 로그 꼬리에 있다.
+     */
+    @Test
+    @DisplayName("재기동해도 내역 id 와 페이지 커서가 재기동 전과 같고, 새 내역의 id 는 그 뒤에 이어진다.")
+    void historyIdsAndCursorsSurviveRestart() {
+        // given
+        PointHistoryPage firstBefore;
+        PointHistoryPage secondBefore;
+        List<PointHistory> otherBefore;
+        try (PointWriteAheadLog wal = openLog(); PointHistoryArchive archive = openArchive();
+             PointSnapshotter snapshotter = new PointSnapshotter(wal, archive, snapshotPath(), 60_000L)) {
+            PointWalRecovery.recover(wal, archive, snapshotPath(), new UserPointTable());
+            PointHistoryRepository pointHistoryRepository = historyRepository(wal, archive, new PointHistoryTable());
+            UserPointRepository userPointRepository = new WalUserPointRepository(new UserPointRepositoryImpl(new UserPointTable()), wal);
+
+            pointHistoryRepository.save(1L, 1000L, TransactionType.CHARGE, 10L);
+            pointHistoryRepository.save(2L, 500L, TransactionType.CHARGE, 20L);
+            userPointRepository.saveOrUpdate(2L, 500L);
+            snapshotter.snapshot();
+            pointHistoryRepository.save(1L, 300L, TransactionType.USE, 30L);
+            userPointRepository.saveOrUpdate(1L, 700L);
+            pointHistoryRepository.save(1L, 200L, TransactionType.USE, 40L);
+            userPointRepository.saveOrUpdate(1L, 500L);
+
+            firstBefore = pointHistoryRepository.findPageById(1L, null, 2, PointHistoryOrder.ASC);
+            secondBefore = pointHistoryRepository.findPageById(1L, firstBefore.nextCursor(), 2, PointHistoryOrder.ASC);
+            otherBefore = pointHistoryRepository.findAllById(2L);
+        }
+        UserPointTable userPointTable = new UserPointTable();
+
+        // when
+        try (PointWriteAheadLog wal = openLog(); PointHistoryArchive archive = openArchive()) {
+            PointWalRecovery.recover(wal, archive, snapshotPath(), userPointTable);
+            PointHistoryRepository pointHistoryRepository = historyRepository(wal, archive, new PointHistoryTable());
+            PointHistoryPage first = pointHistoryRepository.findPageById(1L, null, 2, PointHistoryOrder.ASC);
+            PointHistoryPage second = pointHistoryRepository.findPageById(1L, first.nextCursor(), 2, PointHistoryOrder.ASC);
+            PointHistory saved = pointHistoryRepository.save(1L, 100L, TransactionType.CHARGE, 50L);
+
+            // then
+            assertThat(firstBefore.histories()).extracting(PointHistory::id).containsExactly(1L, 3L);
+            assertThat(first).isEqualTo(firstBefore);
+            assertThat(second).isEqualTo(secondBefore);
+            assertThat(second.histories()).extracting(PointHistory::id).containsExactly(4L);
+            assertThat(pointHistoryRepository.findAllById(2L)).isEqualTo(otherBefore);
+            assertThat(saved.id()).isEqualTo(5L);
+            assertThat(userPointTable.selectById(1L).point()).isEqualTo(500L);
+        }
+    }
+
+    // PointRepositoryConfig 와 같은 순서로 감싼다.
+    private PointHistoryRepository historyRepository(PointWriteAheadLog wal, PointHistoryArchive archive, PointHistoryTable pointHistoryTable) {
+        return new WalPointHistoryRepository(
+                new ArchivedPointHistoryRepository(new PointHistoryRepositoryImpl(pointHistoryTable), archive), wal);
+    }
+
+    private PointWriteAheadLog openLog() {
+        return new PointWriteAheadLog(dir.resolve("wal"), PointWriteAheadLog.SyncMode.GROUP, 10L, 1_000, 64);
+    }
+
+    private PointHistoryArchive openArchive() {
+        return new PointHistoryArchive(dir.resolve("wal").resolve("history-archive"), 16);
+    }
+
+    private Path snapshotPath() {
+        return dir.resolve("wal").resolve("point.snapshot");
+    }
+}
@@ -0,0 +1,348 @@
+package io.hhplus.tdd.point.wal;
+
+import io.hhplus.tdd.database.UserPointTable;
+import io.hhplus.tdd.point.PointHistory;
+import io.hhplus.tdd.point.TransactionType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PointWriteAheadLogTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("기록한 레코드는 다시 열었을 때 같은 순서로 읽힌다.")
+    void appendedRecordsAreReplayedAfterReopen() {
+        // given
+        Path path = dir.resolve("wal");
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.append(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.append(PointWalRecord.balance(1L, 1000L));
+            wal.append(PointWalRecord.history(2L, 1L, 300L, TransactionType.USE, 20L));
+            wal.append(PointWalRecord.balance(1L, 700L));
+        }
+
+        // when
+        List<PointWalRecord> records = new ArrayList<>();
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.replay(records::add);
+        }
+
+        // then
+        assertThat(records).containsExactly(
+                PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L),
+                PointWalRecord.balance(1L, 1000L),
+                PointWalRecord.history(2L, 1L, 300L, TransactionType.USE, 20L),
+                PointWalRecord.balance(1L, 700L)
+        );
+    }
+
+    @Test
+    @DisplayName("기록 중 중단되어 깨진 꼬리는 열 때 잘라내고 이어서 기록한다.")
+    void incompleteTailIsTruncatedOnOpen() throws IOException {
+        // given
+        Path path = dir.resolve("wal");
+        Path segment;
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.append(PointWalRecord.balance(1L, 100L));
+            segment = wal.segmentPath(wal.activeSegmentId());
+        }
+        Files.write(segment, new byte[]{1, 2, 3, 4, 5}, StandardOpenOption.APPEND);
+
+        // when
+        List<PointWalRecord> records = new ArrayList<>();
+        try (PointWriteAheadLog wal = open(path)) {
+            assertThat(wal.size()).isEqualTo(PointWalRecord.SIZE);
+            wal.append(PointWalRecord.balance(1L, 200L));
+            wal.replay(records::add);
+        }
+
+        // then
+        assertThat(records).containsExactly(PointWalRecord.balance(1L, 100L), PointWalRecord.balance(1L, 200L));
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 기록은 묶어서 fsync 한다.")
+    void concurrentAppendsAreGroupCommitted() throws InterruptedException {
+        // given
+        int threadCount = 8;
+        int appendsPerThread = 100;
+        Path path = dir.resolve("wal");
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch latch = new CountDownLatch(threadCount);
+
+        try (PointWriteAheadLog wal = open(path)) {
+            // when
+            for (int t = 0; t < threadCount; t++) {
+                long userId = t;
+                executorService.submit(() -> {
+                    try {
+                        for (int i = 0; i < appendsPerThread; i++) {
+                            wal.append(PointWalRecord.balance(userId, i));
+                        }
+                    } finally {
+                        latch.countDown();
+                    }
+                });
+            }
+            latch.await(60, TimeUnit.SECONDS);
+            executorService.shutdown();
+
+            // then
+            List<PointWalRecord> records = new ArrayList<>();
+            wal.replay(records::add);
+            assertThat(records).hasSize(threadCount * appendsPerThread);
+            assertThat(wal.syncCount()).isLessThan(threadCount * appendsPerThread);
+        }
+    }
+
+    @Test
+    @DisplayName("종료와 겹쳐 들어온 기록은 기록되거나 실패하고, 기다리는 쓰레드가 남지 않는다.")
+    void appendsRacingCloseAllReturn() throws InterruptedException {
+        // given
+        int threadCount = 8;
+        Path path = dir.resolve("wal");
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch started = new CountDownLatch(threadCount);
+        PointWriteAheadLog wal = new PointWriteAheadLog(path, PointWriteAheadLog.SyncMode.GROUP, 10L, 16, 8);
+        for (int t = 0; t < threadCount; t++) {
+            long userId = t;
+            executorService.submit(() -> {
+                started.countDown();
+                for (int i = 0; i < 1_000; i++) {
+                    try {
+                        wal.append(PointWalRecord.balance(userId, i));
+                    } catch (IllegalStateException e) {
+                        return; // 종료 후에는 접수 자체가 거절된다.
+                    }
+                }
+            });
+        }
+        started.await();
+
+        // when
+        wal.close();
+        executorService.shutdown();
+
+        // then
+        assertThat(executorService.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("여러 레코드를 한 번에 접수하면 모두 기록된 뒤에 반환하고, 접수한 순서대로 읽힌다.")
+    void appendAllWritesRecordsInOrder() {
+        // given
+        Path path = dir.resolve("wal");
+        List<PointWalRecord> appended = List.of(
+                PointWalRecord.history(1L, 1L, 300L, TransactionType.USE, 10L),
+                PointWalRecord.history(2L, 2L, 300L, TransactionType.CHARGE, 10L)
+        );
+
+        // when
+        List<PointWalRecord> records = new ArrayList<>();
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.appendAll(appended);
+            wal.replay(records::add);
+        }
+
+        // then
+        assertThat(records).containsExactlyElementsOf(appended);
+    }
+
+    @Test
+    @DisplayName("모아둔 내역 레코드는 같은 유저의 잔액 레코드 앞에 붙어 함께 기록된다.")
+    void stagedHistoriesAreCommittedWithBalance() {
+        // given
+        Path path = dir.resolve("wal");
+
+        // when
+        List<PointWalRecord> records = new ArrayList<>();
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.stage(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.stage(PointWalRecord.history(2L, 2L, 500L, TransactionType.CHARGE, 10L));
+            wal.commit(PointWalRecord.balance(1L, 1000L));
+            wal.replay(records::add);
+        }
+
+        // then
+        assertThat(records).containsExactly(
+                PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L),
+                PointWalRecord.balance(1L, 1000L)
+        );
+    }
+
+    @Test
+    @DisplayName("버린 내역 레코드는 같은 유저의 다음 잔액 레코드와 함께 기록되지 않는다.")
+    void discardedHistoriesAreNotCommitted() {
+        // given : 내역은 모아두었지만 잔액 저장에 실패한 요청
+        Path path = dir.resolve("wal");
+        List<PointWalRecord> records = new ArrayList<>();
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.stage(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.discard(1L);
+
+            // when
+            wal.stage(PointWalRecord.history(2L, 1L, 500L, TransactionType.CHARGE, 20L));
+            wal.commit(PointWalRecord.balance(1L, 500L));
+            wal.replay(records::add);
+        }
+
+        // then
+        assertThat(records).containsExactly(
+                PointWalRecord.history(2L, 1L, 500L, TransactionType.CHARGE, 20L),
+                PointWalRecord.balance(1L, 500L)
+        );
+    }
+
+    @Test
+    @DisplayName("잔액 레코드로 끝나지 않은 내역 레코드는 열 때 잘라내고 재생하지 않는다.")
+    void uncommittedGroupIsTruncatedOnOpen() {
+        // given
+        Path path = dir.resolve("wal");
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.append(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.append(PointWalRecord.balance(1L, 1000L));
+            wal.append(PointWalRecord.history(2L, 1L, 300L, TransactionType.USE, 20L));
+        }
+
+        // when
+        List<PointWalRecord> records = new ArrayList<>();
+        try (PointWriteAheadLog wal = open(path)) {
+            assertThat(wal.size()).isEqualTo(2L * PointWalRecord.SIZE);
+            wal.replayCommittedFrom(1L, records::add);
+        }
+
+        // then
+        assertThat(records).containsExactly(
+                PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L),
+                PointWalRecord.balance(1L, 1000L)
+        );
+    }
+
+    @Test
+    @DisplayName("rotate 이후의 기록은 새 세그먼트에 남고, 지운 세그먼트는 다시 읽지 않는다.")
+    void rotateStartsNewSegment() {
+        // given
+        Path path = dir.resolve("wal");
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.append(PointWalRecord.balance(1L, 100L));
+
+            // when
+            long next = wal.rotate();
+            wal.append(PointWalRecord.balance(1L, 200L));
+            wal.deleteSegmentsBefore(next);
+
+            // then
+            List<PointWalRecord> records = new ArrayList<>();
+            wal.replay(records::add);
+            assertThat(next).isEqualTo(2L);
+            assertThat(wal.segmentIds()).containsExactly(2L);
+            assertThat(records).containsExactly(PointWalRecord.balance(1L, 200L));
+        }
+    }
+
+    @Test
+    @DisplayName("기동 시 잔액은 테이블에, 내역은 기록한 id 그대로 보관 파일에 반영한다.")
+    void recoverRestoresBalancesAndArchivesHistories() {
+        // given
+        Path path = dir.resolve("wal");
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.append(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.append(PointWalRecord.balance(1L, 1000L));
+            wal.append(PointWalRecord.history(2L, 1L, 400L, TransactionType.USE, 20L));
+            wal.append(PointWalRecord.balance(1L, 600L));
+        }
+        UserPointTable userPointTable = new UserPointTable();
+
+        // when
+        PointWalRecovery.Result result;
+        try (PointWriteAheadLog wal = open(path); PointHistoryArchive archive = openArchive(path)) {
+            result = PointWalRecovery.recover(wal, archive, path.resolve("point.snapshot"), userPointTable);
+
+            // then
+            assertThat(archive.findAllByUserId(1L)).containsExactly(
+                    new PointHistory(1L, 1L, 1000L, TransactionType.CHARGE, 10L),
+                    new PointHistory(2L, 1L, 400L, TransactionType.USE, 20L)
+            );
+        }
+        assertThat(result).isEqualTo(new PointWalRecovery.Result(1, 2, 2, 2));
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(600L);
+    }
+
+    @Test
+    @DisplayName("여러 유저를 한 그룹으로 기록하다 두 잔액 사이에서 중단되면, 어느 유저의 내역과 잔액도 반영하지 않는다.")
+    void transferGroupCutBetweenBalancesIsNotRecovered() throws IOException {
+        // given : 1 -> 2 로 300 이동이 기록되다가 받은 유저의 잔액 레코드 직전에 중단되었다.
+        Path path = dir.resolve("wal");
+        Path segment;
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.stage(PointWalRecord.history(1L, 1L, 1000L, TransactionType.CHARGE, 10L));
+            wal.commit(PointWalRecord.balance(1L, 1000L));
+            wal.stage(PointWalRecord.history(2L, 1L, 300L, TransactionType.USE, 20L));
+            wal.stage(PointWalRecord.history(3L, 2L, 300L, TransactionType.CHARGE, 20L));
+            wal.commitAll(List.of(PointWalRecord.balance(1L, 700L), PointWalRecord.balance(2L, 300L)));
+            segment = wal.segmentPath(wal.activeSegmentId());
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - PointWalRecord.SIZE);
+        }
+        UserPointTable userPointTable = new UserPointTable();
+
+        // when
+        try (PointWriteAheadLog wal = open(path); PointHistoryArchive archive = openArchive(path)) {
+            PointWalRecovery.recover(wal, archive, path.resolve("point.snapshot"), userPointTable);
+
+            // then
+            assertThat(archive.findAllByUserId(1L)).extracting(PointHistory::amount).containsExactly(1000L);
+            assertThat(archive.findAllByUserId(2L)).isEmpty();
+        }
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(1000L);
+        assertThat(userPointTable.selectById(2L).point()).isZero();
+    }
+
+    @Test
+    @DisplayName("여러 유저를 한 그룹으로 끝까지 기록하면 두 유저의 내역과 잔액이 모두 반영된다.")
+    void transferGroupIsRecovered() {
+        // given
+        Path path = dir.resolve("wal");
+        try (PointWriteAheadLog wal = open(path)) {
+            wal.stage(PointWalRecord.history(1L, 1L, 300L, TransactionType.USE, 20L));
+            wal.stage(PointWalRecord.history(2L, 2L, 300L, TransactionType.CHARGE, 20L));
+            wal.commitAll(List.of(PointWalRecord.balance(1L, 700L), PointWalRecord.balance(2L, 300L)));
+        }
+        UserPointTable userPointTable = new UserPointTable();
+
+        // when
+        try (PointWriteAheadLog wal = open(path); PointHistoryArchive archive = openArchive(path)) {
+            PointWalRecovery.recover(wal, archive, path.resolve("point.snapshot"), userPointTable);
+
+            // then
+            assertThat(archive.findAllByUserId(2L)).extracting(PointHistory::amount).containsExactly(300L);
+        }
+        assertThat(userPointTable.selectById(1L).point()).isEqualTo(700L);
+        assertThat(userPointTable.selectById(2L).point()).isEqualTo(300L);
+    }
+
+    private PointWriteAheadLog open(Path path) {
+        return new PointWriteAheadLog(path, PointWriteAheadLog.SyncMode.GROUP, 10L, 1_000, 64);
+    }
+
+    private PointHistoryArchive openArchive(Path path) {
+        return new PointHistoryArchive(path.resolve("history-archive"), 16);
+    }
+}